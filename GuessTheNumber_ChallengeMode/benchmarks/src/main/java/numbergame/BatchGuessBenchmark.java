@@ -0,0 +1,83 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Time per guess for a bot feeding 4096 (session, guess) pairs over 4096 sessions: one
+// GameSession.evaluateGuess() call per pair, against SessionTable.guess() in batches of
+// batchSize pairs. perCall does not depend on batchSize. Rounds allow 1000 attempts on a
+// range of a million, so nearly every pair is a plain LOW/HIGH guess; a round that ends is
+// restarted on the spot in both paths.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchGuessBenchmark {
+    private static final int SESSIONS = 4096;
+    private static final int PAIRS = 4096;
+    private static final int MAX_RANGE = 1_000_000;
+    private static final int MAX_ATTEMPTS = 1000;
+
+    @Param({"1", "16", "64", "256", "1024", "4096"})
+    public int batchSize;
+
+    private GameSession[] sessions;
+    private SessionTable table;
+    private final int[] sessionIds = new int[PAIRS];
+    private final int[] guesses = new int[PAIRS];
+    private final int[] batchIds = new int[PAIRS];
+    private final int[] batchGuesses = new int[PAIRS];
+    private final byte[] outcomes = new byte[PAIRS];
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(23);
+        sessions = new GameSession[SESSIONS];
+        table = new SessionTable(GameClock.SYSTEM, SESSIONS);
+        for (int s = 0; s < SESSIONS; s++) {
+            sessions[s] = new GameSession(1, MAX_RANGE, MAX_ATTEMPTS, GameClock.SYSTEM, new SplittableRandom(s));
+            table.open(1, MAX_RANGE, MAX_ATTEMPTS, 60, random.nextLong());
+        }
+        for (int i = 0; i < PAIRS; i++) {
+            sessionIds[i] = random.nextInt(SESSIONS);
+            guesses[i] = 1 + random.nextInt(MAX_RANGE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public byte[] perCall() {
+        for (int i = 0; i < PAIRS; i++) {
+            GameSession session = sessions[sessionIds[i]];
+            GuessOutcome outcome = session.evaluateGuess(guesses[i]);
+            outcomes[i] = (byte) outcome.ordinal();
+            if (outcome.isGameOver()) {
+                session.resetGame();
+            }
+        }
+        return outcomes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public byte[] batched() {
+        for (int from = 0; from < PAIRS; from += batchSize) {
+            // A client assembles each batch in its own buffers before sending it
+            System.arraycopy(sessionIds, from, batchIds, 0, batchSize);
+            System.arraycopy(guesses, from, batchGuesses, 0, batchSize);
+            if (table.guess(batchIds, batchGuesses, batchSize, outcomes) > 0) {
+                for (int i = 0; i < batchSize; i++) {
+                    if (outcomes[i] != SessionTable.NO_ROUND && table.isRoundOver(batchIds[i])) {
+                        table.startRound(batchIds[i], ++seed);
+                    }
+                }
+            }
+        }
+        return outcomes;
+    }
+}
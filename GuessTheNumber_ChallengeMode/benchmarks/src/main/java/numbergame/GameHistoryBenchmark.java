@@ -0,0 +1,68 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// GameHistoryStore scan cost per row for each query over a store of synthetic games from
+// 100,000 players; the store is filled once per trial and stays in the page cache
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameHistoryBenchmark {
+    private static final int ROWS = 1 << 24;
+    private static final int PLAYERS = 100_000;
+    private static final GuessOutcome[] OUTCOMES = GuessOutcome.values();
+
+    private Path dir;
+    private GameHistoryStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("history");
+        store = GameHistoryStore.open(dir);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < ROWS; i++) {
+            int level = 1 + random.nextInt(30);
+            GuessOutcome outcome = random.nextInt(4) == 0 ? OUTCOMES[3 + random.nextInt(2)] : GuessOutcome.CORRECT;
+            store.append(random.nextInt(PLAYERS), level, 100 + level * 50, 1 + random.nextInt(15), outcome,
+                random.nextInt(60_000), random.nextInt(4));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public GameHistoryStore.LevelCounts winRateByLevel() {
+        return store.winRateByLevel();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long[] streakDistribution() {
+        return store.streakDistribution();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long[] attemptsHistogram() {
+        return store.attemptsHistogram();
+    }
+}
@@ -0,0 +1,73 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// GameSession hot paths on a headless session with a simulated clock
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameSessionBenchmark {
+    private ManualClock clock;
+    private GameSession session;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        clock = new ManualClock(0);
+        session = new GameSession(1, 100, 10, clock, new SplittableRandom(42));
+    }
+
+    // One full round of bisection through checkGuess, feedback text included
+    @Benchmark
+    public void checkGuessRound(Blackhole bh) {
+        session.resetGame();
+        int low = session.getMinRange();
+        int high = session.getMaxRange();
+        while (true) {
+            int guess = (low + high) >>> 1;
+            bh.consume(session.checkGuess(guess));
+            if (session.isGameWon() || session.getAttempts() >= session.getMaxAttempts()) {
+                return;
+            }
+            if (guess < session.getTargetNumber()) {
+                low = guess + 1;
+            } else {
+                high = guess - 1;
+            }
+        }
+    }
+
+    // Same round through the typed API; no feedback text is built
+    @Benchmark
+    public int evaluateGuessRound() {
+        session.resetGame();
+        int low = session.getMinRange();
+        int high = session.getMaxRange();
+        while (true) {
+            int guess = (low + high) >>> 1;
+            GuessOutcome outcome = session.evaluateGuess(guess);
+            if (outcome == GuessOutcome.LOW) {
+                low = guess + 1;
+            } else if (outcome == GuessOutcome.HIGH) {
+                high = guess - 1;
+            } else {
+                return session.getRemainingAttempts();
+            }
+        }
+    }
+
+    // All three power-ups of a round, feedback text included
+    @Benchmark
+    public void usePowerUp(Blackhole bh) {
+        session.resetGame();
+        bh.consume(session.usePowerUp());
+        bh.consume(session.usePowerUp());
+        bh.consume(session.usePowerUp());
+    }
+}
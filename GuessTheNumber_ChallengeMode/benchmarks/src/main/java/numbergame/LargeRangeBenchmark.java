@@ -0,0 +1,63 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// LargeRangeSession costs by range size, from 1-2^7 up to 1-2^62 on the long path and
+// 1-2^100 on the BigInteger one; per-guess and per-round costs should not grow with the range
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LargeRangeBenchmark {
+    private static final int GUESSES = 1024;
+
+    @Param({"7", "16", "32", "48", "62", "100"})
+    public int bits;
+
+    private LargeRangeSession session;
+    private final long[] guesses = new long[GUESSES];
+    private final BigInteger[] bigGuesses = new BigInteger[GUESSES];
+    private int next;
+    private long seed;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BigInteger max = BigInteger.ONE.shiftLeft(bits);
+        // Attempts never run out and no guess hits the target, so the round never ends and every
+        // call is a full comparison; the margin leaves room for extra-attempt power-ups
+        session = new LargeRangeSession(BigInteger.ONE, max, Integer.MAX_VALUE - GameSession.POWER_UPS_PER_ROUND,
+            new ManualClock(0), new SplittableRandom(42));
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < GUESSES; i++) {
+            BigInteger guess = BigInteger.ONE.add(LargeRangeSession.boundedBig(random.nextLong(), max));
+            if (guess.equals(session.getTargetBig())) {
+                guess = guess.add(BigInteger.ONE);
+            }
+            bigGuesses[i] = guess;
+            guesses[i] = guess.bitLength() < 64 ? guess.longValue() : Long.MAX_VALUE;
+        }
+    }
+
+    @Benchmark
+    public GuessOutcome evaluateGuess() {
+        return session.evaluateGuess(guesses[next++ & (GUESSES - 1)]);
+    }
+
+    @Benchmark
+    public GuessOutcome evaluateBigGuess() {
+        return session.evaluateGuess(bigGuesses[next++ & (GUESSES - 1)]);
+    }
+
+    // New target plus all three power-ups
+    @Benchmark
+    public int startRoundWithPowerUps() {
+        session.startRound(seed++);
+        return session.applyPowerUp() + session.applyPowerUp() + session.applyPowerUp();
+    }
+}
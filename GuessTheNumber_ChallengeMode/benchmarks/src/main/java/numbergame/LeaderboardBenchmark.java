@@ -0,0 +1,69 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Leaderboard queries and updates over a populated board
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+    private static final long[] NO_ACHIEVEMENTS = {};
+
+    @Param({"1000000"})
+    public int players;
+
+    private Leaderboard leaderboard;
+    private PlayerStats stats;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+        final int[] top = new int[10];
+    }
+
+    @Setup
+    public void setUp() {
+        leaderboard = new Leaderboard();
+        stats = new PlayerStats();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int p = 0; p < players; p++) {
+            randomize(stats, random);
+            leaderboard.update(p, stats);
+        }
+    }
+
+    private static void randomize(PlayerStats stats, SplittableRandom random) {
+        int games = 1 + random.nextInt(200);
+        int won = random.nextInt(games + 1);
+        stats.restore(games, won, 0, random.nextInt(won + 1), games * (3 + random.nextInt(8)), 0, 1, 0, NO_ACHIEVEMENTS);
+    }
+
+    @Benchmark
+    public int rank(ThreadState state) {
+        return leaderboard.rank(Leaderboard.Metric.WIN_RATE, state.random.nextInt(players));
+    }
+
+    @Benchmark
+    public int top10(ThreadState state) {
+        return leaderboard.top(Leaderboard.Metric.BEST_STREAK, 10, state.top);
+    }
+
+    @Benchmark
+    public int playerAtRank(ThreadState state) {
+        return leaderboard.playerAt(Leaderboard.Metric.AVERAGE_GUESSES, 1 + state.random.nextInt(players));
+    }
+
+    // Moves one player on all three rankings
+    @Benchmark
+    @Threads(1)
+    public void update(ThreadState state) {
+        randomize(stats, state.random);
+        leaderboard.update(state.random.nextInt(players), stats);
+    }
+}
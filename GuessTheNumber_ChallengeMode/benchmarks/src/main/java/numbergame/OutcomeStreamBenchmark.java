@@ -0,0 +1,52 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// What a game thread pays to publish a finished round to OutcomeStream, with the consumer
+// folding outcomes into the 1m/5m/1h windows alongside; outcomes the consumer could not keep
+// up with are dropped rather than waited for, and the drop count is printed per iteration
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutcomeStreamBenchmark {
+    private static final GuessOutcome[] OUTCOMES = {
+        GuessOutcome.CORRECT, GuessOutcome.CORRECT, GuessOutcome.CORRECT, GuessOutcome.OUT_OF_ATTEMPTS,
+        GuessOutcome.CORRECT, GuessOutcome.CORRECT, GuessOutcome.TIME_UP, GuessOutcome.CORRECT
+    };
+
+    private OutcomeStream stream;
+    private long dropped;
+
+    @State(Scope.Thread)
+    public static class Player {
+        int round;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stream = new OutcomeStream(GameClock.SYSTEM, 1 << 14);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long total = stream.getDropped();
+        System.out.printf("  dropped %,d%n", total - dropped);
+        dropped = total;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stream.close();
+    }
+
+    @Benchmark
+    public boolean publish(Player player) {
+        int round = player.round++;
+        return stream.publish(System.nanoTime(), 1 + (round & 15), OUTCOMES[round & 7], 1 + (round % 12));
+    }
+}
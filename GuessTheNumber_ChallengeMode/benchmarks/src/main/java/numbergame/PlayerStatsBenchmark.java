@@ -0,0 +1,58 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerStatsBenchmark {
+    // 0 uses the bundled achievements.txt; otherwise that many generated rules
+    @Param({"0", "500"})
+    public int rules;
+
+    private AchievementEngine engine;
+    private PlayerStats stats;
+    private int game;
+
+    @Setup(Level.Trial)
+    public void loadRules() throws IOException {
+        if (rules == 0) {
+            engine = AchievementEngine.defaultEngine();
+            return;
+        }
+        StringBuilder file = new StringBuilder();
+        AchievementEngine.Stat[] stats = AchievementEngine.Stat.values();
+        for (int id = 0; id < rules; id++) {
+            file.append(id).append(" | Rule ").append(id).append(" | ")
+                .append(stats[id % stats.length]).append(" | ").append(1 + id * 7L).append(" | 1\n");
+        }
+        engine = AchievementEngine.load(new StringReader(file.toString()));
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        stats = new PlayerStats(engine);
+        game = 0;
+    }
+
+    // Alternates short win streaks with losses so every achievement branch is taken
+    @Benchmark
+    public int updateStats() {
+        game++;
+        stats.updateStats(game % 7 != 0, 1 + (game & 7));
+        return stats.getCoins();
+    }
+
+    @Benchmark
+    public int checkAchievements() {
+        stats.checkAchievements();
+        return stats.getCoins();
+    }
+}
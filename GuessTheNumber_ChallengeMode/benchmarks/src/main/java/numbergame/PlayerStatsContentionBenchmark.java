@@ -0,0 +1,81 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// One player's stats updated by every benchmark thread at once: a PlayerStats behind a lock
+// against ConcurrentPlayerStats. Run with -t N for one thread count, or run main for the sweep.
+// Usage: java -cp benchmarks/target/benchmarks.jar numbergame.PlayerStatsContentionBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerStatsContentionBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private PlayerStats lockedStats;
+    private ConcurrentPlayerStats concurrentStats;
+
+    @State(Scope.Thread)
+    public static class Games {
+        int game;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AchievementEngine engine = AchievementEngine.defaultEngine();
+        lockedStats = new PlayerStats(engine);
+        concurrentStats = new ConcurrentPlayerStats(engine, 64);
+    }
+
+    @Benchmark
+    public int synchronizedUpdate(Games games) {
+        int game = ++games.game;
+        synchronized (lockedStats) {
+            lockedStats.updateStats(game % 7 != 0, 1 + (game & 7));
+            return lockedStats.getCoins();
+        }
+    }
+
+    @Benchmark
+    public long concurrentUpdate(Games games) {
+        int game = ++games.game;
+        concurrentStats.updateStats(game % 7 != 0, 1 + (game & 7));
+        return game;
+    }
+
+    // Readers racing the writers; each read is one consistent pass over the stripes
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixedUpdate(Games games) {
+        int game = ++games.game;
+        concurrentStats.updateStats(game % 7 != 0, 1 + (game & 7));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    public double mixedWinRate() {
+        return concurrentStats.getWinRate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                .include(PlayerStatsContentionBenchmark.class.getSimpleName() + "\\.(synchronized|concurrent)Update")
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Djava.awt.headless=true")
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// ProfileService.recordGame over 100,000 players with skewed popularity (a few hot players,
+// a long cold tail) at different cache sizes; the hit rate is printed after each iteration
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProfileServiceBenchmark {
+    private static final int PLAYERS = 100_000;
+    private static final int DRAWS = 1 << 16;
+
+    @Param({"1000", "10000", "100000"})
+    public int capacity;
+
+    private Path dir;
+    private ProfileService service;
+    private final int[] players = new int[DRAWS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("profiles");
+        service = ProfileService.open(dir, capacity);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < DRAWS; i++) {
+            // Exponential popularity: half the draws go to the hottest ~7,000 players
+            players[i] = (int) Math.min(PLAYERS - 1, -Math.log(1 - random.nextDouble()) * 10_000);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("  hit rate %.1f%%, evictions %,d%n", service.hitRate() * 100, service.getEvictions());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        service.close();
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public void recordGame() throws IOException {
+        int player = players[next++ & (DRAWS - 1)];
+        service.recordGame(player, (player & 1) == 0, 5);
+    }
+}
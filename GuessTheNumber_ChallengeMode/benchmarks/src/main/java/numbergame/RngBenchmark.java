@@ -0,0 +1,75 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+// Drawing a 1-100 target from every benchmark thread at once. newRandomPerCall and sharedRandom
+// are java.util.Random as a fresh instance per draw and as one shared generator; the rest are
+// the RngProvider streams and ThreadLocalRandom. seededRound is what a session does per round:
+// one seed from its stream, then an unbiased bounded() target from the seed.
+// Run with -t N for one thread count, or run main for the sweep.
+// Usage: java -cp benchmarks/target/benchmarks.jar numbergame.RngBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RngBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    private final Random sharedRandom = new Random();
+    private final RandomGenerator splittable = RngProvider.splittable(23).perThread();
+    private final RandomGenerator l64x128 = RngProvider.l64x128(23).perThread();
+
+    @Benchmark
+    public int newRandomPerCall() {
+        return new Random().nextInt(1, 101);
+    }
+
+    @Benchmark
+    public int sharedRandom() {
+        return sharedRandom.nextInt(1, 101);
+    }
+
+    @Benchmark
+    public int threadLocalRandom() {
+        return ThreadLocalRandom.current().nextInt(1, 101);
+    }
+
+    @Benchmark
+    public int splittablePerThread() {
+        return splittable.nextInt(1, 101);
+    }
+
+    @Benchmark
+    public int l64x128PerThread() {
+        return l64x128.nextInt(1, 101);
+    }
+
+    @Benchmark
+    public long seededRound() {
+        return 1 + RngProvider.bounded(splittable.nextLong(), 100);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                .include(RngBenchmark.class.getSimpleName())
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Djava.awt.headless=true")
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
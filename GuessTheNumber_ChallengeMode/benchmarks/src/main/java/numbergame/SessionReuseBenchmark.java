@@ -0,0 +1,71 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Allocation per played round for the session lifecycles; read gc.alloc.rate.norm.
+// A fresh session per round is the old EnhancedGameUI behaviour; the other two should be 0 B/op.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SessionReuseBenchmark {
+    private final ManualClock clock = new ManualClock(0);
+    private SessionPool pool;
+    private GameSession session;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = new SessionPool(clock, GameSession.THREAD_RANDOM, 16);
+        pool.release(new GameSession(1, 100, 10, clock, GameSession.THREAD_RANDOM));
+        session = new GameSession(1, 100, 10, clock, GameSession.THREAD_RANDOM);
+    }
+
+    @Benchmark
+    public int newSessionPerRound() {
+        GameSession fresh = new GameSession(1, 100, 10, clock, new SplittableRandom(GameSession.THREAD_RANDOM.nextLong()));
+        return play(fresh);
+    }
+
+    @Benchmark
+    public int pooledSessionPerRound() {
+        GameSession pooled = pool.acquire(1, 100, 10);
+        int attempts = play(pooled);
+        pool.release(pooled);
+        return attempts;
+    }
+
+    // One session climbing levels, as EnhancedGameUI now does
+    @Benchmark
+    public int resetInPlace() {
+        if (session.isGameWon()) {
+            if (session.getLevel() < 10) {
+                session.increaseDifficulty();
+            } else {
+                session.reinitialize(1, 100, 10);
+            }
+        }
+        session.resetGame();
+        return play(session);
+    }
+
+    private static int play(GameSession session) {
+        int low = session.getMinRange();
+        int high = session.getMaxRange();
+        while (true) {
+            int guess = (low + high) >>> 1;
+            GuessOutcome outcome = session.evaluateGuess(guess);
+            if (outcome == GuessOutcome.LOW) {
+                low = guess + 1;
+            } else if (outcome == GuessOutcome.HIGH) {
+                high = guess - 1;
+            } else {
+                return session.getAttempts();
+            }
+        }
+    }
+}
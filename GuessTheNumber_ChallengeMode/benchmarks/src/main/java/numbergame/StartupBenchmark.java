@@ -0,0 +1,90 @@
+package numbergame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Cold start of the desktop game, measured as time to the first interactive guess: each run
+// starts a fresh JVM with the startup probe on, which opens the window, plays one guess and
+// prints the milliseconds since its JVM started. Runs eager startup, lazy panels, and lazy
+// panels from a class-data-sharing archive (recorded by a training run first if the file does
+// not exist), and reports the median and best of the child's own figure and of the wall time
+// from spawning it to reading the line. Not a JMH benchmark, since every sample is a new
+// process; it opens real windows, so it needs a display. Children run with this JVM's options
+// and a scratch user.home, so the probe guesses never reach the player's saved statistics.
+// Usage: java -cp benchmarks/target/benchmarks.jar numbergame.StartupBenchmark [runs] [archive]
+public class StartupBenchmark {
+    private static final String PROBE_PREFIX = "startup.firstGuess.ms=";
+
+    private final Path home;
+
+    StartupBenchmark(Path home) {
+        this.home = home;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path archive = args.length > 1 ? Path.of(args[1]) : Path.of("target", "GuessTheNumber-startup.jsa");
+
+        StartupBenchmark benchmark = new StartupBenchmark(Files.createTempDirectory("startup-benchmark"));
+        if (!Files.exists(archive)) {
+            Files.createDirectories(archive.toAbsolutePath().getParent());
+            benchmark.launch("-XX:ArchiveClassesAtExit=" + archive, "-Dnumbergame.startup=lazy");
+            System.out.println("Recorded class-data-sharing archive " + archive);
+        }
+
+        System.out.printf("%d runs per mode, %d CPUs%n", runs, Runtime.getRuntime().availableProcessors());
+        System.out.println("Mode        First guess ms (median / best)  Wall ms (median / best)");
+        benchmark.report("eager", runs, "-Dnumbergame.startup=eager");
+        benchmark.report("lazy", runs, "-Dnumbergame.startup=lazy");
+        benchmark.report("lazy+CDS", runs, "-Dnumbergame.startup=lazy", "-XX:SharedArchiveFile=" + archive);
+    }
+
+    private void report(String mode, int runs, String... options) throws IOException, InterruptedException {
+        long[] probe = new long[runs];
+        long[] wall = new long[runs];
+        for (int r = 0; r < runs; r++) {
+            long[] sample = launch(options);
+            probe[r] = sample[0];
+            wall[r] = sample[1];
+        }
+        Arrays.sort(probe);
+        Arrays.sort(wall);
+        System.out.printf("%-10s  %14d / %-14d  %9d / %d%n", mode, probe[runs / 2], probe[0], wall[runs / 2], wall[0]);
+    }
+
+    // Milliseconds to the first guess reported by one game process, and the wall time to it
+    private long[] launch(String... options) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(Arrays.asList(options));
+        command.add("-Dnumbergame.startupProbe=true");
+        command.add("-Duser.home=" + home);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(GuessTheNumberChallenge.class.getName());
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith(PROBE_PREFIX)) {
+                    long wallMillis = (System.nanoTime() - start) / 1_000_000;
+                    process.waitFor();
+                    return new long[] {Long.parseLong(line.substring(PROBE_PREFIX.length())), wallMillis};
+                }
+            }
+        } finally {
+            process.destroy();
+        }
+        throw new IOException("Game exited with " + process.waitFor() + " before its first guess");
+    }
+}
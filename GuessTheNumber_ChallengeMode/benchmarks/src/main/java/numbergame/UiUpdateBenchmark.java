@@ -0,0 +1,108 @@
+package numbergame;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Label and panel updates done by the two UIs after every game event.
+// Runs on unattached components, so it works with java.awt.headless=true.
+//
+// rebuildAchievementsPanel is the old EnhancedGameUI path that recreated every achievement
+// label per event. viewModelEvent is the current path with one frame per event, the worst
+// case; viewModelCoalesced lets 100 events share one frame, as a fast game feed would.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UiUpdateBenchmark {
+    private JLabel gamesStatsLabel, avgGuessesLabel, winRateLabel, coinsLabel;
+    private JPanel achievementsPanel;
+    private Set<String> achievements;
+    private int totalGames;
+
+    private JLabel messageLabel, statsLabel;
+    private GameViewModel viewModel;
+    private PlayerStats stats;
+    private int game;
+
+    @Setup
+    public void setUp() {
+        gamesStatsLabel = new JLabel();
+        avgGuessesLabel = new JLabel();
+        winRateLabel = new JLabel();
+        coinsLabel = new JLabel();
+
+        achievementsPanel = new JPanel();
+        achievementsPanel.setLayout(new BoxLayout(achievementsPanel, BoxLayout.Y_AXIS));
+        achievements = new LinkedHashSet<>();
+        achievements.add("Guess Master");
+        achievements.add("Hot Streak");
+        achievements.add("Veteran");
+
+        messageLabel = new JLabel();
+        statsLabel = new JLabel();
+        JPanel newAchievementsPanel = new JPanel();
+        newAchievementsPanel.setLayout(new BoxLayout(newAchievementsPanel, BoxLayout.Y_AXIS));
+        viewModel = new GameViewModel((frame, dirty) -> {
+            if ((dirty & GameViewModel.MESSAGE) != 0) {
+                messageLabel.setText(frame.message());
+            }
+            if ((dirty & GameViewModel.STATS) != 0) {
+                statsLabel.setText(String.format("Games: %d | Wins: %d | Streak: %d",
+                    frame.totalGames(), frame.gamesWon(), frame.bestStreak()));
+            }
+            if ((dirty & GameViewModel.ACHIEVEMENTS) != 0) {
+                EnhancedGameUI.appendAchievements(newAchievementsPanel, frame.newAchievements());
+            }
+        }, () -> { });
+        stats = new PlayerStats();
+    }
+
+    @Benchmark
+    public JLabel simpleUpdateStats() {
+        totalGames++;
+        SimpleGameUI.renderStats(totalGames, totalGames / 2, totalGames % 5, totalGames * 6, totalGames * 10,
+            gamesStatsLabel, avgGuessesLabel, winRateLabel, coinsLabel);
+        return coinsLabel;
+    }
+
+    @Benchmark
+    public JPanel rebuildAchievementsPanel() {
+        achievementsPanel.removeAll();
+        for (String achievement : achievements) {
+            achievementsPanel.add(new JLabel("✨ " + achievement));
+        }
+        achievementsPanel.revalidate();
+        achievementsPanel.repaint();
+        return achievementsPanel;
+    }
+
+    @Benchmark
+    public JLabel viewModelEvent() {
+        playGame();
+        viewModel.flush();
+        return statsLabel;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public JLabel viewModelCoalesced() {
+        for (int i = 0; i < 100; i++) {
+            playGame();
+        }
+        viewModel.flush();
+        return statsLabel;
+    }
+
+    private void playGame() {
+        game++;
+        stats.updateStats(game % 7 != 0, 1 + (game & 7));
+        viewModel.setMessage((game & 1) == 0 ? "Too low!" : "Too high!");
+        viewModel.setStats(stats);
+    }
+}
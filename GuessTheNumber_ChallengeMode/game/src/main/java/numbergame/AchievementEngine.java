@@ -0,0 +1,193 @@
+package numbergame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Achievement rules loaded from a text file, one per line:
+//
+//   id | name | stat | threshold | reward coins
+//
+// Ids are stable bit positions in PlayerStats and the stats store, so they must never be
+// reused for a different achievement. Rules are grouped by the stat they watch and sorted
+// by threshold. Every stat only grows, so each player keeps one cursor per stat: an update
+// to a stat walks forward from its cursor over just the rules that value now satisfies.
+final class AchievementEngine {
+    // Largest number of achievement ids a PlayerStatsStore record can hold
+    static final int MAX_ACHIEVEMENTS = 512;
+
+    enum Stat { GAMES_WON, TOTAL_GAMES, BEST_STREAK, TOTAL_GUESSES, LEVEL, POWER_UPS_USED }
+
+    static final int STAT_COUNT = Stat.values().length;
+
+    private static final String DEFAULT_RESOURCE = "/achievements.txt";
+    private static final String RULES_PROPERTY = "numbergame.achievements";
+
+    private static AchievementEngine defaultEngine;
+
+    private final String[] names;
+    private final int[] rewards;
+    private final int[][] idsByStat;
+    private final long[][] thresholdsByStat;
+    private final int size;
+
+    private AchievementEngine(String[] names, int[] rewards, int[][] idsByStat, long[][] thresholdsByStat, int size) {
+        this.names = names;
+        this.rewards = rewards;
+        this.idsByStat = idsByStat;
+        this.thresholdsByStat = thresholdsByStat;
+        this.size = size;
+    }
+
+    // Rules from the file named by -Dnumbergame.achievements, else the bundled achievements.txt
+    static synchronized AchievementEngine defaultEngine() {
+        if (defaultEngine == null) {
+            String file = System.getProperty(RULES_PROPERTY);
+            try {
+                if (file != null) {
+                    defaultEngine = load(Path.of(file));
+                } else {
+                    InputStream in = AchievementEngine.class.getResourceAsStream(DEFAULT_RESOURCE);
+                    if (in == null) {
+                        throw new IllegalStateException("Missing resource " + DEFAULT_RESOURCE);
+                    }
+                    try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                        defaultEngine = load(reader);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load achievement rules", e);
+            }
+        }
+        return defaultEngine;
+    }
+
+    static AchievementEngine load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    // Blank lines and lines starting with # are ignored
+    static AchievementEngine load(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        String[] names = new String[MAX_ACHIEVEMENTS];
+        int[] rewards = new int[MAX_ACHIEVEMENTS];
+        List<List<long[]>> rulesByStat = new ArrayList<>();
+        for (int i = 0; i < STAT_COUNT; i++) {
+            rulesByStat.add(new ArrayList<>());
+        }
+        int size = 0;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\|");
+            if (fields.length != 5) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected id | name | stat | threshold | reward");
+            }
+            int id;
+            Stat stat;
+            long threshold;
+            int reward;
+            try {
+                id = Integer.parseInt(fields[0].strip());
+                stat = Stat.valueOf(fields[2].strip().toUpperCase());
+                threshold = Long.parseLong(fields[3].strip());
+                reward = Integer.parseInt(fields[4].strip());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+            if (id < 0 || id >= MAX_ACHIEVEMENTS) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": id must be in [0, " + MAX_ACHIEVEMENTS + ")");
+            }
+            if (names[id] != null) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": duplicate id " + id);
+            }
+            names[id] = fields[1].strip();
+            rewards[id] = reward;
+            rulesByStat.get(stat.ordinal()).add(new long[] {threshold, id});
+            size++;
+        }
+
+        int[][] idsByStat = new int[STAT_COUNT][];
+        long[][] thresholdsByStat = new long[STAT_COUNT][];
+        for (int s = 0; s < STAT_COUNT; s++) {
+            List<long[]> rules = rulesByStat.get(s);
+            rules.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            idsByStat[s] = new int[rules.size()];
+            thresholdsByStat[s] = new long[rules.size()];
+            for (int i = 0; i < rules.size(); i++) {
+                thresholdsByStat[s][i] = rules.get(i)[0];
+                idsByStat[s][i] = (int) rules.get(i)[1];
+            }
+        }
+        return new AchievementEngine(names, rewards, idsByStat, thresholdsByStat, size);
+    }
+
+    // Number of rules
+    int size() {
+        return size;
+    }
+
+    // Name of the achievement, or null if no rule has the id
+    String name(int id) {
+        return id >= 0 && id < MAX_ACHIEVEMENTS ? names[id] : null;
+    }
+
+    int reward(int id) {
+        return rewards[id];
+    }
+
+    // Unlocks every rule on the stat whose threshold value now meets; returns coins earned
+    int evaluate(Stat stat, long value, int[] cursors, BitSet unlocked) {
+        int s = stat.ordinal();
+        long[] thresholds = thresholdsByStat[s];
+        int[] ids = idsByStat[s];
+        int cursor = cursors[s];
+        int coins = 0;
+        while (cursor < thresholds.length && (thresholds[cursor] <= value || unlocked.get(ids[cursor]))) {
+            int id = ids[cursor];
+            if (!unlocked.get(id)) {
+                unlocked.set(id);
+                coins += rewards[id];
+            }
+            cursor++;
+        }
+        cursors[s] = cursor;
+        return coins;
+    }
+
+    // Lowest threshold of the stat's rules not yet passed by its cursor, or Long.MAX_VALUE
+    long nextThreshold(Stat stat, int[] cursors) {
+        long[] thresholds = thresholdsByStat[stat.ordinal()];
+        int cursor = cursors[stat.ordinal()];
+        return cursor < thresholds.length ? thresholds[cursor] : Long.MAX_VALUE;
+    }
+
+    // Positions the cursors past rules already unlocked, e.g. after loading a saved player.
+    // Rules added to the file later are picked up by the next evaluate() of their stat.
+    void resetCursors(int[] cursors, BitSet unlocked) {
+        for (int s = 0; s < STAT_COUNT; s++) {
+            int[] ids = idsByStat[s];
+            int cursor = 0;
+            while (cursor < ids.length && unlocked.get(ids[cursor])) {
+                cursor++;
+            }
+            cursors[s] = cursor;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package numbergame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Local multi-process cluster test: starts 1, 2, 4, ... up to maxNodes SessionServer processes
+// on this host and drives bisection players through a ClusterRouter, reporting GUESS
+// throughput and its scaling over one node. In the largest run a node joins and another
+// leaves half-way, so sessions are handed off under load; any request answered with ERR
+// counts as an error. Nodes run with this JVM's options.
+// Usage: java numbergame.ClusterHarness [maxNodes] [sessions] [connections] [seconds]
+public class ClusterHarness {
+    private final int sessions;
+    private final int connections;
+    private final int seconds;
+    private final List<Process> processes = new ArrayList<>();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean running;
+
+    ClusterHarness(int sessions, int connections, int seconds) {
+        this.sessions = sessions;
+        this.connections = connections;
+        this.seconds = seconds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxNodes = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        ClusterHarness harness = new ClusterHarness(sessions, connections, seconds);
+        Runtime.getRuntime().addShutdownHook(new Thread(harness::stopNodes));
+        System.out.printf("%,d sessions over %d connections, %ds per run, %d CPUs%n",
+            sessions, connections, seconds, Runtime.getRuntime().availableProcessors());
+        System.out.println("Nodes  Guesses/sec  Scaling  Handoffs  Errors");
+        double single = 0;
+        for (int nodes = 1; nodes <= maxNodes; nodes *= 2) {
+            boolean churn = nodes * 2 > maxNodes;
+            long[] result = harness.run(nodes, churn);
+            double rate = result[0] / (double) seconds;
+            if (nodes == 1) {
+                single = rate;
+            }
+            System.out.printf("%5d  %,11.0f  %6.2fx  %8d  %6d%s%n",
+                nodes, rate, rate / single, result[1], result[2], churn ? "  (one node joined, one left)" : "");
+        }
+    }
+
+    // Guesses, handoffs and errors of one run on a fresh cluster
+    long[] run(int nodes, boolean churn) throws Exception {
+        errors.reset();
+        int[] ports = new int[nodes];
+        for (int n = 0; n < nodes; n++) {
+            ports[n] = startNode();
+        }
+        try (ClusterRouter router = new ClusterRouter(ports);
+             ExecutorService executor = Executors.newFixedThreadPool(connections)) {
+            running = true;
+            List<Future<Long>> results = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                int first = (int) ((long) sessions * c / connections);
+                int last = (int) ((long) sessions * (c + 1) / connections);
+                results.add(executor.submit(() -> drive(router, first, last)));
+            }
+            if (churn) {
+                Thread.sleep(seconds * 500L);
+                router.addNode(startNode());
+                router.removeNode(ports[0]);
+                Thread.sleep(seconds * 500L);
+            } else {
+                Thread.sleep(seconds * 1000L);
+            }
+            running = false;
+            long guesses = 0;
+            for (Future<Long> result : results) {
+                guesses += result.get();
+            }
+            return new long[] {guesses, router.getHandoffs(), errors.sum()};
+        } finally {
+            stopNodes();
+        }
+    }
+
+    // Plays players [first, last) until stopped; returns the guesses made
+    private long drive(ClusterRouter router, int first, int last) throws IOException {
+        int players = last - first;
+        if (players == 0) {
+            return 0;
+        }
+        int[] low = new int[players];
+        int[] high = new int[players];
+        long guesses = 0;
+        try (ClusterRouter.Client client = router.client()) {
+            for (int p = 0; p < players; p++) {
+                readRange(client.newSession(first + p), low, high, p);
+            }
+            int p = 0;
+            while (running) {
+                int guess = (low[p] + high[p]) >>> 1;
+                SessionProtocol.LineReader reply = client.guess(first + p, guess);
+                guesses++;
+                if (reply.tokenEquals(0, SessionProtocol.OUTCOMES[GuessOutcome.LOW.ordinal()])) {
+                    low[p] = guess + 1;
+                } else if (reply.tokenEquals(0, SessionProtocol.OUTCOMES[GuessOutcome.HIGH.ordinal()])) {
+                    high[p] = guess - 1;
+                } else if (reply.tokenEquals(0, SessionProtocol.ERR)) {
+                    errors.increment();
+                    readRange(client.newSession(first + p), low, high, p);
+                } else {
+                    readRange(client.reset(first + p), low, high, p);
+                }
+                p = p + 1 == players ? 0 : p + 1;
+            }
+        }
+        return guesses;
+    }
+
+    private void readRange(SessionProtocol.LineReader reply, int[] low, int[] high, int p) throws IOException {
+        if (!reply.tokenEquals(0, SessionProtocol.OK)) {
+            throw new IOException("Unexpected reply to NEW/RESET");
+        }
+        low[p] = reply.intToken(1);
+        high[p] = reply.intToken(2);
+    }
+
+    // Starts a SessionServer process on a free port and returns the port
+    private int startNode() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SessionServer.class.getName());
+        command.add("0");
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        synchronized (processes) {
+            processes.add(process);
+        }
+        BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String line = out.readLine();
+        if (line == null || !line.startsWith("Session server listening on ")) {
+            process.destroyForcibly();
+            throw new IOException("Node did not start: " + line);
+        }
+        return Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    private void stopNodes() {
+        synchronized (processes) {
+            for (Process process : processes) {
+                process.destroy();
+            }
+            for (Process process : processes) {
+                try {
+                    process.waitFor();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            processes.clear();
+        }
+    }
+}
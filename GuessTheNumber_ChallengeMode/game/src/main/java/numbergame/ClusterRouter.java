@@ -0,0 +1,256 @@
+package numbergame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Client-side router over SessionServer nodes on this host, keyed by port. Players are
+// sharded by a ConsistentHash of their id, so a request goes straight to the node owning the
+// player's session and stats. When a node joins or leaves, each player the router has started
+// whose owner changes is handed off with EXPORT on the old node and IMPORT on the new one,
+// round and time left included. Requests hold the read side of a lock and membership changes
+// the write side, so no request can reach a node while its players are moving.
+// A leaving node must still be running until removeNode() returns. If a handoff fails, the
+// player goes back to the node they came from, the change stops there and throws, and players
+// already moved stay routed to their new node until a later change settles them on the ring.
+final class ClusterRouter implements AutoCloseable {
+    private static final int VIRTUAL_NODES = 128;
+
+    private final ReentrantReadWriteLock membership = new ReentrantReadWriteLock();
+    private final Set<Integer> players = ConcurrentHashMap.newKeySet();
+    private final Client admin = new Client();
+    private ConsistentHash ring;
+    // Players not on their ring owner after a failed change, and the node they are on;
+    // only written under the write lock
+    private final Map<Integer, Integer> placed = new HashMap<>();
+    private long handoffs;
+
+    ClusterRouter(int... ports) {
+        this.ring = new ConsistentHash(ports, VIRTUAL_NODES);
+    }
+
+    // Connections to the nodes for one thread; replies are read from the LineReader returned
+    // by each call, which stays valid until the client's next call to the same node
+    final class Client implements AutoCloseable {
+        private final Map<Integer, Connection> connections = new HashMap<>();
+
+        SessionProtocol.LineReader newSession(int playerId) throws IOException {
+            membership.readLock().lock();
+            try {
+                Connection connection = connection(locate(playerId));
+                connection.out.word(SessionProtocol.NEW).number(playerId);
+                players.add(playerId);
+                return connection.call();
+            } finally {
+                membership.readLock().unlock();
+            }
+        }
+
+        SessionProtocol.LineReader guess(int playerId, int guess) throws IOException {
+            membership.readLock().lock();
+            try {
+                Connection connection = connection(locate(playerId));
+                connection.out.word(SessionProtocol.GUESS).number(playerId).number(guess);
+                return connection.call();
+            } finally {
+                membership.readLock().unlock();
+            }
+        }
+
+        SessionProtocol.LineReader powerUp(int playerId) throws IOException {
+            return simple(SessionProtocol.POWER, playerId);
+        }
+
+        SessionProtocol.LineReader reset(int playerId) throws IOException {
+            return simple(SessionProtocol.RESET, playerId);
+        }
+
+        private SessionProtocol.LineReader simple(byte[] command, int playerId) throws IOException {
+            membership.readLock().lock();
+            try {
+                Connection connection = connection(locate(playerId));
+                connection.out.word(command).number(playerId);
+                return connection.call();
+            } finally {
+                membership.readLock().unlock();
+            }
+        }
+
+        private Connection connection(int port) throws IOException {
+            Connection connection = connections.get(port);
+            if (connection == null) {
+                connection = new Connection(port);
+                connections.put(port, connection);
+            }
+            return connection;
+        }
+
+        // Forgets the connection to a node that left
+        void disconnect(int port) throws IOException {
+            Connection connection = connections.remove(port);
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Connection connection : connections.values()) {
+                connection.close();
+            }
+            connections.clear();
+        }
+    }
+
+    private static final class Connection {
+        final Socket socket;
+        final SessionProtocol.LineReader in;
+        final SessionProtocol.LineWriter out;
+
+        Connection(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            in = new SessionProtocol.LineReader(new BufferedInputStream(socket.getInputStream()));
+            out = new SessionProtocol.LineWriter(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        // Ends the request line written to out and reads the reply
+        SessionProtocol.LineReader call() throws IOException {
+            out.endLine();
+            out.flush();
+            if (!in.next()) {
+                throw new IOException("Node on port " + socket.getPort() + " closed the connection");
+            }
+            return in;
+        }
+
+        void close() throws IOException {
+            out.word(SessionProtocol.QUIT).endLine();
+            out.flush();
+            socket.close();
+        }
+    }
+
+    Client client() {
+        return new Client();
+    }
+
+    // Adds the node and moves the players it now owns onto it; returns how many moved
+    int addNode(int port) throws IOException {
+        membership.writeLock().lock();
+        try {
+            return rebalance(ring.with(port));
+        } finally {
+            membership.writeLock().unlock();
+        }
+    }
+
+    // Moves the node's players to the remaining nodes and drops it; returns how many moved
+    int removeNode(int port) throws IOException {
+        membership.writeLock().lock();
+        try {
+            int moved = rebalance(ring.without(port));
+            admin.disconnect(port);
+            return moved;
+        } finally {
+            membership.writeLock().unlock();
+        }
+    }
+
+    int ownerOf(int playerId) {
+        membership.readLock().lock();
+        try {
+            return locate(playerId);
+        } finally {
+            membership.readLock().unlock();
+        }
+    }
+
+    int[] nodes() {
+        membership.readLock().lock();
+        try {
+            return ring.nodes();
+        } finally {
+            membership.readLock().unlock();
+        }
+    }
+
+    // Players handed off between nodes so far
+    long getHandoffs() {
+        membership.readLock().lock();
+        try {
+            return handoffs;
+        } finally {
+            membership.readLock().unlock();
+        }
+    }
+
+    // Node holding the player's session; call with either side of the lock held
+    private int locate(int playerId) {
+        if (!placed.isEmpty()) {
+            Integer port = placed.get(playerId);
+            if (port != null) {
+                return port;
+            }
+        }
+        return ring.owner(playerId);
+    }
+
+    private int rebalance(ConsistentHash next) throws IOException {
+        int moved = 0;
+        try {
+            for (int playerId : players) {
+                int from = locate(playerId);
+                int to = next.owner(playerId);
+                if (from != to && handOff(playerId, from, to)) {
+                    placed.put(playerId, to);
+                    moved++;
+                }
+            }
+            ring = next;
+            placed.clear();
+            return moved;
+        } finally {
+            handoffs += moved;
+        }
+    }
+
+    // Moves the player's session and stats; false if the source had no session for them
+    private boolean handOff(int playerId, int from, int to) throws IOException {
+        Connection source = admin.connection(from);
+        source.out.word(SessionProtocol.EXPORT).number(playerId);
+        SessionProtocol.LineReader state = source.call();
+        if (!state.tokenEquals(0, SessionProtocol.STATE)) {
+            return false;
+        }
+        IOException failure;
+        try {
+            Connection target = admin.connection(to);
+            target.out.word(SessionProtocol.IMPORT).number(playerId).tokens(state, 1);
+            if (target.call().tokenEquals(0, SessionProtocol.OK)) {
+                return true;
+            }
+            failure = new IOException("Node on port " + to + " refused player " + playerId);
+        } catch (IOException e) {
+            failure = e;
+        }
+        // EXPORT already dropped the player on the source, so hand them back
+        source.out.word(SessionProtocol.IMPORT).number(playerId).tokens(state, 1);
+        if (!source.call().tokenEquals(0, SessionProtocol.OK)) {
+            failure.addSuppressed(new IOException("Node on port " + from + " refused player " + playerId + " back"));
+        }
+        throw failure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        admin.close();
+    }
+}
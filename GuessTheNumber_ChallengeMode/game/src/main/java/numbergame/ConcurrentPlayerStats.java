@@ -0,0 +1,228 @@
+package numbergame;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// PlayerStats for one player whose games finish on many threads at once.
+//
+// Games, wins and guesses live in stripes picked by thread, each stripe a padded run of atomic
+// counters in one AtomicLongArray. A writer never waits: it bumps the stripe's started count,
+// adds to the three totals and bumps its finished count, each an atomic add. A snapshot reads a
+// stripe's finished count, its totals, then its started count, and keeps the pass only when the
+// two counts match, i.e. no update was in flight while it read, so getWinRate() and
+// getAverageGuesses() never see a game counted without its win or guesses. Coins are a
+// LongAdder of earnings plus a CAS-guarded spent total; the current and best streak are packed
+// in one long updated by CAS. Achievements use the same AchievementEngine as PlayerStats. Those
+// on streaks, power-ups and levels are checked on every change; those on totals are checked
+// from the summed stripes every CHECK_EVERY games of a stripe and before achievements are read,
+// so with more than one stripe they can unlock a few games late but are never missed. Values
+// below a stat's next threshold skip the achievement lock entirely.
+final class ConcurrentPlayerStats {
+    private static final int CHECK_EVERY = 16;
+    private static final int MAX_STRIPES = 64;
+
+    // Slots of a stripe, which spans two cache lines so neighbouring stripes do not false-share
+    private static final int STRIDE = 16;
+    private static final int STARTED = 8;
+    private static final int GAMES = 9;
+    private static final int WON = 10;
+    private static final int GUESSES = 11;
+    private static final int FINISHED = 12;
+
+    // Consistent view of the counters
+    record Snapshot(long totalGames, long gamesWon, long totalGuesses, long coins,
+                    int currentStreak, int bestStreak, int highestLevel, long powerUpsUsed) {
+        double winRate() {
+            return totalGames == 0 ? 0 : (double) gamesWon / totalGames * 100;
+        }
+
+        double averageGuesses() {
+            return totalGames == 0 ? 0 : (double) totalGuesses / totalGames;
+        }
+    }
+
+    private final AchievementEngine achievements;
+    private final AtomicLongArray stripes;
+    private final int stripeMask;
+    private final LongAdder coinsEarned = new LongAdder();
+    private final AtomicLong coinsSpent = new AtomicLong();
+    // Current streak in the high 32 bits, best streak in the low 32 bits
+    private final AtomicLong streaks = new AtomicLong();
+    private final LongAdder powerUpsUsed = new LongAdder();
+    private final AtomicInteger highestLevel = new AtomicInteger(1);
+
+    // Guarded by itself
+    private final BitSet unlocked = new BitSet();
+    private final int[] cursors = new int[AchievementEngine.STAT_COUNT];
+    // Next threshold per stat, so values below it skip the lock
+    private final AtomicLongArray nextThresholds = new AtomicLongArray(AchievementEngine.STAT_COUNT);
+
+    ConcurrentPlayerStats() {
+        this(AchievementEngine.defaultEngine(), Runtime.getRuntime().availableProcessors());
+    }
+
+    ConcurrentPlayerStats(AchievementEngine achievements, int concurrency) {
+        this.achievements = achievements;
+        int count = Integer.highestOneBit(Math.clamp(concurrency, 1, MAX_STRIPES) * 2 - 1);
+        stripes = new AtomicLongArray(count * STRIDE);
+        stripeMask = count - 1;
+        for (AchievementEngine.Stat stat : AchievementEngine.Stat.values()) {
+            nextThresholds.set(stat.ordinal(), achievements.nextThreshold(stat, cursors));
+        }
+    }
+
+    void updateStats(boolean won, int attempts) {
+        int stripe = ((int) (Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L >>> 40) & stripeMask) * STRIDE;
+        stripes.getAndIncrement(stripe + STARTED);
+        long games = stripes.incrementAndGet(stripe + GAMES);
+        long wins = won ? stripes.incrementAndGet(stripe + WON) : stripes.get(stripe + WON);
+        long guesses = stripes.addAndGet(stripe + GUESSES, attempts);
+        stripes.getAndIncrement(stripe + FINISHED);
+
+        long packed, next;
+        do {
+            packed = streaks.get();
+            int current = won ? (int) (packed >>> 32) + 1 : 0;
+            int best = Math.max((int) packed, current);
+            next = (long) current << 32 | best;
+        } while (!streaks.compareAndSet(packed, next));
+
+        if (won) {
+            coinsEarned.add(10); // Base reward for winning
+            if ((int) next > (int) packed) {
+                unlock(AchievementEngine.Stat.BEST_STREAK, (int) next);
+            }
+        }
+        if (stripeMask == 0) {
+            // A single stripe holds the totals
+            unlock(AchievementEngine.Stat.TOTAL_GAMES, games);
+            unlock(AchievementEngine.Stat.GAMES_WON, wins);
+            unlock(AchievementEngine.Stat.TOTAL_GUESSES, guesses);
+        } else if (games % CHECK_EVERY == 0) {
+            checkTotals();
+        }
+    }
+
+    void recordPowerUp() {
+        powerUpsUsed.increment();
+        unlock(AchievementEngine.Stat.POWER_UPS_USED, powerUpsUsed.sum());
+    }
+
+    void recordLevel(int level) {
+        if (highestLevel.getAndAccumulate(level, Math::max) < level) {
+            unlock(AchievementEngine.Stat.LEVEL, level);
+        }
+    }
+
+    // Never lets the balance go negative
+    boolean spendCoins(int amount) {
+        long spent;
+        do {
+            spent = coinsSpent.get();
+            // Earnings only grow, so a stale sum can only refuse, never overspend
+            if (coinsEarned.sum() - spent < amount) {
+                return false;
+            }
+        } while (!coinsSpent.compareAndSet(spent, spent + amount));
+        return true;
+    }
+
+    Snapshot snapshot() {
+        long games = 0, won = 0, guesses = 0;
+        for (int stripe = 0; stripe < stripes.length(); stripe += STRIDE) {
+            while (true) {
+                // Started never falls below finished, so equal counts around the reads mean
+                // no update was in flight at the first read and none began before the last
+                long finished = stripes.get(stripe + FINISHED);
+                long g = stripes.get(stripe + GAMES), w = stripes.get(stripe + WON), q = stripes.get(stripe + GUESSES);
+                if (stripes.get(stripe + STARTED) == finished) {
+                    games += g;
+                    won += w;
+                    guesses += q;
+                    break;
+                }
+                Thread.onSpinWait();
+            }
+        }
+        long packed = streaks.get();
+        long spent = coinsSpent.get();
+        return new Snapshot(games, won, guesses, coinsEarned.sum() - spent,
+            (int) (packed >>> 32), (int) packed, highestLevel.get(), powerUpsUsed.sum());
+    }
+
+    double getWinRate() {
+        return snapshot().winRate();
+    }
+
+    double getAverageGuesses() {
+        return snapshot().averageGuesses();
+    }
+
+    long getCoins() {
+        return coinsEarned.sum() - coinsSpent.get();
+    }
+
+    int getBestStreak() {
+        return (int) streaks.get();
+    }
+
+    int getCurrentStreak() {
+        return (int) (streaks.get() >>> 32);
+    }
+
+    // Names of the unlocked achievements in id order
+    Set<String> getUnlockedAchievements() {
+        checkTotals();
+        Set<String> names = new LinkedHashSet<>();
+        synchronized (unlocked) {
+            for (int id = unlocked.nextSetBit(0); id >= 0; id = unlocked.nextSetBit(id + 1)) {
+                names.add(achievements.name(id));
+            }
+        }
+        return names;
+    }
+
+    // Copies a consistent view into a plain PlayerStats, e.g. for PlayerStatsStore or the leaderboard
+    void copyTo(PlayerStats stats) {
+        checkTotals();
+        Snapshot s = snapshot();
+        long[] words;
+        synchronized (unlocked) {
+            words = unlocked.toLongArray();
+        }
+        stats.restore((int) s.totalGames(), (int) s.gamesWon(), s.currentStreak(), s.bestStreak(),
+            (int) s.totalGuesses(), (int) s.coins(), s.highestLevel(), (int) s.powerUpsUsed(), words);
+    }
+
+    // Totals only grow, so summing without the snapshot check can only see them late
+    private void checkTotals() {
+        long games = 0, won = 0, guesses = 0;
+        for (int stripe = 0; stripe < stripes.length(); stripe += STRIDE) {
+            games += stripes.get(stripe + GAMES);
+            won += stripes.get(stripe + WON);
+            guesses += stripes.get(stripe + GUESSES);
+        }
+        unlock(AchievementEngine.Stat.TOTAL_GAMES, games);
+        unlock(AchievementEngine.Stat.GAMES_WON, won);
+        unlock(AchievementEngine.Stat.TOTAL_GUESSES, guesses);
+    }
+
+    private void unlock(AchievementEngine.Stat stat, long value) {
+        if (value < nextThresholds.get(stat.ordinal())) {
+            return;
+        }
+        int coins;
+        synchronized (unlocked) {
+            coins = achievements.evaluate(stat, value, cursors, unlocked);
+            nextThresholds.set(stat.ordinal(), achievements.nextThreshold(stat, cursors));
+        }
+        if (coins > 0) {
+            coinsEarned.add(coins);
+        }
+    }
+}
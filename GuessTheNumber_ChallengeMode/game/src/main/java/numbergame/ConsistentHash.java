@@ -0,0 +1,76 @@
+package numbergame;
+
+import java.util.Arrays;
+
+// Immutable consistent-hash ring from player ids to node ids. Each node owns virtualNodes
+// points on a 64-bit circle and a player belongs to the first point at or after the player's
+// hash, so adding or removing a node only moves the players between its points and their
+// predecessors, about 1/n of them. Points are kept sorted in a flat long[] with a parallel
+// owner array, so a lookup is one SplitMix64 hash and a binary search.
+final class ConsistentHash {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // Low bits of a point that carry its node index while sorting
+    private static final int INDEX_BITS = 8;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private final int[] nodes;
+    private final int virtualNodes;
+    private final long[] points;
+    private final int[] owners;
+
+    ConsistentHash(int[] nodes, int virtualNodes) {
+        if (nodes.length == 0 || nodes.length > 1 << INDEX_BITS) {
+            throw new IllegalArgumentException("A ring takes 1 to " + (1 << INDEX_BITS) + " nodes: " + nodes.length);
+        }
+        this.nodes = nodes.clone();
+        this.virtualNodes = virtualNodes;
+        long[] packed = new long[nodes.length * virtualNodes];
+        // Sort (point, node index) pairs by point; the index replaces the point's low bits
+        for (int n = 0; n < nodes.length; n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                long point = GameSession.mix(nodes[n] * GOLDEN_GAMMA + (v + 1) * 0xD1B54A32D192ED03L);
+                packed[n * virtualNodes + v] = (point & ~INDEX_MASK) | n;
+            }
+        }
+        Arrays.sort(packed);
+        this.points = new long[packed.length];
+        this.owners = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            points[i] = packed[i] & ~INDEX_MASK;
+            owners[i] = this.nodes[(int) (packed[i] & INDEX_MASK)];
+        }
+    }
+
+    // Node that owns the player
+    int owner(int playerId) {
+        long hash = GameSession.mix(playerId * GOLDEN_GAMMA);
+        int i = Arrays.binarySearch(points, hash);
+        if (i < 0) {
+            i = -i - 1;
+            if (i == points.length) {
+                i = 0; // Past the last point: wrap to the first
+            }
+        }
+        return owners[i];
+    }
+
+    ConsistentHash with(int node) {
+        for (int existing : nodes) {
+            if (existing == node) {
+                return this;
+            }
+        }
+        int[] grown = Arrays.copyOf(nodes, nodes.length + 1);
+        grown[nodes.length] = node;
+        return new ConsistentHash(grown, virtualNodes);
+    }
+
+    ConsistentHash without(int node) {
+        int[] shrunk = Arrays.stream(nodes).filter(n -> n != node).toArray();
+        return shrunk.length == nodes.length ? this : new ConsistentHash(shrunk, virtualNodes);
+    }
+
+    int[] nodes() {
+        return nodes.clone();
+    }
+}
@@ -0,0 +1,121 @@
+package numbergame;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// Headless players on GameCore, the engine behind both desktop UIs, so the observer-bus path
+// runs at simulation rates. Every core publishes to one GameBus.Batched StatsRecorder, which
+// ranks the players on a Leaderboard and feeds OutcomeStream.shared() off the game threads;
+// at the end the top players of each metric and the outcome windows are printed. Cores run on
+// the system clock, which the outcome stream shares. Players bisect the bracket their round's
+// GuessHistory keeps and use a power-up when down to the last attempt.
+// Usage: java numbergame.CoreDriver [seconds] [threads] [playersPerThread]
+public class CoreDriver {
+    private static final int BATCH_ROUNDS = 1024;
+    private static final int TOP = 5;
+
+    private final int threads;
+    private final int playersPerThread;
+    private final long seed;
+    private final GameCore[] cores;
+    private final LongAdder rounds = new LongAdder();
+    private volatile boolean running;
+
+    CoreDriver(int threads, int playersPerThread, long seed) {
+        if ((long) threads * playersPerThread > Leaderboard.MAX_PLAYERS) {
+            throw new IllegalArgumentException("At most " + Leaderboard.MAX_PLAYERS + " players");
+        }
+        this.threads = threads;
+        this.playersPerThread = playersPerThread;
+        this.seed = seed;
+        this.cores = new GameCore[threads * playersPerThread];
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        CoreDriver driver = new CoreDriver(threads, players, System.nanoTime());
+        Leaderboard leaderboard = new Leaderboard();
+        OutcomeStream outcomes = OutcomeStream.shared();
+        try (GameBus.Batched recorder = new GameBus.Batched(new StatsRecorder(null, leaderboard, outcomes), 1 << 16, "stats-recorder")) {
+            driver.run(seconds, recorder);
+        }
+        driver.printLeaderboard(leaderboard);
+        outcomes.close();
+        outcomes.dump(System.out);
+        System.out.printf("Outcomes dropped: %,d%n", outcomes.getDropped());
+    }
+
+    // Plays for the given time with every core publishing to the listener
+    void run(int seconds, GameBus.Listener listener) throws InterruptedException {
+        System.out.printf("Running %d threads x %d players for %ds%n", threads, playersPerThread, seconds);
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int id = 0; id < cores.length; id++) {
+            cores[id] = new GameCore(id, new PlayerStats(), GameClock.SYSTEM, root.split());
+            cores[id].getBus().subscribe(listener);
+        }
+
+        CountDownLatch done = new CountDownLatch(threads);
+        running = true;
+        for (int t = 0; t < threads; t++) {
+            int first = t * playersPerThread;
+            Thread thread = new Thread(() -> play(first, done), "core-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        done.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Total: %,d rounds in %.2fs = %,.0f rounds/sec%n", rounds.sum(), elapsed, rounds.sum() / elapsed);
+    }
+
+    private void play(int first, CountDownLatch done) {
+        try {
+            int next = 0;
+            while (running) {
+                for (int r = 0; r < BATCH_ROUNDS; r++) {
+                    playRound(cores[first + next]);
+                    next = next + 1 == playersPerThread ? 0 : next + 1;
+                }
+                rounds.add(BATCH_ROUNDS);
+            }
+        } finally {
+            done.countDown();
+        }
+    }
+
+    static GuessOutcome playRound(GameCore core) {
+        core.startNewGame();
+        GameSession session = core.getSession();
+        GuessHistory history = session.getGuessHistory();
+        while (true) {
+            if (session.getRemainingAttempts() == 1 && session.getPowerUps() > 0) {
+                core.usePowerUp();
+            }
+            GuessOutcome outcome = core.guess((int) ((history.getLowBracket() + history.getHighBracket()) >> 1));
+            if (outcome.isGameOver()) {
+                return outcome;
+            }
+        }
+    }
+
+    private void printLeaderboard(Leaderboard leaderboard) {
+        int[] top = new int[TOP];
+        for (Leaderboard.Metric metric : Leaderboard.Metric.values()) {
+            int count = leaderboard.top(metric, TOP, top);
+            System.out.printf("Top %s of %,d:", metric, leaderboard.size(metric));
+            for (int i = 0; i < count; i++) {
+                PlayerStats stats = cores[top[i]].getStats();
+                System.out.printf(" #%d (won %d/%d, best streak %d, %.2f guesses)", top[i],
+                    stats.getGamesWon(), stats.getTotalGames(), stats.getBestStreak(), stats.getAverageGuesses());
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package numbergame;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+
+class EnhancedGameUI extends JFrame {
+    // The rules live in the core; this window renders its events through the view model
+    private final GameCore core;
+    private final GameSession gameSession;
+    private JTextField guessField;
+    private JLabel messageLabel, statsLabel, timerLabel;
+    private JButton guessButton, powerUpButton, restartButton;
+    private JProgressBar progressBar;
+    private Timer updateTimer;
+    private JPanel statsPanel;
+    private JPanel achievementsPanel;
+    private final GameViewModel viewModel = new GameViewModel(this::render);
+    private static final GuessOutcome[] OUTCOMES = GuessOutcome.values();
+
+    public EnhancedGameUI() {
+        // Set up the main window
+        setTitle("🎯 Guess the Number - Challenge Mode");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setSize(800, 600);
+        setLayout(new BorderLayout(10, 10));
+
+        // One core for the window's lifetime; each game restarts its session in place
+        core = new GameCore(0, new PlayerStats(), GameClock.SYSTEM, RngProvider.SHARED.newStream());
+        gameSession = core.getSession();
+        core.watchDeadline(TimingWheel.shared(), () -> SwingUtilities.invokeLater(core::checkTimeUp));
+        core.getBus().subscribe(this::onGameEvent);
+        if (UiResources.OUTCOME_STREAM) {
+            core.getBus().subscribe(new StatsRecorder(null, null, OutcomeStream.shared()));
+        }
+
+        // Create main panel
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(UiResources.FRAME_PADDING);
+
+        // Create stats panel; lazy startup adds it after the first frame
+        if (!UiResources.LAZY_PANELS) {
+            statsPanel = createStatsPanel();
+            mainPanel.add(statsPanel, BorderLayout.NORTH);
+        }
+
+        // Create center panel
+        JPanel centerPanel = new JPanel();
+        centerPanel.setLayout(new BoxLayout(centerPanel, BoxLayout.Y_AXIS));
+        centerPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Add game title
+        JLabel titleLabel = new JLabel("Guess The Number");
+        titleLabel.setFont(UiResources.ARIAL_BOLD_32);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        centerPanel.add(titleLabel);
+        centerPanel.add(Box.createVerticalStrut(20));
+
+        // Add message label
+        messageLabel = new JLabel("Enter your guess!");
+        messageLabel.setFont(UiResources.ARIAL_18);
+        messageLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        centerPanel.add(messageLabel);
+        centerPanel.add(Box.createVerticalStrut(20));
+
+        // Add timer label
+        timerLabel = new JLabel("⏱️ Time: 60s");
+        timerLabel.setFont(UiResources.ARIAL_BOLD_16);
+        timerLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        centerPanel.add(timerLabel);
+        centerPanel.add(Box.createVerticalStrut(20));
+
+        // Create input panel
+        JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        guessField = new JTextField(5);
+        guessField.setFont(UiResources.ARIAL_20);
+        guessButton = new JButton("✅ Guess");
+        powerUpButton = new JButton("🔋 Use Power-Up");
+        restartButton = new JButton("🔄 Restart");
+
+        inputPanel.add(new JLabel("Your Guess:"));
+        inputPanel.add(guessField);
+        inputPanel.add(guessButton);
+        inputPanel.add(powerUpButton);
+        inputPanel.add(restartButton);
+
+        centerPanel.add(inputPanel);
+        mainPanel.add(centerPanel, BorderLayout.CENTER);
+
+        // Create progress bar
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Level 1");
+        mainPanel.add(progressBar, BorderLayout.SOUTH);
+
+        // Create achievements panel; lazy startup waits for the first unlocked achievement
+        if (!UiResources.LAZY_PANELS) {
+            achievementsPanel = createAchievementsPanel();
+            add(achievementsPanel, BorderLayout.EAST);
+        }
+
+        // Add main panel
+        add(mainPanel, BorderLayout.CENTER);
+
+        // Add action listeners
+        guessButton.addActionListener(_ -> handleGuess());
+        powerUpButton.addActionListener(_ -> handlePowerUp());
+        restartButton.addActionListener(_ -> startNewGame());
+
+        // Set up timer for UI updates; the view model drops ticks that change nothing
+        updateTimer = new Timer(1000, _ -> {
+            updateTimerLabel();
+            updateProgressBar();
+        });
+        updateTimer.start();
+
+        // Initialize game
+        startNewGame();
+
+        // Pack and show
+        pack();
+        setLocationRelativeTo(null);
+        setVisible(true);
+
+        if (UiResources.LAZY_PANELS) {
+            SwingUtilities.invokeLater(() -> {
+                statsPanel = createStatsPanel();
+                mainPanel.add(statsPanel, BorderLayout.NORTH);
+                render(viewModel.frame(), GameViewModel.STATS);
+                mainPanel.revalidate();
+            });
+        }
+    }
+
+    private JPanel createStatsPanel() {
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBorder(BorderFactory.createTitledBorder(UiResources.PANEL_BORDER, "📊 Statistics"));
+        
+        statsLabel = new JLabel("Games: 0 | Wins: 0 | Streak: 0");
+        JLabel winRateLabel = new JLabel("Win Rate: 0%");
+        JLabel avgGuessesLabel = new JLabel("Avg Guesses: 0");
+        JLabel coinsLabel = new JLabel("💰 Coins: 0");
+
+        panel.add(statsLabel);
+        panel.add(winRateLabel);
+        panel.add(avgGuessesLabel);
+        panel.add(coinsLabel);
+
+        return panel;
+    }
+
+    private JPanel createAchievementsPanel() {
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBorder(BorderFactory.createTitledBorder("🏆 Achievements"));
+        return panel;
+    }
+
+    // Applies the parts of the view model that changed since the last frame
+    private void render(GameViewModel.Frame frame, int dirty) {
+        if ((dirty & GameViewModel.MESSAGE) != 0) {
+            messageLabel.setText(frame.message());
+        }
+        if ((dirty & GameViewModel.STATS) != 0 && statsLabel != null) {
+            statsLabel.setText(String.format("Games: %d | Wins: %d | Streak: %d",
+                frame.totalGames(), frame.gamesWon(), frame.bestStreak()));
+        }
+        if ((dirty & GameViewModel.TIME_LEFT) != 0) {
+            timerLabel.setText(String.format("⏱️ Time: %ds", frame.secondsLeft()));
+        }
+        if ((dirty & GameViewModel.PROGRESS) != 0) {
+            progressBar.setValue(frame.progress());
+            progressBar.setString(frame.progressShowsPercent()
+                ? String.format("Level %d - %d%%", frame.progressLevel(), frame.progress())
+                : "Level " + frame.progressLevel());
+        }
+        if ((dirty & GameViewModel.ACHIEVEMENTS) != 0) {
+            if (achievementsPanel == null) {
+                achievementsPanel = createAchievementsPanel();
+                add(achievementsPanel, BorderLayout.EAST);
+            }
+            appendAchievements(achievementsPanel, frame.newAchievements());
+        }
+    }
+
+    // Adds labels for newly unlocked achievements; existing labels are left alone
+    static void appendAchievements(JPanel achievementsPanel, java.util.List<String> achievements) {
+        for (String achievement : achievements) {
+            achievementsPanel.add(new JLabel("✨ " + achievement));
+        }
+        achievementsPanel.revalidate();
+        achievementsPanel.repaint();
+    }
+
+    private void handleGuess() {
+        try {
+            core.guess(Integer.parseInt(guessField.getText()));
+        } catch (NumberFormatException ex) {
+            viewModel.setMessage("❌ Enter a valid number!");
+        }
+    }
+
+    private void handlePowerUp() {
+        core.usePowerUp();
+    }
+
+    private void startNewGame() {
+        core.startNewGame();
+        guessField.setText("");
+    }
+
+    // Feeds the core's events into the view model; runs on the EDT, where the core is driven
+    private void onGameEvent(long nanos, int playerId, int type, int a, int b) {
+        switch (type) {
+            case GameBus.ROUND_STARTED:
+                viewModel.setMessage(String.format("🔢 Level %d: Guess a number between %d and %d",
+                    a, gameSession.getMinRange(), gameSession.getMaxRange()));
+                viewModel.setProgress(0, a, false);
+                updateUI();
+                break;
+            case GameBus.GUESSED:
+                viewModel.setMessage(OUTCOMES[a].render(gameSession.getTargetNumber(), b));
+                viewModel.setProgress((b * 100) / gameSession.getMaxAttempts(), gameSession.getLevel(), false);
+                break;
+            case GameBus.POWER_UP:
+                viewModel.setMessage(gameSession.describePowerUp(a));
+                updateUI();
+                break;
+            case GameBus.ROUND_ENDED:
+                if (a == GuessOutcome.CORRECT.ordinal()) {
+                    viewModel.setMessage(String.format("🏆 You won in %d attempts!", b));
+                } else if (a == GuessOutcome.TIME_UP.ordinal()) {
+                    viewModel.setMessage("⏰ Time's up! Game Over!");
+                }
+                updateUI();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void updateTimerLabel() {
+        if (gameSession != null) {
+            viewModel.setSecondsLeft(gameSession.getTimeLimit() - gameSession.getElapsedTime());
+        }
+    }
+
+    private void updateProgressBar() {
+        if (gameSession != null) {
+            int progress = (int) ((gameSession.getElapsedTime() * 100) / gameSession.getTimeLimit());
+            viewModel.setProgress(progress, gameSession.getLevel(), true);
+        }
+    }
+
+    private void updateUI() {
+        viewModel.setStats(core.getStats());
+    }
+}
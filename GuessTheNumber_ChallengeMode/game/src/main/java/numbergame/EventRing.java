@@ -0,0 +1,117 @@
+package numbergame;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Bounded multi-producer, single-consumer ring of fixed 4-long records. Producers claim a
+// sequence with one CAS, write the record into preallocated slots and publish it by storing
+// the sequence in the slot's marker; the consumer reads records in sequence order for as long
+// as markers match. Nothing is allocated per record and producers never take a lock.
+class EventRing {
+    static final int WORDS = 4;
+
+    // Receives drained records on the consumer thread
+    interface Handler {
+        void onRecord(long w0, long w1, long w2, long w3);
+    }
+
+    private final int mask;
+    private final long[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    // Consumer parked in await(), woken by the next write
+    private volatile Thread waiter;
+
+    EventRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.slots = new long[capacity * WORDS];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    // Publishes the record, or returns false at once if the ring is full
+    boolean tryPublish(long w0, long w1, long w2, long w3) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        write(sequence, w0, w1, w2, w3);
+        return true;
+    }
+
+    // Publishes the record, waiting for the consumer while the ring is full
+    void publish(long w0, long w1, long w2, long w3) {
+        int spins = 0;
+        while (!tryPublish(w0, w1, w2, w3)) {
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    // Consumer only: hands up to max published records to the handler; returns how many
+    int drain(Handler handler, int max) {
+        long sequence = head;
+        int count = 0;
+        while (count < max) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) != sequence) {
+                break;
+            }
+            int base = index * WORDS;
+            handler.onRecord(slots[base], slots[base + 1], slots[base + 2], slots[base + 3]);
+            sequence++;
+            count++;
+        }
+        if (count > 0) {
+            head = sequence;
+        }
+        return count;
+    }
+
+    // Consumer only: parks until a record is ready to drain or the consumer is unparked.
+    // Waiter is written before the slot is checked and producers read it after publishing,
+    // so either this sees the record or its producer sees the waiter and unparks it.
+    void await() {
+        waiter = Thread.currentThread();
+        if (published.get((int) (head & mask)) != head) {
+            LockSupport.park(this);
+        }
+        waiter = null;
+    }
+
+    // Records claimed but not yet drained
+    long size() {
+        return tail.get() - head;
+    }
+
+    private void write(long sequence, long w0, long w1, long w2, long w3) {
+        int index = (int) (sequence & mask);
+        int base = index * WORDS;
+        slots[base] = w0;
+        slots[base + 1] = w1;
+        slots[base + 2] = w2;
+        slots[base + 3] = w3;
+        published.set(index, sequence);
+        Thread consumer = waiter;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+}
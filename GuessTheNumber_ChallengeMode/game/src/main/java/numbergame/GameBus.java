@@ -0,0 +1,115 @@
+package numbergame;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+// Observer bus of a GameCore. Events are a type and two ints, handed to every listener as
+// primitives on the thread that changed the game, so publishing allocates nothing. Listeners
+// are kept in an array that subscribe() replaces, so publish() needs no lock. Listeners that
+// are slow or do I/O should be wrapped in Batched, which queues events in an EventRing and
+// delivers them in batches on its own thread.
+final class GameBus {
+    // A round began: a = level, b = max attempts
+    static final int ROUND_STARTED = 0;
+    // A guess was counted: a = GuessOutcome ordinal, b = attempts so far
+    static final int GUESSED = 1;
+    // A power-up was asked for: a = GameSession power-up code (POWER_UP_NONE if none was left), b = power-ups left
+    static final int POWER_UP = 2;
+    // The round was won, lost on attempts or timed out, and the stats updated: a = GuessOutcome ordinal, b = attempts
+    static final int ROUND_ENDED = 3;
+    // The session moved up a level: a = new level
+    static final int LEVEL_UP = 4;
+
+    interface Listener {
+        void onEvent(long nanos, int playerId, int type, int a, int b);
+
+        // Called by Batched after each batch it delivered, e.g. to flush writes
+        default void endOfBatch() {
+        }
+    }
+
+    private volatile Listener[] listeners = new Listener[0];
+
+    synchronized void subscribe(Listener listener) {
+        Listener[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+        grown[listeners.length] = listener;
+        listeners = grown;
+    }
+
+    synchronized void unsubscribe(Listener listener) {
+        Listener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                Listener[] shrunk = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+                listeners = shrunk;
+                return;
+            }
+        }
+    }
+
+    void publish(long nanos, int playerId, int type, int a, int b) {
+        for (Listener listener : listeners) {
+            listener.onEvent(nanos, playerId, type, a, b);
+        }
+    }
+
+    // Delivers events to the target on a daemon thread, up to BATCH at a time. Publishing waits
+    // only while the ring is full, so no event is lost; close() delivers what is queued.
+    static final class Batched implements Listener, AutoCloseable {
+        private static final int BATCH = 256;
+
+        private final Listener target;
+        private final EventRing ring;
+        private final EventRing.Handler deliver = this::deliver;
+        private final Thread consumer;
+        private volatile boolean running = true;
+
+        Batched(Listener target, int ringCapacity, String threadName) {
+            this.target = target;
+            this.ring = new EventRing(ringCapacity);
+            consumer = new Thread(this::run, threadName);
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+
+        @Override
+        public void onEvent(long nanos, int playerId, int type, int a, int b) {
+            ring.publish(nanos, (long) playerId << 32 | type, a, b);
+        }
+
+        // Events queued and not yet delivered
+        long getBacklog() {
+            return ring.size();
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void run() {
+            while (true) {
+                boolean stopping = !running;
+                int drained = ring.drain(deliver, BATCH);
+                if (drained > 0) {
+                    target.endOfBatch();
+                } else if (stopping) {
+                    return;
+                } else {
+                    ring.await();
+                }
+            }
+        }
+
+        private void deliver(long nanos, long playerAndType, long a, long b) {
+            target.onEvent(nanos, (int) (playerAndType >>> 32), (int) playerAndType, (int) a, (int) b);
+        }
+    }
+}
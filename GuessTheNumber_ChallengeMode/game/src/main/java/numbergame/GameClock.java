@@ -0,0 +1,8 @@
+package numbergame;
+
+// Monotonic time source for GameSession, so headless sessions can run on simulated time
+interface GameClock {
+    GameClock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
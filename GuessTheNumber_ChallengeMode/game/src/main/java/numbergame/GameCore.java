@@ -0,0 +1,115 @@
+package numbergame;
+
+import java.util.random.RandomGenerator;
+
+// Headless game state behind both desktop UIs: one player's GameSession and PlayerStats and
+// the rules that tie them together. Every finished round, whether won, lost on attempts or
+// timed out, updates the stats once; the round after a win starts one level up; used
+// power-ups are counted. Each change is published on the core's GameBus, which is how views,
+// persistence, rankings and metrics learn about it. A core is confined to one thread (the EDT
+// under a UI); a deadline callback must hand over to that thread and call checkTimeUp().
+final class GameCore {
+    static final int MIN_RANGE = 1;
+    static final int MAX_RANGE = 100;
+    static final int MAX_ATTEMPTS = 10;
+
+    private final int playerId;
+    private final GameClock clock;
+    private final GameSession session;
+    private final PlayerStats stats;
+    private final GameBus bus = new GameBus();
+    private boolean roundOpen;
+
+    // The session holds a round from the start, but nothing is published until startNewGame()
+    GameCore(int playerId, PlayerStats stats, GameClock clock, RandomGenerator random) {
+        this.playerId = playerId;
+        this.clock = clock;
+        this.session = new GameSession(MIN_RANGE, MAX_RANGE, MAX_ATTEMPTS, clock, random);
+        this.stats = stats;
+    }
+
+    // Starts the next round, one level up if the last one was won
+    void startNewGame() {
+        if (session.isGameWon()) {
+            session.increaseDifficulty();
+            stats.recordLevel(session.getLevel());
+            publish(GameBus.LEVEL_UP, session.getLevel(), 0);
+        }
+        session.resetGame();
+        roundOpen = true;
+        publish(GameBus.ROUND_STARTED, session.getLevel(), session.getMaxAttempts());
+    }
+
+    // Outcome of the guess, or null when no round is in progress
+    GuessOutcome guess(int guess) {
+        if (!roundOpen) {
+            return null;
+        }
+        GuessOutcome outcome = session.evaluateGuess(guess);
+        if (outcome != GuessOutcome.TIME_UP) {
+            publish(GameBus.GUESSED, outcome.ordinal(), session.getAttempts());
+        }
+        if (outcome.isGameOver()) {
+            endRound(outcome);
+        }
+        return outcome;
+    }
+
+    // GameSession power-up code, POWER_UP_NONE when none is left or no round is in progress
+    int usePowerUp() {
+        if (!roundOpen) {
+            return GameSession.POWER_UP_NONE;
+        }
+        int code = session.applyPowerUp();
+        if (code != GameSession.POWER_UP_NONE) {
+            stats.recordPowerUp();
+        }
+        publish(GameBus.POWER_UP, code, session.getPowerUps());
+        return code;
+    }
+
+    // Ends the round if its time ran out; true if it did
+    boolean checkTimeUp() {
+        if (roundOpen && session.isTimeUp()) {
+            endRound(GuessOutcome.TIME_UP);
+            return true;
+        }
+        return false;
+    }
+
+    // Runs onDeadline on the wheel thread when a round's time runs out; see checkTimeUp()
+    void watchDeadline(TimingWheel wheel, Runnable onDeadline) {
+        session.watchDeadline(wheel, onDeadline);
+    }
+
+    private void endRound(GuessOutcome outcome) {
+        roundOpen = false;
+        stats.updateStats(outcome == GuessOutcome.CORRECT, session.getAttempts());
+        publish(GameBus.ROUND_ENDED, outcome.ordinal(), session.getAttempts());
+    }
+
+    private void publish(int type, int a, int b) {
+        bus.publish(clock.nanoTime(), playerId, type, a, b);
+    }
+
+    boolean isRoundOpen() {
+        return roundOpen;
+    }
+
+    int getPlayerId() {
+        return playerId;
+    }
+
+    GameBus getBus() {
+        return bus;
+    }
+
+    // For reading the round; changes must go through the core
+    GameSession getSession() {
+        return session;
+    }
+
+    PlayerStats getStats() {
+        return stats;
+    }
+}
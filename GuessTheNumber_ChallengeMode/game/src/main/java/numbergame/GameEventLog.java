@@ -0,0 +1,171 @@
+package numbergame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+// Binary log of everything that happens to attached GameSessions, enough to replay them with
+// GameLogReplayer. Sessions publish 32-byte events into an EventRing; one writer thread drains
+// it in batches into segment files events-000000.log, events-000001.log, ... of at most
+// segmentBytes each. Each segment starts with a 16-byte header (magic, version, first event
+// number). Event layout, little-endian:
+//
+//   0  long   clock.nanoTime() of the session
+//   8  int    session (player) id
+//   12 byte   type
+//   13 byte   outcome ordinal or power-up code
+//   14 short  attempts, max attempts or level
+//   16 long   seed or guess or new max range
+//   24 long   min/max range or max attempts
+//
+// A round imported from another node is logged at its start time as a ROUND_START with code
+// IMPORTED and the level's bounds, then a RESUME with the rest of its state: the code packs
+// power-ups left (bits 0-1), extra attempts (2-3), revealed digit (4), won (5) and time-up
+// (6); then attempts, level << 32 | time limit, and the round's min/max range.
+class GameEventLog implements AutoCloseable {
+    static final byte ROUND_START = 1;
+    static final byte GUESS = 2;
+    static final byte POWER_UP = 3;
+    static final byte TIME_UP = 4;
+    static final byte LEVEL_UP = 5;
+    static final byte RESUME = 6;
+
+    // ROUND_START code of the first round logged for a session
+    static final int NEW_SESSION = 1;
+    // ROUND_START code of a round handed over by another node; a RESUME follows
+    static final int IMPORTED = 2;
+
+    static final int MAGIC = 0x47544e45; // "GTNE"
+    // 2: targets and power-ups are drawn from round seeds with RngProvider.bounded()
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    static final int EVENT_SIZE = 32;
+
+    private static final int BATCH_EVENTS = 2048;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final EventRing ring;
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_EVENTS * EVENT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Thread writer;
+    private final EventRing.Handler encoder = this::encode;
+    private FileChannel segment;
+    private int segmentIndex;
+    private volatile long written; // only the writer thread updates it
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    private GameEventLog(Path dir, int ringCapacity, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.ring = new EventRing(ringCapacity);
+        Files.createDirectories(dir);
+        // Never append to an old segment, so each one is written by a single log instance
+        while (Files.exists(segmentPath(dir, segmentIndex))) {
+            segmentIndex++;
+        }
+        openSegment();
+        writer = new Thread(this::run, "game-event-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    static GameEventLog open(Path dir) throws IOException {
+        return open(dir, 1 << 16, 64L << 20);
+    }
+
+    static GameEventLog open(Path dir, int ringCapacity, long segmentBytes) throws IOException {
+        return new GameEventLog(dir, ringCapacity, segmentBytes);
+    }
+
+    static Path segmentPath(Path dir, int index) {
+        return dir.resolve(String.format("events-%06d.log", index));
+    }
+
+    // Called by sessions; blocks only while the ring is full
+    void append(long timeNanos, int session, byte type, int code, int small, long a, long b) {
+        long packed = (long) session << 32 | (type & 0xffL) << 24 | (code & 0xffL) << 16 | (small & 0xffffL);
+        ring.publish(timeNanos, packed, a, b);
+    }
+
+    // Events written to segment files so far
+    long getWritten() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        segment.force(false);
+        segment.close();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                boolean stopping = !running;
+                int drained = ring.drain(encoder, BATCH_EVENTS);
+                if (drained > 0) {
+                    writeBatch();
+                } else if (stopping) {
+                    return; // Everything published before close() has been written
+                } else {
+                    LockSupport.parkNanos(200_000);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("Event log stopped: " + e.getMessage());
+            // Keep draining so sessions never block on a full ring
+            EventRing.Handler discard = (_, _, _, _) -> { };
+            while (running) {
+                if (ring.drain(discard, BATCH_EVENTS) == 0) {
+                    LockSupport.parkNanos(200_000);
+                }
+            }
+        }
+    }
+
+    private void encode(long w0, long w1, long w2, long w3) {
+        batch.putLong(w0).putLong(w1).putLong(w2).putLong(w3);
+    }
+
+    private void writeBatch() throws IOException {
+        batch.flip();
+        if (segment.position() + batch.remaining() > segmentBytes) {
+            segment.close();
+            segmentIndex++;
+            openSegment();
+        }
+        int events = batch.remaining() / EVENT_SIZE;
+        while (batch.hasRemaining()) {
+            segment.write(batch);
+        }
+        batch.clear();
+        written += events;
+    }
+
+    private void openSegment() throws IOException {
+        segment = FileChannel.open(segmentPath(dir, segmentIndex),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(written).flip();
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package numbergame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Per-game history for analytics: one row per finished round with the player, level, size of
+// the level's range, attempts, outcome, duration and power-ups used. Rows live off-heap in
+// memory-mapped segment files history-000000.col, history-000001.col, ... of rowsPerSegment
+// rows each. A segment is a 64-byte header (magic, version, rows per segment, rows, highest
+// player id) followed by one little-endian array per column:
+//
+//   int player | int range | int duration millis | short level | byte attempts | byte outcome | byte power-ups
+//
+// 17 bytes a row, so 100 million games take 1.7 GB of page cache and nothing on the heap.
+// Queries read only the columns they need, a block of BLOCK_ROWS rows at a time: each column
+// block is bulk-copied into a small reused array and the block is counted in plain loops over
+// those arrays. Queries run concurrently with appends and see the rows appended before they
+// started. Player ids are dense non-negative ints as in PlayerStatsStore, and streaks assume
+// each player's rows are appended in the order the rounds were played.
+class GameHistoryStore implements AutoCloseable {
+    private static final int MAGIC = 0x47544e48; // "GTNH"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int ROW_SIZE = 17;
+    private static final int BLOCK_ROWS = 4096;
+    private static final int CORRECT = GuessOutcome.CORRECT.ordinal();
+
+    // Streaks of at least this many wins share the last bucket of streakDistribution()
+    static final int MAX_STREAK = 64;
+
+    // Header layout
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_ROWS_PER_SEGMENT = 8;
+    private static final int H_ROWS = 12;
+    private static final int H_MAX_PLAYER = 16;
+
+    // Win and game counts per level, indexed by level
+    record LevelCounts(long[] games, long[] wins) {
+        double winRate(int level) {
+            return games[level] == 0 ? 0 : (double) wins[level] / games[level];
+        }
+    }
+
+    private static final class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final IntBuffer players, ranges, durations;
+        final ShortBuffer levels;
+        final ByteBuffer attempts, outcomes, powerUps;
+
+        Segment(FileChannel channel, int rows) throws IOException {
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) rows * ROW_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int offset = HEADER_SIZE;
+            players = column(offset, rows * 4).asIntBuffer();
+            ranges = column(offset += rows * 4, rows * 4).asIntBuffer();
+            durations = column(offset += rows * 4, rows * 4).asIntBuffer();
+            levels = column(offset += rows * 4, rows * 2).asShortBuffer();
+            attempts = column(offset += rows * 2, rows);
+            outcomes = column(offset += rows, rows);
+            powerUps = column(offset + rows, rows);
+        }
+
+        private ByteBuffer column(int offset, int length) {
+            return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private final Path dir;
+    private final int rowsPerSegment;
+    private Segment[] segments = new Segment[16];
+    private int segmentCount;
+    private long rows;
+    private int maxPlayerId = -1;
+
+    private GameHistoryStore(Path dir, int rowsPerSegment) {
+        this.dir = dir;
+        this.rowsPerSegment = rowsPerSegment;
+    }
+
+    static GameHistoryStore open(Path dir) throws IOException {
+        return open(dir, 1 << 20);
+    }
+
+    // rowsPerSegment only applies to a new store; an existing one keeps its own
+    static GameHistoryStore open(Path dir, int rowsPerSegment) throws IOException {
+        Files.createDirectories(dir);
+        if (Files.exists(segmentPath(dir, 0))) {
+            rowsPerSegment = readRowsPerSegment(segmentPath(dir, 0));
+        }
+        if (rowsPerSegment < 1 || rowsPerSegment > (Integer.MAX_VALUE - HEADER_SIZE) / ROW_SIZE) {
+            throw new IllegalArgumentException("Bad rows per segment: " + rowsPerSegment);
+        }
+        GameHistoryStore store = new GameHistoryStore(dir, rowsPerSegment);
+        store.openSegments();
+        return store;
+    }
+
+    static Path segmentPath(Path dir, int index) {
+        return dir.resolve(String.format("history-%06d.col", index));
+    }
+
+    // Appends the round the session just finished with the outcome
+    void record(int playerId, GameSession session, GuessOutcome outcome) throws IOException {
+        append(playerId, session.getLevel(), session.getLevelRange(), session.getAttempts(), outcome,
+            (int) Math.min(Integer.MAX_VALUE, session.getElapsedNanos() / 1_000_000),
+            GameSession.POWER_UPS_PER_ROUND - session.getPowerUps());
+    }
+
+    // Levels above Short.MAX_VALUE and attempts above 255 are stored as those maximums
+    synchronized void append(int playerId, int level, int range, int attempts, GuessOutcome outcome,
+                             int durationMillis, int powerUpsUsed) throws IOException {
+        if (playerId < 0) {
+            throw new IllegalArgumentException("Bad player id: " + playerId);
+        }
+        if (rows == (long) segmentCount * rowsPerSegment) {
+            addSegment();
+        }
+        Segment segment = segments[segmentCount - 1];
+        int row = (int) (rows - (long) (segmentCount - 1) * rowsPerSegment);
+        segment.players.put(row, playerId);
+        segment.ranges.put(row, range);
+        segment.durations.put(row, durationMillis);
+        segment.levels.put(row, (short) Math.min(level, Short.MAX_VALUE));
+        segment.attempts.put(row, (byte) Math.min(attempts, 255));
+        segment.outcomes.put(row, (byte) outcome.ordinal());
+        segment.powerUps.put(row, (byte) powerUpsUsed);
+        segment.buffer.putInt(H_ROWS, row + 1);
+        if (playerId > maxPlayerId) {
+            maxPlayerId = playerId;
+            segment.buffer.putInt(H_MAX_PLAYER, playerId);
+        }
+        rows++;
+    }
+
+    synchronized long size() {
+        return rows;
+    }
+
+    // Games and wins at each level from 0 up to the highest level recorded
+    LevelCounts winRateByLevel() {
+        long[] games = new long[Short.MAX_VALUE + 1];
+        long[] wins = new long[Short.MAX_VALUE + 1];
+        short[] levels = new short[BLOCK_ROWS];
+        byte[] outcomes = new byte[BLOCK_ROWS];
+        int maxLevel = -1;
+        View view = view();
+        for (int s = 0; s < view.count(); s++) {
+            Segment segment = view.segments[s];
+            int segmentRows = view.rows(s);
+            for (int from = 0; from < segmentRows; from += BLOCK_ROWS) {
+                int n = Math.min(BLOCK_ROWS, segmentRows - from);
+                segment.levels.get(from, levels, 0, n);
+                segment.outcomes.get(from, outcomes, 0, n);
+                for (int i = 0; i < n; i++) {
+                    int level = levels[i];
+                    games[level]++;
+                    wins[level] += outcomes[i] == CORRECT ? 1 : 0;
+                    maxLevel = Math.max(maxLevel, level);
+                }
+            }
+        }
+        return new LevelCounts(Arrays.copyOf(games, maxLevel + 1), Arrays.copyOf(wins, maxLevel + 1));
+    }
+
+    // Number of win streaks of each length: index n counts runs of exactly n consecutive wins
+    // by one player (ended by a loss or still running), the last index runs of MAX_STREAK or
+    // more. Keeps one int per player id on the heap.
+    long[] streakDistribution() {
+        long[] streaks = new long[MAX_STREAK + 1];
+        int[] players = new int[BLOCK_ROWS];
+        byte[] outcomes = new byte[BLOCK_ROWS];
+        View view = view();
+        int[] current = new int[view.maxPlayerId + 1];
+        for (int s = 0; s < view.count(); s++) {
+            Segment segment = view.segments[s];
+            int segmentRows = view.rows(s);
+            for (int from = 0; from < segmentRows; from += BLOCK_ROWS) {
+                int n = Math.min(BLOCK_ROWS, segmentRows - from);
+                segment.players.get(from, players, 0, n);
+                segment.outcomes.get(from, outcomes, 0, n);
+                for (int i = 0; i < n; i++) {
+                    int player = players[i];
+                    if (outcomes[i] == CORRECT) {
+                        current[player]++;
+                    } else if (current[player] > 0) {
+                        streaks[Math.min(current[player], MAX_STREAK)]++;
+                        current[player] = 0;
+                    }
+                }
+            }
+        }
+        for (int streak : current) {
+            if (streak > 0) {
+                streaks[Math.min(streak, MAX_STREAK)]++;
+            }
+        }
+        return streaks;
+    }
+
+    // Won games by the attempts they took, indexed by attempts up to the most recorded
+    long[] attemptsHistogram() {
+        long[] histogram = new long[256];
+        byte[] attempts = new byte[BLOCK_ROWS];
+        byte[] outcomes = new byte[BLOCK_ROWS];
+        View view = view();
+        for (int s = 0; s < view.count(); s++) {
+            Segment segment = view.segments[s];
+            int segmentRows = view.rows(s);
+            for (int from = 0; from < segmentRows; from += BLOCK_ROWS) {
+                int n = Math.min(BLOCK_ROWS, segmentRows - from);
+                segment.attempts.get(from, attempts, 0, n);
+                segment.outcomes.get(from, outcomes, 0, n);
+                for (int i = 0; i < n; i++) {
+                    histogram[attempts[i] & 0xff] += outcomes[i] == CORRECT ? 1 : 0;
+                }
+            }
+        }
+        int length = histogram.length;
+        while (length > 0 && histogram[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(histogram, length);
+    }
+
+    // Forces the segment being appended to onto disk; full segments were forced when they filled
+    synchronized void flush() {
+        if (segmentCount > 0) {
+            segments[segmentCount - 1].buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        for (int s = 0; s < segmentCount; s++) {
+            segments[s].channel.close();
+        }
+        segmentCount = 0;
+    }
+
+    // The segments and row count a query scans; segments never change once full, and rows
+    // below the count are never written again
+    private record View(Segment[] segments, long rows, int rowsPerSegment, int maxPlayerId) {
+        int count() {
+            return (int) ((rows + rowsPerSegment - 1) / rowsPerSegment);
+        }
+
+        int rows(int s) {
+            return (int) Math.min(rowsPerSegment, rows - (long) s * rowsPerSegment);
+        }
+    }
+
+    private synchronized View view() {
+        return new View(segments, rows, rowsPerSegment, maxPlayerId);
+    }
+
+    private static int readRowsPerSegment(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+                throw new IOException("Not a version " + VERSION + " history segment: " + file);
+            }
+            return header.getInt(H_ROWS_PER_SEGMENT);
+        }
+    }
+
+    // Maps every existing segment; all but the last must be full
+    private void openSegments() throws IOException {
+        Path file;
+        while (Files.exists(file = segmentPath(dir, segmentCount))) {
+            if (segmentCount > 0 && rows != (long) segmentCount * rowsPerSegment) {
+                throw new IOException("History segment before " + file + " is not full");
+            }
+            if (readRowsPerSegment(file) != rowsPerSegment) {
+                throw new IOException("Rows per segment differ in " + file);
+            }
+            Segment segment = map(file);
+            rows += segment.buffer.getInt(H_ROWS);
+            maxPlayerId = Math.max(maxPlayerId, segment.buffer.getInt(H_MAX_PLAYER));
+        }
+    }
+
+    private void addSegment() throws IOException {
+        if (segmentCount > 0) {
+            segments[segmentCount - 1].buffer.force();
+        }
+        Segment segment = map(segmentPath(dir, segmentCount));
+        segment.buffer.putInt(H_MAGIC, MAGIC);
+        segment.buffer.putInt(H_VERSION, VERSION);
+        segment.buffer.putInt(H_ROWS_PER_SEGMENT, rowsPerSegment);
+        segment.buffer.putInt(H_ROWS, 0);
+        segment.buffer.putInt(H_MAX_PLAYER, -1);
+    }
+
+    // Maps the file as the next segment; a query holding the old array keeps seeing its segments
+    private Segment map(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(channel, rowsPerSegment);
+        if (segmentCount == segments.length) {
+            segments = Arrays.copyOf(segments, segmentCount * 2);
+        }
+        segments[segmentCount++] = segment;
+        return segment;
+    }
+}
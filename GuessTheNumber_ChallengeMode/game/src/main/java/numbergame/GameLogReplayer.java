@@ -0,0 +1,207 @@
+package numbergame;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+// Rebuilds GameSession and PlayerStats state from a GameEventLog directory without a UI.
+// Every event is re-run against a real GameSession on a clock set to the logged time, so the
+// seeded targets, power-ups and time-ups are recomputed rather than trusted; any logged result
+// that differs from the recomputed one is counted as a mismatch. Sessions and stats are kept
+// in arrays indexed by the dense session ids. Usage: java numbergame.GameLogReplayer [dir]
+public class GameLogReplayer {
+    private final ManualClock clock = new ManualClock(0);
+    private final SplittableRandom unusedSeeds = new SplittableRandom(0);
+    private final int[] resumeState = new int[GameSession.STATE_FIELDS];
+    private GameSession[] sessions = new GameSession[1024];
+    private PlayerStats[] stats = new PlayerStats[1024];
+    private long events;
+    private long rounds;
+    private long mismatches;
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of(args.length > 0 ? args[0] : "events");
+        long start = System.nanoTime();
+        GameLogReplayer replayer = replay(dir);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Replayed %,d events (%,d rounds, %,d sessions) in %.2fs = %,.0f events/sec%n",
+            replayer.getEvents(), replayer.getRounds(), replayer.getSessionCount(), seconds,
+            replayer.getEvents() / seconds);
+        System.out.printf("Mismatches: %,d%n", replayer.getMismatches());
+    }
+
+    // Replays every segment of the directory in order
+    static GameLogReplayer replay(Path dir) throws IOException {
+        GameLogReplayer replayer = new GameLogReplayer();
+        Path[] segments;
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files.filter(f -> f.getFileName().toString().matches("events-\\d+\\.log"))
+                .sorted().toArray(Path[]::new);
+        }
+        for (Path segment : segments) {
+            replayer.replaySegment(segment);
+        }
+        return replayer;
+    }
+
+    void replaySegment(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < GameEventLog.HEADER_SIZE) {
+                return; // Created but never written
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            in.order(ByteOrder.LITTLE_ENDIAN);
+            if (in.getInt(0) != GameEventLog.MAGIC || in.getInt(4) != GameEventLog.VERSION) {
+                throw new IOException("Not a game event log: " + file);
+            }
+            // A torn event at the tail is ignored
+            for (long offset = GameEventLog.HEADER_SIZE; offset + GameEventLog.EVENT_SIZE <= size; offset += GameEventLog.EVENT_SIZE) {
+                int o = (int) offset;
+                apply(in.getLong(o), in.getLong(o + 8), in.getLong(o + 16), in.getLong(o + 24));
+            }
+        }
+    }
+
+    // Applies one event in the GameEventLog layout
+    void apply(long timeNanos, long packed, long a, long b) {
+        events++;
+        int id = (int) (packed >>> 32);
+        byte type = (byte) (packed >>> 24);
+        int code = (int) (packed >>> 16) & 0xff;
+        int small = (int) packed & 0xffff;
+        clock.set(timeNanos);
+        if (id < 0) {
+            mismatches++;
+            return;
+        }
+
+        if (type == GameEventLog.ROUND_START) {
+            int min = (int) (b >> 32), max = (int) b;
+            GameSession session = id < sessions.length ? sessions[id] : null;
+            if (session == null || code == GameEventLog.NEW_SESSION || code == GameEventLog.IMPORTED) {
+                session = new GameSession(min, max, small, clock, unusedSeeds);
+                ensureCapacity(id);
+                sessions[id] = session;
+            }
+            session.startRound(a);
+            // Compared after the start, which undoes the last round's power-ups
+            if (session.getMinRange() != min || session.getMaxRange() != max || session.getMaxAttempts() != small) {
+                mismatches++;
+            }
+            rounds++;
+            return;
+        }
+
+        GameSession session = id < sessions.length ? sessions[id] : null;
+        if (session == null) {
+            mismatches++; // Event of a session whose start is not in the log
+            return;
+        }
+        PlayerStats playerStats = statsFor(id);
+        switch (type) {
+            case GameEventLog.GUESS -> {
+                GuessOutcome outcome = session.evaluateGuess((int) a);
+                if (outcome.ordinal() != code || session.getAttempts() != small) {
+                    mismatches++;
+                }
+                if (outcome == GuessOutcome.CORRECT) {
+                    playerStats.updateStats(true, session.getAttempts());
+                } else if (outcome == GuessOutcome.OUT_OF_ATTEMPTS) {
+                    playerStats.updateStats(false, session.getAttempts());
+                }
+            }
+            case GameEventLog.POWER_UP -> {
+                if (session.applyPowerUp() != code) {
+                    mismatches++;
+                }
+                playerStats.recordPowerUp();
+            }
+            case GameEventLog.TIME_UP -> {
+                if (session.isTimeUp()) {
+                    playerStats.updateStats(false, session.getAttempts());
+                } else {
+                    mismatches++;
+                }
+            }
+            case GameEventLog.RESUME -> {
+                // Continues the round the IMPORTED start just drew, from the logged start time
+                int[] state = resumeState;
+                session.exportState(state);
+                state[0] = (int) (a >>> 32);
+                state[4] = (int) (b >> 32);
+                state[5] = (int) b;
+                state[6] = state[3] + (code >>> 2 & 3);
+                state[8] = small;
+                state[9] = code & 3;
+                state[10] = (code & 1 << 4) != 0 ? GameSession.lastDigit(session.getTargetNumber()) : -1;
+                state[11] = (int) a;
+                state[12] = 0;
+                state[15] = code >>> 5 & 3;
+                session.importState(state);
+            }
+            case GameEventLog.LEVEL_UP -> {
+                session.increaseDifficulty();
+                if (session.getLevel() != small) {
+                    mismatches++;
+                }
+                playerStats.recordLevel(session.getLevel());
+            }
+            default -> mismatches++;
+        }
+    }
+
+    // Replayed session of the id, or null
+    GameSession session(int id) {
+        return id < sessions.length ? sessions[id] : null;
+    }
+
+    // Replayed stats of the id, or null if it played nothing
+    PlayerStats stats(int id) {
+        return id < stats.length ? stats[id] : null;
+    }
+
+    long getEvents() {
+        return events;
+    }
+
+    long getRounds() {
+        return rounds;
+    }
+
+    long getMismatches() {
+        return mismatches;
+    }
+
+    int getSessionCount() {
+        int count = 0;
+        for (GameSession session : sessions) {
+            if (session != null) count++;
+        }
+        return count;
+    }
+
+    private PlayerStats statsFor(int id) {
+        PlayerStats playerStats = stats[id];
+        if (playerStats == null) {
+            playerStats = new PlayerStats();
+            stats[id] = playerStats;
+        }
+        return playerStats;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= sessions.length) {
+            int length = Math.max(sessions.length * 2, id + 1);
+            sessions = Arrays.copyOf(sessions, length);
+            stats = Arrays.copyOf(stats, length);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package numbergame;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+class GameSession {
+    // Power-up codes returned by applyPowerUp()
+    static final int POWER_UP_NONE = -1;
+    static final int POWER_UP_LAST_DIGIT = 0;
+    static final int POWER_UP_RANGE = 1;
+    static final int POWER_UP_EXTRA_ATTEMPT = 2;
+
+    // Length of the exportState() array
+    static final int STATE_FIELDS = 16;
+
+    // Most attempts a level may allow; each extra-attempt power-up adds one to its round
+    static final int MAX_ATTEMPTS = 100;
+    static final int POWER_UPS_PER_ROUND = 3;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Draws from the calling thread's ThreadLocalRandom, so sessions need no RNG of their own
+    static final RandomGenerator THREAD_RANDOM = () -> ThreadLocalRandom.current().nextLong();
+
+    // Timed through the typed methods that checkGuess(), usePowerUp() and resetGame() run on
+    private static final MetricsRegistry.Timer CHECK_GUESS_TIME = MetricsRegistry.shared().timer("checkGuess");
+    private static final MetricsRegistry.Timer POWER_UP_TIME = MetricsRegistry.shared().timer("usePowerUp");
+    private static final MetricsRegistry.Timer RESET_TIME = MetricsRegistry.shared().timer("resetGame");
+    private static final MetricsRegistry.Counter WINS = MetricsRegistry.shared().counter("games.won");
+    private static final MetricsRegistry.Counter LOSSES = MetricsRegistry.shared().counter("games.lost");
+    private static final MetricsRegistry.Counter TIME_UPS = MetricsRegistry.shared().counter("games.timeUp");
+    private static final MetricsRegistry.Counter NO_POWER_UPS = MetricsRegistry.shared().counter("powerUps.none");
+    // Indexed by power-up code
+    private static final MetricsRegistry.Counter[] POWER_UPS = {
+        MetricsRegistry.shared().counter("powerUps.lastDigit"),
+        MetricsRegistry.shared().counter("powerUps.range"),
+        MetricsRegistry.shared().counter("powerUps.extraAttempt")
+    };
+
+    // The level's bounds; power-ups only change the round's copies
+    private int baseMinRange, baseMaxRange, baseMaxAttempts;
+    private int targetNumber, attempts, minRange, maxRange, maxAttempts;
+    private long startNanos;
+    private boolean gameWon;
+    private final GuessHistory guessHistory = new GuessHistory();
+    private int powerUps;
+    private int revealedDigit;
+    private int level;
+    private int timeLimit;
+    private boolean isTimeUp;
+    private final GameClock clock;
+    private final RandomGenerator random;
+    private TimingWheel deadlineWheel;
+    private TimingWheel.Timeout deadlineTimeout;
+    // The target and power-up picks of a round are derived from its seed, so a logged round replays exactly
+    private long roundSeed;
+    private GameEventLog eventLog;
+    private int eventSessionId;
+    private OutcomeStream outcomeStream;
+
+    public GameSession(int minRange, int maxRange, int maxAttempts) {
+        this(minRange, maxRange, maxAttempts, GameClock.SYSTEM, RngProvider.SHARED.perThread());
+    }
+
+    // Time-up is derived from the clock on demand, so sessions need no timer of their own
+    GameSession(int minRange, int maxRange, int maxAttempts, GameClock clock, RandomGenerator random) {
+        this.clock = clock;
+        this.random = random;
+        setLevelOne(minRange, maxRange, maxAttempts);
+        resetGame();
+    }
+
+    private void setLevelOne(int minRange, int maxRange, int maxAttempts) {
+        checkBounds(minRange, maxRange, maxAttempts);
+        this.baseMinRange = minRange;
+        this.baseMaxRange = maxRange;
+        this.baseMaxAttempts = maxAttempts;
+        this.level = 1;
+        this.timeLimit = 60; // 60 seconds for first level
+    }
+
+    // Throws IllegalArgumentException unless the bounds make a playable level
+    static void checkBounds(int minRange, int maxRange, int maxAttempts) {
+        if (minRange > maxRange) {
+            throw new IllegalArgumentException("Empty range " + minRange + " - " + maxRange);
+        }
+        if (maxAttempts < 1 || maxAttempts > MAX_ATTEMPTS) {
+            throw new IllegalArgumentException("Max attempts must be in [1, " + MAX_ATTEMPTS + "]: " + maxAttempts);
+        }
+    }
+
+    public void resetGame() {
+        startRound(random.nextLong());
+    }
+
+    // Starts a round whose target and power-ups follow from the seed
+    void startRound(long seed) {
+        beginRound(seed, 0);
+    }
+
+    // Puts a finished or recycled session back to level 1 on new bounds and starts a round.
+    // Its clock, RNG, history buffer and deadline watch are kept; an event log sees a new session.
+    void reinitialize(int minRange, int maxRange, int maxAttempts) {
+        setLevelOne(minRange, maxRange, maxAttempts);
+        beginRound(random.nextLong(), GameEventLog.NEW_SESSION);
+    }
+
+    // Stops the deadline watch, event logging and outcome streaming, e.g. before the session goes back to a pool
+    void detach() {
+        stopTimer();
+        deadlineWheel = null;
+        deadlineTimeout = null;
+        eventLog = null;
+        outcomeStream = null;
+    }
+
+    private void beginRound(long seed, int logCode) {
+        long start = RESET_TIME.start();
+        roundSeed = seed;
+        minRange = baseMinRange;
+        maxRange = baseMaxRange;
+        maxAttempts = baseMaxAttempts;
+        targetNumber = minRange + (int) RngProvider.bounded(seed, (long) maxRange - minRange + 1);
+        attempts = 0;
+        gameWon = false;
+        guessHistory.reset(maxAttempts + POWER_UPS_PER_ROUND, minRange, maxRange, targetNumber);
+        powerUps = POWER_UPS_PER_ROUND;
+        revealedDigit = -1;
+        startNanos = clock.nanoTime();
+        isTimeUp = false;
+        
+        if (deadlineTimeout != null) {
+            deadlineWheel.schedule(deadlineTimeout, getDeadlineNanos());
+        }
+        logRoundStart(logCode);
+        RESET_TIME.stop(start);
+    }
+
+    // Last decimal digit of the number, 0 to 9 whatever its sign: 3 for both 123 and -123
+    static int lastDigit(long number) {
+        return (int) Math.abs(number % 10);
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Logs every later event of this session, starting with the round in progress
+    void recordTo(GameEventLog log, int sessionId) {
+        eventLog = log;
+        eventSessionId = sessionId;
+        logRoundStart(GameEventLog.NEW_SESSION);
+    }
+
+    private void logRoundStart(int code) {
+        if (eventLog != null) {
+            eventLog.append(startNanos, eventSessionId, GameEventLog.ROUND_START, code, maxAttempts,
+                roundSeed, (long) minRange << 32 | (maxRange & 0xffffffffL));
+        }
+    }
+
+    private void log(byte type, int code, int small, long a, long b) {
+        if (eventLog != null) {
+            eventLog.append(clock.nanoTime(), eventSessionId, type, code, small, a, b);
+        }
+    }
+
+    // Publishes every later round's outcome to the stream, which must share this session's clock
+    void streamTo(OutcomeStream stream) {
+        outcomeStream = stream;
+    }
+
+    private void publishOutcome(GuessOutcome outcome) {
+        if (outcomeStream != null) {
+            outcomeStream.publish(clock.nanoTime(), level, outcome, attempts);
+        }
+    }
+
+    // Copies the level and the round in progress into STATE_FIELDS ints for importState() on
+    // another node: level, level bounds and attempts, round bounds, target, attempts, power-ups,
+    // revealed digit, time limit, elapsed millis, round seed (high, low) and won/time-up flags.
+    // The guess history stays behind.
+    void exportState(int[] state) {
+        state[0] = level;
+        state[1] = baseMinRange;
+        state[2] = baseMaxRange;
+        state[3] = baseMaxAttempts;
+        state[4] = minRange;
+        state[5] = maxRange;
+        state[6] = maxAttempts;
+        state[7] = targetNumber;
+        state[8] = attempts;
+        state[9] = powerUps;
+        state[10] = revealedDigit;
+        state[11] = timeLimit;
+        state[12] = (int) Math.min(Integer.MAX_VALUE, getElapsedNanos() / 1_000_000);
+        state[13] = (int) (roundSeed >>> 32);
+        state[14] = (int) roundSeed;
+        state[15] = (gameWon ? 1 : 0) | (isTimeUp ? 2 : 0);
+    }
+
+    // Throws IllegalArgumentException unless the state is one exportState() could have written
+    static void checkState(int[] state) {
+        checkBounds(state[1], state[2], state[3]);
+        int minRange = state[4], maxRange = state[5], maxAttempts = state[6];
+        if (state[0] < 1 || minRange < state[1] || maxRange > state[2] || minRange > maxRange
+            || maxAttempts < state[3] || maxAttempts > state[3] + POWER_UPS_PER_ROUND
+            || state[7] < state[1] || state[7] > state[2] || state[8] < 0 || state[8] > maxAttempts
+            || state[9] < 0 || state[9] > POWER_UPS_PER_ROUND || state[10] != -1 && state[10] != lastDigit(state[7])
+            || state[11] < 1 || state[12] < 0) {
+            throw new IllegalArgumentException("Inconsistent session state");
+        }
+    }
+
+    // Continues an exported round with the same time left on this session's clock; see checkState()
+    void importState(int[] state) {
+        level = state[0];
+        baseMinRange = state[1];
+        baseMaxRange = state[2];
+        baseMaxAttempts = state[3];
+        minRange = state[4];
+        maxRange = state[5];
+        maxAttempts = state[6];
+        targetNumber = state[7];
+        attempts = state[8];
+        powerUps = state[9];
+        revealedDigit = state[10];
+        timeLimit = state[11];
+        startNanos = clock.nanoTime() - state[12] * 1_000_000L;
+        roundSeed = (long) state[13] << 32 | (state[14] & 0xffffffffL);
+        gameWon = (state[15] & 1) != 0;
+        isTimeUp = (state[15] & 2) != 0;
+        guessHistory.reset(maxAttempts + POWER_UPS_PER_ROUND, minRange, maxRange, targetNumber);
+        if (deadlineTimeout != null) {
+            if (gameWon || isTimeUp || attempts >= maxAttempts) {
+                deadlineWheel.cancel(deadlineTimeout);
+            } else {
+                deadlineWheel.schedule(deadlineTimeout, getDeadlineNanos());
+            }
+        }
+        if (eventLog != null) {
+            int resume = powerUps | (maxAttempts - baseMaxAttempts) << 2 | (revealedDigit >= 0 ? 1 << 4 : 0)
+                | (gameWon ? 1 << 5 : 0) | (isTimeUp ? 1 << 6 : 0);
+            eventLog.append(startNanos, eventSessionId, GameEventLog.ROUND_START, GameEventLog.IMPORTED, baseMaxAttempts,
+                roundSeed, (long) baseMinRange << 32 | (baseMaxRange & 0xffffffffL));
+            eventLog.append(startNanos, eventSessionId, GameEventLog.RESUME, resume, attempts,
+                (long) level << 32 | timeLimit, (long) minRange << 32 | (maxRange & 0xffffffffL));
+        }
+    }
+
+    // Runs onTimeUp on the wheel thread once each round's deadline passes unfinished.
+    // The wheel must share this session's clock.
+    void watchDeadline(TimingWheel wheel, Runnable onTimeUp) {
+        if (deadlineTimeout != null) {
+            deadlineWheel.cancel(deadlineTimeout);
+        }
+        deadlineWheel = wheel;
+        deadlineTimeout = new TimingWheel.Timeout(onTimeUp);
+        if (!gameWon && attempts < maxAttempts) {
+            wheel.schedule(deadlineTimeout, getDeadlineNanos());
+        }
+    }
+
+    private void stopTimer() {
+        if (deadlineTimeout != null) {
+            deadlineWheel.cancel(deadlineTimeout);
+        }
+    }
+
+    // Also puts the round's bounds back to the new level's, dropping power-up effects
+    public void increaseDifficulty() {
+        level++;
+        baseMaxRange *= 1.5; // Increase range by 50%; the double-to-int cast saturates at Integer.MAX_VALUE
+        timeLimit = Math.max(30, 60 - (level * 5)); // Decrease time limit by 5 seconds per level
+        baseMaxAttempts = Math.min(15, 10 + (level / 2)); // Increase max attempts every 2 levels
+        minRange = baseMinRange;
+        maxRange = baseMaxRange;
+        maxAttempts = baseMaxAttempts;
+        log(GameEventLog.LEVEL_UP, 0, level, maxRange, maxAttempts);
+    }
+
+    public String checkGuess(int guess) {
+        return evaluateGuess(guess).render(targetNumber, attempts);
+    }
+
+    // Same rules as checkGuess() without building the feedback text. Once the round is over a
+    // guess only repeats its outcome: it is not counted, logged or published again.
+    GuessOutcome evaluateGuess(int guess) {
+        long start = CHECK_GUESS_TIME.start();
+        if (isTimeUp()) {
+            CHECK_GUESS_TIME.stop(start);
+            return GuessOutcome.TIME_UP;
+        }
+        if (gameWon || attempts >= maxAttempts) {
+            CHECK_GUESS_TIME.stop(start);
+            return gameWon ? GuessOutcome.CORRECT : GuessOutcome.OUT_OF_ATTEMPTS;
+        }
+        
+        attempts++;
+        guessHistory.add(guess);
+        
+        GuessOutcome outcome;
+        if (guess == targetNumber) {
+            gameWon = true;
+            stopTimer();
+            WINS.increment();
+            outcome = GuessOutcome.CORRECT;
+            publishOutcome(outcome);
+        } else if (attempts >= maxAttempts) {
+            stopTimer();
+            LOSSES.increment();
+            outcome = GuessOutcome.OUT_OF_ATTEMPTS;
+            publishOutcome(outcome);
+        } else {
+            outcome = guess < targetNumber ? GuessOutcome.LOW : GuessOutcome.HIGH;
+        }
+        log(GameEventLog.GUESS, outcome.ordinal(), attempts, guess, 0);
+        CHECK_GUESS_TIME.stop(start);
+        return outcome;
+    }
+
+    public String usePowerUp() {
+        return describePowerUp(applyPowerUp());
+    }
+
+    // Feedback for a power-up code applyPowerUp() just returned
+    String describePowerUp(int powerUpCode) {
+        switch (powerUpCode) {
+            case POWER_UP_NONE:
+                return "❌ No Power-Ups Left!";
+            case POWER_UP_LAST_DIGIT:
+                return "💡 Power-Up: Last digit is " + revealedDigit;
+            case POWER_UP_RANGE:
+                return "🎯 Power-Up: Range reduced! New range: " + minRange + " - " + maxRange;
+            case POWER_UP_EXTRA_ATTEMPT:
+                return "⏳ Power-Up: Extra attempt granted!";
+            default:
+                return "❌ Power-Up failed!";
+        }
+    }
+
+    // Same rules as usePowerUp() without building the feedback text
+    int applyPowerUp() {
+        long start = POWER_UP_TIME.start();
+        if (powerUps <= 0) {
+            NO_POWER_UPS.increment();
+            POWER_UP_TIME.stop(start);
+            return POWER_UP_NONE;
+        }
+        powerUps--;
+        
+        // Random power-up effect, the n-th of the round drawn from the round seed
+        int powerUpType = (int) RngProvider.bounded(roundSeed + (long) (POWER_UPS_PER_ROUND - powerUps) * GOLDEN_GAMMA, 3);
+        switch (powerUpType) {
+            case POWER_UP_RANGE:
+                int rangeReduction = (int) (((long) maxRange - minRange) / 4);
+                maxRange -= rangeReduction;
+                minRange += rangeReduction;
+                break;
+            case POWER_UP_EXTRA_ATTEMPT:
+                maxAttempts++;
+                break;
+            default:
+                revealedDigit = lastDigit(targetNumber);
+                break;
+        }
+        log(GameEventLog.POWER_UP, powerUpType, powerUps, 0, 0);
+        POWER_UPS[powerUpType].increment();
+        POWER_UP_TIME.stop(start);
+        return powerUpType;
+    }
+
+    public boolean isGameWon() {
+        return gameWon;
+    }
+
+    // True once the round has been won, lost on attempts, or noticed to have run out of time.
+    // Unlike isTimeUp() it does not check the clock, so it never ends the round itself.
+    boolean isRoundOver() {
+        return gameWon || attempts >= maxAttempts || isTimeUp;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getPowerUps() {
+        return powerUps;
+    }
+
+    // Last digit of the target once the last-digit power-up has shown it this round, else -1
+    int getRevealedDigit() {
+        return revealedDigit;
+    }
+
+    long getRoundSeed() {
+        return roundSeed;
+    }
+
+    public int getTargetNumber() {
+        return targetNumber;
+    }
+
+    public long getElapsedTime() {
+        return (clock.nanoTime() - startNanos) / 1_000_000_000L;
+    }
+
+    long getElapsedNanos() {
+        return clock.nanoTime() - startNanos;
+    }
+
+    long getDeadlineNanos() {
+        return startNanos + timeLimit * 1_000_000_000L;
+    }
+
+    public int getTimeLimit() {
+        return timeLimit;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public boolean isTimeUp() {
+        if (!isTimeUp && !gameWon && attempts < maxAttempts && clock.nanoTime() - getDeadlineNanos() >= 0) {
+            isTimeUp = true;
+            stopTimer();
+            TIME_UPS.increment();
+            log(GameEventLog.TIME_UP, 0, attempts, 0, 0);
+            publishOutcome(GuessOutcome.TIME_UP);
+        }
+        return isTimeUp;
+    }
+
+    public int getMinRange() {
+        return minRange;
+    }
+
+    public int getMaxRange() {
+        return maxRange;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    // Size of the level's range before any range power-up, saturating at Integer.MAX_VALUE
+    int getLevelRange() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) baseMaxRange - baseMinRange + 1);
+    }
+
+    GuessHistory getGuessHistory() {
+        return guessHistory;
+    }
+
+    public int getRemainingAttempts() {
+        return Math.max(0, maxAttempts - attempts);
+    }
+}
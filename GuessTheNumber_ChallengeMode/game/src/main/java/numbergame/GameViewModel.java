@@ -0,0 +1,138 @@
+package numbergame;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// What EnhancedGameUI shows, kept apart from the Swing components. Setters may be called from
+// any thread and as often as games happen; a setter that changes nothing is ignored, and one
+// that does sets a dirty bit. The first dirty bit of a batch schedules a single EDT refresh a
+// frame later, which copies the model into a Frame under the lock and hands the view that copy
+// and the parts that changed, so setters on game threads never wait for Swing to paint. A feed
+// of thousands of games per second therefore costs at most one refresh per frame.
+final class GameViewModel {
+    static final int MESSAGE = 1;
+    static final int STATS = 1 << 1;
+    static final int TIME_LEFT = 1 << 2;
+    static final int PROGRESS = 1 << 3;
+    static final int ACHIEVEMENTS = 1 << 4;
+
+    private static final int FRAME_MILLIS = 16;
+
+    // What one refresh shows; newAchievements are those unlocked since the last refresh
+    record Frame(String message, int totalGames, int gamesWon, int bestStreak, long secondsLeft,
+                 int progress, int progressLevel, boolean progressShowsPercent, List<String> newAchievements) {
+    }
+
+    // Renders the dirty parts of a frame on the EDT, without the model's lock
+    interface View {
+        void render(Frame frame, int dirty);
+    }
+
+    private final View view;
+    private final Runnable scheduleFrame;
+    private int dirty;
+
+    private String message = "";
+    private int totalGames, gamesWon, bestStreak;
+    private long secondsLeft = -1;
+    private int progress = -1;
+    private int progressLevel;
+    private boolean progressShowsPercent;
+    private final BitSet shownAchievements = new BitSet();
+    private final List<String> newAchievements = new ArrayList<>();
+
+    GameViewModel(View view) {
+        this.view = view;
+        Timer frameTimer = new Timer(FRAME_MILLIS, _ -> flush());
+        frameTimer.setRepeats(false);
+        this.scheduleFrame = frameTimer::start;
+    }
+
+    // scheduleFrame must arrange one later call of flush(), e.g. a benchmark calling it directly
+    GameViewModel(View view, Runnable scheduleFrame) {
+        this.view = view;
+        this.scheduleFrame = scheduleFrame;
+    }
+
+    synchronized void setMessage(String message) {
+        if (!message.equals(this.message)) {
+            this.message = message;
+            markDirty(MESSAGE);
+        }
+    }
+
+    synchronized void setStats(PlayerStats stats) {
+        if (stats.getTotalGames() != totalGames || stats.getGamesWon() != gamesWon
+                || stats.getBestStreak() != bestStreak) {
+            totalGames = stats.getTotalGames();
+            gamesWon = stats.getGamesWon();
+            bestStreak = stats.getBestStreak();
+            markDirty(STATS);
+        }
+        if (stats.getAchievementCount() != shownAchievements.cardinality()) {
+            AchievementEngine engine = stats.getAchievementEngine();
+            for (int id = stats.nextAchievement(0); id >= 0; id = stats.nextAchievement(id + 1)) {
+                if (!shownAchievements.get(id)) {
+                    shownAchievements.set(id);
+                    newAchievements.add(engine.name(id));
+                }
+            }
+            markDirty(ACHIEVEMENTS);
+        }
+    }
+
+    synchronized void setSecondsLeft(long secondsLeft) {
+        secondsLeft = Math.max(0, secondsLeft);
+        if (secondsLeft != this.secondsLeft) {
+            this.secondsLeft = secondsLeft;
+            markDirty(TIME_LEFT);
+        }
+    }
+
+    // showPercent adds the value to the bar text, as the time-based progress does
+    synchronized void setProgress(int progress, int level, boolean showPercent) {
+        if (progress != this.progress || level != progressLevel || showPercent != progressShowsPercent) {
+            this.progress = progress;
+            this.progressLevel = level;
+            this.progressShowsPercent = showPercent;
+            markDirty(PROGRESS);
+        }
+    }
+
+    // Runs the pending refresh; called on the EDT by the frame timer
+    void flush() {
+        int changed;
+        Frame frame;
+        synchronized (this) {
+            changed = dirty;
+            if (changed == 0) {
+                return;
+            }
+            dirty = 0;
+            frame = frame(List.copyOf(newAchievements));
+            newAchievements.clear();
+        }
+        view.render(frame, changed);
+    }
+
+    // The current state, with no new achievements, e.g. to fill in a panel created late
+    synchronized Frame frame() {
+        return frame(List.of());
+    }
+
+    private Frame frame(List<String> achievements) {
+        return new Frame(message, totalGames, gamesWon, bestStreak, secondsLeft,
+            progress, progressLevel, progressShowsPercent, achievements);
+    }
+
+    private void markDirty(int bits) {
+        boolean idle = dirty == 0;
+        dirty |= bits;
+        if (idle) {
+            scheduleFrame.run();
+        }
+    }
+}
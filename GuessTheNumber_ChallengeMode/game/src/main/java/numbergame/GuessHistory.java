@@ -0,0 +1,138 @@
+package numbergame;
+
+// Guesses of the current round in an int ring buffer, plus running aggregates (bracket
+// around the target, binary-search efficiency, distance trend) that are kept up to date on
+// every add so reads are O(1). GameSession sizes the buffer to maxAttempts plus the extra
+// attempts power-ups can add, so a round's guesses never wrap. The buffer is reused across
+// rounds and only grows when the capacity does, up to MAX_CAPACITY; beyond that the oldest
+// guesses fall out.
+class GuessHistory {
+    static final int MAX_CAPACITY = GameSession.MAX_ATTEMPTS + GameSession.POWER_UPS_PER_ROUND;
+
+    private int[] ring = new int[0];
+    private int head;
+    private int size;
+    private int count;
+
+    private int target;
+    private long initialCandidates;
+    private int minGuess, maxGuess;
+    // In long: minRange - 1 and maxRange + 1 may fall outside int
+    private long lowBracket, highBracket;
+    private long firstDistance, lastDistance;
+
+    void reset(int capacity, int minRange, int maxRange, int target) {
+        if (ring.length < capacity && ring.length < MAX_CAPACITY) {
+            ring = new int[Math.min(capacity, MAX_CAPACITY)];
+        }
+        head = 0;
+        size = 0;
+        count = 0;
+        this.target = target;
+        initialCandidates = (long) maxRange - minRange + 1;
+        minGuess = Integer.MAX_VALUE;
+        maxGuess = Integer.MIN_VALUE;
+        lowBracket = (long) minRange - 1;
+        highBracket = (long) maxRange + 1;
+        firstDistance = 0;
+        lastDistance = 0;
+    }
+
+    void add(int guess) {
+        if (ring.length == 0) {
+            ring = new int[1];
+        }
+        ring[head] = guess;
+        head = head + 1 == ring.length ? 0 : head + 1;
+        if (size < ring.length) {
+            size++;
+        }
+        count++;
+
+        minGuess = Math.min(minGuess, guess);
+        maxGuess = Math.max(maxGuess, guess);
+        if (guess < target) {
+            lowBracket = Math.max(lowBracket, guess);
+        } else if (guess > target) {
+            highBracket = Math.min(highBracket, guess);
+        } else {
+            lowBracket = (long) guess - 1;
+            highBracket = (long) guess + 1;
+        }
+
+        // In long: the distance between two ints can exceed Integer.MAX_VALUE
+        lastDistance = Math.abs((long) guess - target);
+        if (count == 1) {
+            firstDistance = lastDistance;
+        }
+    }
+
+    // Number of guesses made this round, including any that fell out of the buffer
+    int count() {
+        return count;
+    }
+
+    // Number of guesses still held in the buffer
+    int size() {
+        return size;
+    }
+
+    // i-th oldest retained guess, 0 <= i < size()
+    int get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Guess " + i + " of " + size);
+        }
+        int start = head - size;
+        if (start < 0) {
+            start += ring.length;
+        }
+        int index = start + i;
+        return ring[index >= ring.length ? index - ring.length : index];
+    }
+
+    int last() {
+        return get(size - 1);
+    }
+
+    int getMinGuess() {
+        return minGuess;
+    }
+
+    int getMaxGuess() {
+        return maxGuess;
+    }
+
+    // Highest guess below the target, or minRange - 1 if none yet
+    long getLowBracket() {
+        return lowBracket;
+    }
+
+    // Lowest guess above the target, or maxRange + 1 if none yet
+    long getHighBracket() {
+        return highBracket;
+    }
+
+    // Numbers still consistent with the feedback so far
+    long getRemainingCandidates() {
+        return highBracket - lowBracket - 1;
+    }
+
+    // Bits of information gained per guess; perfect binary search scores 1.0
+    double getBinarySearchEfficiency() {
+        if (count == 0) {
+            return 0;
+        }
+        double bits = Math.log((double) initialCandidates / Math.max(1, getRemainingCandidates())) / Math.log(2);
+        return bits / count;
+    }
+
+    // Average reduction in distance to the target per guess (positive = closing in)
+    double getDistanceTrend() {
+        return count < 2 ? 0 : (double) (firstDistance - lastDistance) / (count - 1);
+    }
+
+    // Distance from the last guess to the target, 0 before the first guess
+    long getLastDistance() {
+        return lastDistance;
+    }
+}
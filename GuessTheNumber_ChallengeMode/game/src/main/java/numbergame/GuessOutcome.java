@@ -0,0 +1,54 @@
+package numbergame;
+
+// Result of a single guess. Feedback text is only built when a UI asks for it;
+// messages without numbers are cached and returned as-is.
+enum GuessOutcome {
+    LOW("📉 Too low!", null, null),
+    HIGH("📈 Too high!", null, null),
+    CORRECT("🎉 Correct! The number was ", ". Attempts: ", ""),
+    TIME_UP("⏰ Time's up! The number was: ", null, null),
+    OUT_OF_ATTEMPTS("❌ Game Over! The number was: ", null, null);
+
+    private static final int CACHED_TRIES = 64;
+
+    private final String head;
+    private final String attemptsPart;
+    private final String tail;
+    private final String[] triesLeftMessages = new String[CACHED_TRIES];
+
+    GuessOutcome(String head, String attemptsPart, String tail) {
+        this.head = head;
+        this.attemptsPart = attemptsPart;
+        this.tail = tail;
+    }
+
+    boolean isGameOver() {
+        return this != LOW && this != HIGH;
+    }
+
+    // Feedback as shown by GameSession.checkGuess()
+    String render(int targetNumber, int attempts) {
+        switch (this) {
+            case LOW:
+            case HIGH:
+                return head;
+            case CORRECT:
+                return head + targetNumber + attemptsPart + attempts + tail;
+            default:
+                return head + targetNumber;
+        }
+    }
+
+    // "Too low! Tries left: n" style hint, built once per count
+    String triesLeftMessage(int triesLeft) {
+        if (triesLeft < 0 || triesLeft >= CACHED_TRIES) {
+            return head + " Tries left: " + triesLeft;
+        }
+        String message = triesLeftMessages[triesLeft];
+        if (message == null) {
+            message = head + " Tries left: " + triesLeft;
+            triesLeftMessages[triesLeft] = message;
+        }
+        return message;
+    }
+}
@@ -0,0 +1,31 @@
+// Enhanced Guess the Number Game with Challenge Mode, Power-Ups, Analytics, and Customization
+// Features: 
+// 1. Challenge Mode - Progressive difficulty and timed rounds
+// 2. Power-Ups - Reveal digit, reduce range, extra attempts
+// 3. Advanced Analytics - Win/loss ratio, streaks, performance history
+// 4. Achievements & Rewards - Unlockable badges, in-game currency
+// 5. Visual & Audio Upgrades - Animated feedback, sound effects, themes
+
+package numbergame;
+
+import javax.swing.*;
+
+public class GuessTheNumberChallenge {
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+                SimpleGameUI ui = new SimpleGameUI();
+                if (UiResources.STARTUP_PROBE) {
+                    ui.probeFirstGuess();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(null, 
+                    "Error starting the game: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+}
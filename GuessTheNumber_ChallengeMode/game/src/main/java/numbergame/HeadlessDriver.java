@@ -0,0 +1,221 @@
+package numbergame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Headless simulation driver - plays batches of GameSession rounds on every core
+// and reports rounds/sec, along with how well the players searched: bits of information per
+// guess and distance to the target closed per guess, from each round's GuessHistory.
+// Players bisect, or follow OptimalSolver with "optimal".
+// With an event log directory every round is logged for GameLogReplayer. Metrics collected
+// at the -Dnumbergame.metrics level are printed at the end.
+// Usage: java numbergame.HeadlessDriver [seconds] [threads] [sessionsPerThread] [bisect|optimal] [eventLogDir]
+public class HeadlessDriver {
+    private static final int BATCH_ROUNDS = 1024;
+    private static final int MAX_LEVEL = 10;
+    private static final int MAX_ODDS_LEVEL = 24;
+    private static final long THINK_TIME_MILLIS = 2_000;
+
+    private final int threads;
+    private final int sessionsPerThread;
+    private final long seed;
+    private final boolean optimal;
+    private GameEventLog eventLog;
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder timeUps = new LongAdder();
+    private final DoubleAdder searchEfficiency = new DoubleAdder();
+    private final DoubleAdder distanceTrend = new DoubleAdder();
+    private volatile boolean running;
+
+    HeadlessDriver(int threads, int sessionsPerThread, long seed, boolean optimal) {
+        this.threads = threads;
+        this.sessionsPerThread = sessionsPerThread;
+        this.seed = seed;
+        this.optimal = optimal;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        boolean optimal = args.length > 3 && args[3].equals("optimal");
+
+        if (optimal) {
+            printOptimalOdds();
+        }
+        HeadlessDriver driver = new HeadlessDriver(threads, sessions, System.nanoTime(), optimal);
+        if (args.length > 4) {
+            try (GameEventLog log = GameEventLog.open(Path.of(args[4]))) {
+                driver.eventLog = log;
+                driver.run(seconds);
+            }
+            return;
+        }
+        driver.run(seconds);
+    }
+
+    // Win probability of optimal play at the start of each level, ignoring the time limit.
+    // Bisection is certain on the levels the driver plays, so the sweep goes on past MAX_LEVEL
+    // to the levels where the solver's power-up play matters.
+    private static void printOptimalOdds() {
+        OptimalSolver solver = new OptimalSolver();
+        GameSession session = new GameSession(1, 100, 10, new ManualClock(0), new SplittableRandom(0));
+        for (int level = 1; level <= MAX_ODDS_LEVEL; level++) {
+            int candidates = session.getMaxRange() - session.getMinRange() + 1;
+            if (OptimalSolver.isCertain(candidates, session.getMaxAttempts())) {
+                System.out.printf("Level %2d: %d-%d in %d attempts, bisection always wins%n",
+                    level, session.getMinRange(), session.getMaxRange(), session.getMaxAttempts());
+            } else {
+                long start = System.nanoTime();
+                double odds = solver.winProbability(candidates, session.getMaxAttempts(), session.getPowerUps(), false);
+                System.out.printf("Level %2d: %d-%d in %d attempts, optimal win %.2f%% vs %.2f%% with no power-ups"
+                        + " (solved in %.1fms, %,d states)%n",
+                    level, session.getMinRange(), session.getMaxRange(), session.getMaxAttempts(), odds * 100,
+                    solver.winProbability(candidates, session.getMaxAttempts(), 0, false) * 100,
+                    (System.nanoTime() - start) / 1e6, solver.size());
+            }
+            session.increaseDifficulty();
+        }
+    }
+
+    void run(int seconds) throws InterruptedException {
+        System.out.printf("Running %d threads x %d sessions for %ds%n", threads, sessionsPerThread, seconds);
+
+        MetricsRegistry.shared().gauge("sessions.live", () -> running ? (long) threads * sessionsPerThread : 0);
+        SplittableRandom root = new SplittableRandom(seed);
+        CountDownLatch done = new CountDownLatch(threads);
+        running = true;
+        for (int t = 0; t < threads; t++) {
+            Worker worker = new Worker(t, root.split(), done);
+            Thread thread = new Thread(worker, "headless-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long start = System.nanoTime();
+        long lastRounds = 0;
+        for (int s = 1; s <= seconds; s++) {
+            Thread.sleep(1000);
+            long total = rounds.sum();
+            System.out.printf("[%2ds] %,d rounds/sec%n", s, total - lastRounds);
+            lastRounds = total;
+        }
+        running = false;
+        done.await();
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long total = rounds.sum();
+        System.out.printf("Total: %,d rounds in %.2fs = %,.0f rounds/sec (wins %.1f%%, time-ups %.1f%%)%n",
+            total, elapsed, total / elapsed,
+            total == 0 ? 0 : wins.sum() * 100.0 / total,
+            total == 0 ? 0 : timeUps.sum() * 100.0 / total);
+        System.out.printf("Search: %.2f bits/guess, closing %.1f per guess%n",
+            total == 0 ? 0 : searchEfficiency.sum() / total,
+            total == 0 ? 0 : distanceTrend.sum() / total);
+        if (MetricsRegistry.COUNTING) {
+            try {
+                MetricsRegistry.shared().dump(System.out);
+            } catch (IOException e) {
+                throw new AssertionError(e); // System.out does not throw
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final SplittableRandom random;
+        private final CountDownLatch done;
+        private final ManualClock clock = new ManualClock(0);
+        private final GameSession[] sessions;
+        private final SolverBot bot = new SolverBot(new OptimalSolver());
+
+        Worker(int index, SplittableRandom random, CountDownLatch done) {
+            this.random = random;
+            this.done = done;
+            this.sessions = new GameSession[sessionsPerThread];
+            for (int i = 0; i < sessions.length; i++) {
+                sessions[i] = new GameSession(1, 100, 10, clock, random);
+                if (eventLog != null) {
+                    sessions[i].recordTo(eventLog, index * sessionsPerThread + i);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                int next = 0;
+                while (running) {
+                    int won = 0, timedOut = 0;
+                    double efficiency = 0, trend = 0;
+                    for (int r = 0; r < BATCH_ROUNDS; r++) {
+                        GameSession session = sessions[next];
+                        next = next + 1 == sessions.length ? 0 : next + 1;
+
+                        // Sessions share the simulated clock, so start each round fresh
+                        session.resetGame();
+                        GuessOutcome outcome = optimal ? playOptimal(session, clock, bot) : playBisection(session, clock);
+                        GuessHistory history = session.getGuessHistory();
+                        efficiency += history.getBinarySearchEfficiency();
+                        trend += history.getDistanceTrend();
+                        if (outcome == GuessOutcome.CORRECT) {
+                            won++;
+                            if (session.getLevel() < MAX_LEVEL) {
+                                session.increaseDifficulty();
+                            }
+                        } else if (outcome == GuessOutcome.TIME_UP) {
+                            timedOut++;
+                        }
+                    }
+                    rounds.add(BATCH_ROUNDS);
+                    wins.add(won);
+                    timeUps.add(timedOut);
+                    searchEfficiency.add(efficiency);
+                    distanceTrend.add(trend);
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    // Plays the round to its end following the bot; each guess takes THINK_TIME_MILLIS on the clock
+    static GuessOutcome playOptimal(GameSession session, ManualClock clock, SolverBot bot) {
+        bot.startRound(session.getMinRange(), session.getMaxRange(), session.getMaxAttempts(), session.getPowerUps());
+        while (true) {
+            int move = bot.nextMove();
+            if (move == SolverBot.USE_POWER_UP) {
+                bot.onPowerUp(session.applyPowerUp(), session.getRevealedDigit());
+                continue;
+            }
+            clock.advance(THINK_TIME_MILLIS);
+            GuessOutcome outcome = session.evaluateGuess(move);
+            if (outcome.isGameOver()) {
+                return outcome;
+            }
+            bot.onGuess(move, outcome);
+        }
+    }
+
+    // Bisection player over the bracket the round's history keeps; uses a power-up when down
+    // to the last attempt
+    static GuessOutcome playBisection(GameSession session, ManualClock clock) {
+        GuessHistory history = session.getGuessHistory();
+        while (true) {
+            if (session.getMaxAttempts() - session.getAttempts() == 1 && session.getPowerUps() > 0) {
+                session.applyPowerUp();
+            }
+            // Midpoint of lowBracket + 1 .. highBracket - 1, in long so it cannot overflow
+            int guess = (int) ((history.getLowBracket() + history.getHighBracket()) >> 1);
+            clock.advance(THINK_TIME_MILLIS);
+            GuessOutcome outcome = session.evaluateGuess(guess);
+            if (outcome.isGameOver()) {
+                return outcome;
+            }
+        }
+    }
+}
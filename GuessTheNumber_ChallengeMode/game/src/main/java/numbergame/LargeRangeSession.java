@@ -0,0 +1,282 @@
+package numbergame;
+
+import java.math.BigInteger;
+import java.util.random.RandomGenerator;
+
+// GameSession rules for ranges that do not fit an int. The range and target are longs, with
+// all width arithmetic done unsigned, so any min <= max is valid including the full long
+// range. When increaseDifficulty() would grow the range past Long.MAX_VALUE the session moves
+// to BigInteger bounds for good; even then a target that fits a long is kept as one, so
+// guesses stay allocation-free comparisons. Targets are unbiased: Lemire's multiply-shift
+// with rejection over the round seed's SplitMix64 stream for longs, bitwise rejection for
+// BigIntegers. The last digit is taken when the target is drawn and the range power-up is a
+// shift, so both power-ups cost the same at any size on the long path. As in GameSession,
+// power-up effects last one round: each round starts again from the level's range and attempts.
+final class LargeRangeSession {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final BigInteger TEN = BigInteger.TEN;
+
+    // The level's range; the range power-up only narrows the round's copy below
+    private long baseMin, baseMax;
+    private BigInteger bigBaseMin, bigBaseMax;
+    private long minRange, maxRange, targetNumber;
+    // Non-null once the range outgrew long; bigTarget only while the target itself does not fit
+    private BigInteger bigMin, bigMax, bigTarget;
+    private int targetLastDigit;
+    private int attempts, maxAttempts, baseMaxAttempts;
+    private int powerUps;
+    private int revealedDigit;
+    private int level;
+    private int timeLimit;
+    private boolean gameWon;
+    private boolean isTimeUp;
+    private long startNanos;
+    private long roundSeed;
+    private final GameClock clock;
+    private final RandomGenerator random;
+
+    LargeRangeSession(long minRange, long maxRange, int maxAttempts, GameClock clock, RandomGenerator random) {
+        if (maxRange < minRange) {
+            throw new IllegalArgumentException("Empty range " + minRange + " - " + maxRange);
+        }
+        this.baseMin = minRange;
+        this.baseMax = maxRange;
+        this.baseMaxAttempts = maxAttempts;
+        this.level = 1;
+        this.timeLimit = 60;
+        this.clock = clock;
+        this.random = random;
+        resetGame();
+    }
+
+    LargeRangeSession(BigInteger minRange, BigInteger maxRange, int maxAttempts, GameClock clock, RandomGenerator random) {
+        if (maxRange.compareTo(minRange) < 0) {
+            throw new IllegalArgumentException("Empty range " + minRange + " - " + maxRange);
+        }
+        if (minRange.bitLength() < 64 && maxRange.bitLength() < 64) {
+            this.baseMin = minRange.longValue();
+            this.baseMax = maxRange.longValue();
+        } else {
+            this.bigBaseMin = minRange;
+            this.bigBaseMax = maxRange;
+        }
+        this.baseMaxAttempts = maxAttempts;
+        this.level = 1;
+        this.timeLimit = 60;
+        this.clock = clock;
+        this.random = random;
+        resetGame();
+    }
+
+    void resetGame() {
+        startRound(random.nextLong());
+    }
+
+    // Starts a round whose target and power-ups follow from the seed
+    void startRound(long seed) {
+        roundSeed = seed;
+        minRange = baseMin;
+        maxRange = baseMax;
+        bigMin = bigBaseMin;
+        bigMax = bigBaseMax;
+        if (bigMin == null) {
+            long width = maxRange - minRange; // Unsigned; -1 is the full 2^64 range
+            targetNumber = minRange + (width == -1 ? GameSession.mix(seed + GOLDEN_GAMMA) : RngProvider.bounded(seed, width + 1));
+            bigTarget = null;
+            targetLastDigit = GameSession.lastDigit(targetNumber);
+        } else {
+            BigInteger target = bigMin.add(boundedBig(seed, bigMax.subtract(bigMin).add(BigInteger.ONE)));
+            targetLastDigit = target.remainder(TEN).abs().intValue();
+            if (target.bitLength() < 64) {
+                targetNumber = target.longValue();
+                bigTarget = null;
+            } else {
+                bigTarget = target;
+            }
+        }
+        attempts = 0;
+        maxAttempts = baseMaxAttempts;
+        gameWon = false;
+        powerUps = GameSession.POWER_UPS_PER_ROUND;
+        revealedDigit = -1;
+        startNanos = clock.nanoTime();
+        isTimeUp = false;
+    }
+
+    // Unbiased value in [0, bound) for bound > 0: draws bound.bitLength() bits until one is below it
+    static BigInteger boundedBig(long seed, BigInteger bound) {
+        int bits = bound.bitLength();
+        byte[] bytes = new byte[(bits + 7) / 8 + 1]; // Big-endian; the leading zero byte keeps it positive
+        int topMask = bits % 8 == 0 ? 0xff : (1 << bits % 8) - 1;
+        while (true) {
+            for (int i = bytes.length - 1; i > 0; i -= 8) {
+                long x = GameSession.mix(seed += GOLDEN_GAMMA);
+                for (int b = 0; b < 8 && i - b > 0; b++) {
+                    bytes[i - b] = (byte) (x >>> (8 * b));
+                }
+            }
+            bytes[1] &= (byte) topMask;
+            BigInteger value = new BigInteger(bytes);
+            if (value.compareTo(bound) < 0) {
+                return value;
+            }
+        }
+    }
+
+    // Same ladder as GameSession: the top of the range grows by half, overflowing into
+    // BigInteger. Takes effect from the next round, as do the level's attempts.
+    void increaseDifficulty() {
+        level++;
+        if (bigBaseMin == null) {
+            long grown = baseMax + baseMax / 2;
+            if ((baseMax > 0 && grown < baseMax) || (baseMax < 0 && grown > baseMax)) {
+                bigBaseMin = BigInteger.valueOf(baseMin);
+                bigBaseMax = BigInteger.valueOf(baseMax).add(BigInteger.valueOf(baseMax / 2));
+            } else {
+                baseMax = grown;
+            }
+        } else {
+            bigBaseMax = bigBaseMax.add(bigBaseMax.divide(BigInteger.TWO));
+        }
+        timeLimit = Math.max(30, 60 - (level * 5));
+        baseMaxAttempts = Math.min(15, 10 + (level / 2));
+    }
+
+    GuessOutcome evaluateGuess(long guess) {
+        if (isTimeUp()) {
+            return GuessOutcome.TIME_UP;
+        }
+        // A target that does not fit a long is beyond every long guess
+        return outcome(bigTarget == null ? Long.compare(guess, targetNumber) : -bigTarget.signum());
+    }
+
+    GuessOutcome evaluateGuess(BigInteger guess) {
+        if (isTimeUp()) {
+            return GuessOutcome.TIME_UP;
+        }
+        int comparison;
+        if (bigTarget != null) {
+            comparison = guess.compareTo(bigTarget);
+        } else if (guess.bitLength() < 64) {
+            comparison = Long.compare(guess.longValue(), targetNumber);
+        } else {
+            comparison = guess.signum();
+        }
+        return outcome(comparison);
+    }
+
+    // Once the round is over a guess only repeats its outcome and is not counted
+    private GuessOutcome outcome(int comparison) {
+        if (gameWon || attempts >= maxAttempts) {
+            return gameWon ? GuessOutcome.CORRECT : GuessOutcome.OUT_OF_ATTEMPTS;
+        }
+        attempts++;
+        if (comparison == 0) {
+            gameWon = true;
+            return GuessOutcome.CORRECT;
+        }
+        if (attempts >= maxAttempts) {
+            return GuessOutcome.OUT_OF_ATTEMPTS;
+        }
+        return comparison < 0 ? GuessOutcome.LOW : GuessOutcome.HIGH;
+    }
+
+    // Same power-ups and draw as GameSession.applyPowerUp(); returns its POWER_UP_ codes
+    int applyPowerUp() {
+        if (powerUps <= 0) return GameSession.POWER_UP_NONE;
+        powerUps--;
+
+        int powerUpType = (int) RngProvider.bounded(roundSeed + (long) (GameSession.POWER_UPS_PER_ROUND - powerUps) * GOLDEN_GAMMA, 3);
+        switch (powerUpType) {
+            case GameSession.POWER_UP_RANGE:
+                if (bigMin == null) {
+                    long quarter = (maxRange - minRange) >>> 2;
+                    maxRange -= quarter;
+                    minRange += quarter;
+                } else {
+                    BigInteger quarter = bigMax.subtract(bigMin).shiftRight(2);
+                    bigMax = bigMax.subtract(quarter);
+                    bigMin = bigMin.add(quarter);
+                }
+                break;
+            case GameSession.POWER_UP_EXTRA_ATTEMPT:
+                maxAttempts++;
+                break;
+            default:
+                revealedDigit = targetLastDigit;
+                break;
+        }
+        return powerUpType;
+    }
+
+    boolean isTimeUp() {
+        if (!isTimeUp && !gameWon && attempts < maxAttempts
+                && clock.nanoTime() - (startNanos + timeLimit * 1_000_000_000L) >= 0) {
+            isTimeUp = true;
+        }
+        return isTimeUp;
+    }
+
+    // True once the level's range no longer fits a long
+    boolean isBig() {
+        return bigBaseMin != null;
+    }
+
+    // The round's long bounds and target; throw ArithmeticException once they no longer fit
+    long getMinRange() {
+        return bigMin == null ? minRange : bigMin.longValueExact();
+    }
+
+    long getMaxRange() {
+        return bigMax == null ? maxRange : bigMax.longValueExact();
+    }
+
+    long getTargetNumber() {
+        return bigTarget == null ? targetNumber : bigTarget.longValueExact();
+    }
+
+    BigInteger getMinRangeBig() {
+        return bigMin == null ? BigInteger.valueOf(minRange) : bigMin;
+    }
+
+    BigInteger getMaxRangeBig() {
+        return bigMax == null ? BigInteger.valueOf(maxRange) : bigMax;
+    }
+
+    BigInteger getTargetBig() {
+        return bigTarget == null ? BigInteger.valueOf(targetNumber) : bigTarget;
+    }
+
+    boolean isGameWon() {
+        return gameWon;
+    }
+
+    int getAttempts() {
+        return attempts;
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    int getRemainingAttempts() {
+        return Math.max(0, maxAttempts - attempts);
+    }
+
+    int getPowerUps() {
+        return powerUps;
+    }
+
+    // Last digit of the target once the last-digit power-up has shown it this round, else -1
+    int getRevealedDigit() {
+        return revealedDigit;
+    }
+
+    int getLevel() {
+        return level;
+    }
+
+    int getTimeLimit() {
+        return timeLimit;
+    }
+}
@@ -0,0 +1,92 @@
+package numbergame;
+
+import java.util.Arrays;
+
+// Log-linear latency histogram in the style of HdrHistogram: 64 linear sub-buckets per
+// power of two, so any recorded value is reported within 1.6% of its true size.
+// Recording never allocates. Not thread-safe; merge per-thread copies with add().
+class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 6;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int SLOTS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final long[] counts = new long[SLOTS];
+    private long totalCount;
+    private long max;
+    private double sum;
+
+    static int indexOf(long value) {
+        if (value < 0) value = 0;
+        int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(value | (2 * SUB_BUCKETS - 1)) - SUB_BUCKET_BITS);
+        return (bucket << SUB_BUCKET_BITS) + (int) (value >>> bucket);
+    }
+
+    // Lowest value that maps to the given slot
+    static long valueOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int bucket = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (index - (bucket << SUB_BUCKET_BITS)) << bucket;
+    }
+
+    void record(long value) {
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    // Adds count values that all map to the slot, taking the slot's lowest value as their size
+    void recordSlot(int index, long count) {
+        long value = valueOf(index);
+        counts[index] += count;
+        totalCount += count;
+        sum += (double) value * count;
+        if (value > max) max = value;
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < SLOTS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    long getCount() {
+        return totalCount;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    // Value at the given percentile (0-100)
+    long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(valueOf(i), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,145 @@
+package numbergame;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+// Incremental rankings over PlayerStats. Each metric keeps its own RankedTree and lock,
+// so an update moves at most one entry per metric and queries never re-sort anything.
+// Scores are kept in arrays indexed by player id, so ids must be below MAX_PLAYERS.
+class Leaderboard {
+    static final int MAX_PLAYERS = 1 << 20;
+    private static final long NOT_RANKED = Long.MIN_VALUE;
+
+    enum Metric {
+        // Win rate in hundredths of a percent; more wins breaks ties
+        WIN_RATE {
+            long score(PlayerStats stats) {
+                return (Math.round(stats.getWinRate() * 100) << 32) | stats.getGamesWon();
+            }
+        },
+        BEST_STREAK {
+            long score(PlayerStats stats) {
+                return stats.getBestStreak();
+            }
+        },
+        // Fewer guesses per game ranks higher
+        AVERAGE_GUESSES {
+            long score(PlayerStats stats) {
+                return -Math.round(stats.getAverageGuesses() * 10_000);
+            }
+        };
+
+        abstract long score(PlayerStats stats);
+    }
+
+    private static final class Ranking {
+        final RankedTree list = new RankedTree();
+        final StampedLock lock = new StampedLock();
+        long[] scores = new long[0]; // current score by player id
+    }
+
+    private final Ranking[] rankings = new Ranking[Metric.values().length];
+
+    Leaderboard() {
+        for (int i = 0; i < rankings.length; i++) {
+            rankings[i] = new Ranking();
+        }
+    }
+
+    // Call after stats.updateStats(); players with no games are not ranked
+    void update(int playerId, PlayerStats stats) {
+        if (playerId < 0 || playerId >= MAX_PLAYERS) {
+            throw new IllegalArgumentException("Player id must be in [0, " + MAX_PLAYERS + "): " + playerId);
+        }
+        if (stats.getTotalGames() == 0) {
+            return;
+        }
+        for (Metric metric : Metric.values()) {
+            update(rankings[metric.ordinal()], playerId, metric.score(stats));
+        }
+    }
+
+    // Unranks the player, e.g. when their stats move to another node
+    void remove(int playerId) {
+        for (Ranking ranking : rankings) {
+            long stamp = ranking.lock.writeLock();
+            try {
+                if (playerId >= 0 && playerId < ranking.scores.length && ranking.scores[playerId] != NOT_RANKED) {
+                    ranking.list.remove(ranking.scores[playerId], playerId);
+                    ranking.scores[playerId] = NOT_RANKED;
+                }
+            } finally {
+                ranking.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private static void update(Ranking ranking, int playerId, long score) {
+        long stamp = ranking.lock.writeLock();
+        try {
+            if (playerId >= ranking.scores.length) {
+                int length = Math.max(playerId + 1, ranking.scores.length * 2);
+                int old = ranking.scores.length;
+                ranking.scores = Arrays.copyOf(ranking.scores, length);
+                Arrays.fill(ranking.scores, old, length, NOT_RANKED);
+            }
+            long previous = ranking.scores[playerId];
+            if (previous == score) {
+                return;
+            }
+            if (previous != NOT_RANKED) {
+                ranking.list.remove(previous, playerId);
+            }
+            ranking.list.insert(score, playerId);
+            ranking.scores[playerId] = score;
+        } finally {
+            ranking.lock.unlockWrite(stamp);
+        }
+    }
+
+    // 1-based rank of the player, or -1 if unranked
+    int rank(Metric metric, int playerId) {
+        Ranking ranking = rankings[metric.ordinal()];
+        long stamp = ranking.lock.readLock();
+        try {
+            if (playerId < 0 || playerId >= ranking.scores.length || ranking.scores[playerId] == NOT_RANKED) {
+                return -1;
+            }
+            return ranking.list.rank(ranking.scores[playerId], playerId);
+        } finally {
+            ranking.lock.unlockRead(stamp);
+        }
+    }
+
+    // Fills out with the best players, best first; returns how many were written
+    int top(Metric metric, int k, int[] out) {
+        Ranking ranking = rankings[metric.ordinal()];
+        long stamp = ranking.lock.readLock();
+        try {
+            return ranking.list.top(k, out);
+        } finally {
+            ranking.lock.unlockRead(stamp);
+        }
+    }
+
+    // Player at a 1-based rank, or -1
+    int playerAt(Metric metric, int rank) {
+        Ranking ranking = rankings[metric.ordinal()];
+        long stamp = ranking.lock.readLock();
+        try {
+            return ranking.list.playerAt(rank);
+        } finally {
+            ranking.lock.unlockRead(stamp);
+        }
+    }
+
+    int size(Metric metric) {
+        Ranking ranking = rankings[metric.ordinal()];
+        long stamp = ranking.lock.readLock();
+        try {
+            return ranking.list.size();
+        } finally {
+            ranking.lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package numbergame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Load generator for SessionServer: spreads bisection players over a set of connections
+// and reports GUESS throughput and p50/p99 latency. Starts an in-process server when no
+// port is given, and then prints its live outcome windows.
+// Usage: java numbergame.LoadGenerator [sessions] [connections] [seconds] [port]
+public class LoadGenerator {
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+
+    private final int sessions;
+    private final int connections;
+    private final int seconds;
+    private final int port;
+    private volatile boolean running;
+
+    LoadGenerator(int sessions, int connections, int seconds, int port) {
+        this.sessions = sessions;
+        this.connections = connections;
+        this.seconds = seconds;
+        this.port = port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        if (args.length > 3) {
+            new LoadGenerator(sessions, connections, seconds, Integer.parseInt(args[3])).run();
+            return;
+        }
+        OutcomeStream outcomes = OutcomeStream.shared();
+        try (SessionServer server = new SessionServer(0, new SessionRegistry(GameClock.SYSTEM, null, outcomes))) {
+            server.start();
+            new LoadGenerator(sessions, connections, seconds, server.getPort()).run();
+        }
+        outcomes.dump(System.out);
+        System.out.printf("Outcomes dropped: %,d%n", outcomes.getDropped());
+    }
+
+    LatencyHistogram run() throws Exception {
+        System.out.printf("%,d sessions over %d connections for %ds (+2s warm-up)%n", sessions, connections, seconds);
+        running = true;
+        List<Future<LatencyHistogram>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                int first = (int) ((long) sessions * c / connections);
+                int last = (int) ((long) sessions * (c + 1) / connections);
+                results.add(executor.submit(() -> drive(first, last, start + WARMUP_NANOS)));
+            }
+            Thread.sleep(WARMUP_NANOS / 1_000_000 + seconds * 1000L);
+            running = false;
+
+            LatencyHistogram total = new LatencyHistogram();
+            for (Future<LatencyHistogram> result : results) {
+                total.add(result.get());
+            }
+            report(total);
+            return total;
+        }
+    }
+
+    private void report(LatencyHistogram latency) {
+        System.out.printf("Guesses: %,d (%,.0f/sec)%n", latency.getCount(), latency.getCount() / (double) seconds);
+        System.out.printf("Latency us: p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f  mean %.1f%n",
+            latency.getValueAtPercentile(50) / 1e3,
+            latency.getValueAtPercentile(90) / 1e3,
+            latency.getValueAtPercentile(99) / 1e3,
+            latency.getValueAtPercentile(99.9) / 1e3,
+            latency.getMax() / 1e3,
+            latency.getMean() / 1e3);
+    }
+
+    // Plays players [first, last) over one connection until stopped
+    private LatencyHistogram drive(int first, int last, long recordFrom) throws IOException {
+        LatencyHistogram latency = new LatencyHistogram();
+        int players = last - first;
+        if (players == 0) {
+            return latency;
+        }
+        int[] low = new int[players];
+        int[] high = new int[players];
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            SessionProtocol.LineWriter out = new SessionProtocol.LineWriter(new BufferedOutputStream(socket.getOutputStream()));
+            SessionProtocol.LineReader in = new SessionProtocol.LineReader(new BufferedInputStream(socket.getInputStream()));
+
+            for (int p = 0; p < players; p++) {
+                out.word(SessionProtocol.NEW).number(first + p).endLine();
+                out.flush();
+                readRange(in, low, high, p);
+            }
+
+            int p = 0;
+            while (running) {
+                int guess = (low[p] + high[p]) >>> 1;
+                long sent = System.nanoTime();
+                out.word(SessionProtocol.GUESS).number(first + p).number(guess).endLine();
+                out.flush();
+                if (!in.next()) {
+                    break;
+                }
+                long now = System.nanoTime();
+                if (now >= recordFrom) {
+                    latency.record(now - sent);
+                }
+
+                if (in.tokenEquals(0, SessionProtocol.OUTCOMES[GuessOutcome.LOW.ordinal()])) {
+                    low[p] = guess + 1;
+                } else if (in.tokenEquals(0, SessionProtocol.OUTCOMES[GuessOutcome.HIGH.ordinal()])) {
+                    high[p] = guess - 1;
+                } else {
+                    out.word(SessionProtocol.RESET).number(first + p).endLine();
+                    out.flush();
+                    readRange(in, low, high, p);
+                }
+                p = p + 1 == players ? 0 : p + 1;
+            }
+            out.word(SessionProtocol.QUIT).endLine();
+            out.flush();
+        }
+        return latency;
+    }
+
+    private static void readRange(SessionProtocol.LineReader in, int[] low, int[] high, int p) throws IOException {
+        if (!in.next() || !in.tokenEquals(0, SessionProtocol.OK)) {
+            throw new IOException("Unexpected reply to NEW/RESET");
+        }
+        low[p] = in.intToken(1);
+        high[p] = in.intToken(2);
+    }
+}
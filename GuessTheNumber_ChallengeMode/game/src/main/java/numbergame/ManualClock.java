@@ -0,0 +1,23 @@
+package numbergame;
+
+// Clock that only moves when told to; used by simulations and replays
+class ManualClock implements GameClock {
+    private long now;
+
+    ManualClock(long startNanos) {
+        this.now = startNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    void advance(long millis) {
+        now += millis * 1_000_000L;
+    }
+
+    void set(long nanos) {
+        now = nanos;
+    }
+}
@@ -0,0 +1,166 @@
+package numbergame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Process-wide counters, gauges and latency timers. The level is fixed at startup with
+// -Dnumbergame.metrics=off|counters|full (default counters): off records nothing, counters
+// only bumps LongAdders, full also times calls into log-linear histograms laid out like
+// LatencyHistogram. The level is a static final, so disabled recording compiles away, and
+// recording never allocates or locks. With -Dnumbergame.metrics.dump=<file> the registry is
+// rewritten to that file as text every numbergame.metrics.interval seconds (default 10).
+final class MetricsRegistry {
+    enum Level { OFF, COUNTERS, FULL }
+
+    static final Level LEVEL = Level.valueOf(System.getProperty("numbergame.metrics", "counters").toUpperCase());
+    static final boolean COUNTING = LEVEL != Level.OFF;
+    static final boolean TIMING = LEVEL == Level.FULL;
+
+    private static MetricsRegistry shared;
+
+    static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        void increment() {
+            if (COUNTING) {
+                count.increment();
+            }
+        }
+
+        void add(long n) {
+            if (COUNTING) {
+                count.add(n);
+            }
+        }
+
+        long get() {
+            return count.sum();
+        }
+    }
+
+    // Concurrent latency histogram in nanoseconds; percentiles come from a LatencyHistogram copy
+    static final class Timer {
+        private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.SLOTS);
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        // Start time to hand to stop(), or 0 when timing is off
+        long start() {
+            return TIMING ? System.nanoTime() : 0;
+        }
+
+        void stop(long startNanos) {
+            if (TIMING) {
+                record(System.nanoTime() - startNanos);
+            }
+        }
+
+        void record(long nanos) {
+            counts.getAndIncrement(LatencyHistogram.indexOf(nanos));
+            totalNanos.add(nanos);
+            long current;
+            while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        LatencyHistogram snapshot() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int i = 0; i < LatencyHistogram.SLOTS; i++) {
+                long count = counts.get(i);
+                if (count > 0) {
+                    histogram.recordSlot(i, count);
+                }
+            }
+            return histogram;
+        }
+    }
+
+    private final Map<String, Object> metrics = new LinkedHashMap<>();
+
+    static synchronized MetricsRegistry shared() {
+        if (shared == null) {
+            shared = new MetricsRegistry();
+            String dump = System.getProperty("numbergame.metrics.dump");
+            if (dump != null) {
+                shared.startDumping(Path.of(dump), Long.getLong("numbergame.metrics.interval", 10));
+            }
+        }
+        return shared;
+    }
+
+    synchronized Counter counter(String name) {
+        return (Counter) metrics.computeIfAbsent(name, _ -> new Counter());
+    }
+
+    synchronized Timer timer(String name) {
+        return (Timer) metrics.computeIfAbsent(name, _ -> new Timer());
+    }
+
+    // Registers or replaces a gauge; it is only sampled when the registry is dumped
+    synchronized void gauge(String name, LongSupplier value) {
+        metrics.put(name, value);
+    }
+
+    // One line per metric, in registration order
+    synchronized void dump(Appendable out) throws IOException {
+        out.append("# numbergame metrics at ").append(Instant.now().toString())
+            .append(", level ").append(LEVEL.name().toLowerCase()).append('\n');
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            String name = entry.getKey();
+            switch (entry.getValue()) {
+                case Counter counter -> out.append("counter ").append(name).append(' ')
+                    .append(Long.toString(counter.get())).append('\n');
+                case LongSupplier gauge -> out.append("gauge ").append(name).append(' ')
+                    .append(Long.toString(gauge.getAsLong())).append('\n');
+                case Timer timer -> {
+                    if (!TIMING) {
+                        continue;
+                    }
+                    LatencyHistogram h = timer.snapshot();
+                    long count = h.getCount();
+                    out.append(String.format("timer %s count=%d mean=%.0fns p50=%dns p99=%dns p99.9=%dns max=%dns%n",
+                        name, count, count == 0 ? 0.0 : (double) timer.totalNanos.sum() / count,
+                        h.getValueAtPercentile(50), h.getValueAtPercentile(99),
+                        h.getValueAtPercentile(99.9), timer.max.get()));
+                }
+                default -> throw new IllegalStateException("Unknown metric " + name);
+            }
+        }
+    }
+
+    // Rewrites the file every intervalSeconds from a daemon thread; readers never see a partial dump
+    void startDumping(Path file, long intervalSeconds) {
+        Thread dumper = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(intervalSeconds * 1000);
+                    writeTo(file);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Could not write metrics: " + e.getMessage());
+                }
+            }
+        }, "metrics-dump");
+        dumper.setDaemon(true);
+        dumper.start();
+    }
+
+    void writeTo(Path file) throws IOException {
+        StringBuilder text = new StringBuilder();
+        dump(text);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, text);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
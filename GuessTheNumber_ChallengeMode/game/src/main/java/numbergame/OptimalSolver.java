@@ -0,0 +1,175 @@
+package numbergame;
+
+import java.util.Arrays;
+
+// Win-maximizing policy for the GameSession ruleset, memoized per state.
+//
+// A state is what the player knows: n equally likely candidates, k guesses left, p power-ups
+// left, and whether the last digit is known. Candidates are a contiguous interval until the
+// digit is known and every 10th number of one after, so n alone fixes the odds. Guessing the
+// candidate with a below it splits the state into (a, k-1) and (n-1-a, k-1). A power-up is one
+// of three equally likely effects:
+//   last digit     - keeps the class of the target mod 10: n = 10q + r has r classes of q + 1
+//   range          - the target is not moved into the reported range, so nothing is learned
+//   extra attempt  - k + 1
+// With no power-ups left the classic bound holds: k guesses find at most 2^k - 1 candidates.
+//
+// Only attempts are modelled, not the clock: the time limit is assumed never to run out first.
+// Where bisection is certain, n <= 2^k - 1, it is already optimal and the solver answers without
+// searching or caching anything. With the default rules that holds up to level 15, so the
+// solver only changes play on larger ranges or with fewer attempts than the levels give.
+//
+// Every split is tried for up to EXACT_SPLIT_LIMIT candidates; larger states try a window of
+// splits around the midpoint that covers every residue mod 10. Results stay cached, so the
+// wider ranges of later levels reuse the smaller states solved before. Not thread-safe.
+final class OptimalSolver {
+    // bestMove() result meaning "use a power-up now"
+    static final int USE_POWER_UP = -1;
+
+    private static final int EXACT_SPLIT_LIMIT = 256;
+    private static final int SPLIT_WINDOW = 5;
+    private static final int MAX_ATTEMPTS = 63;
+    private static final int MAX_POWER_UPS = 15;
+    private static final double EPSILON = 1e-12;
+
+    private long[] keys = new long[1024];
+    private double[] values = new double[1024];
+    private int[] moves = new int[1024];
+    private int size;
+
+    OptimalSolver() {
+        Arrays.fill(keys, -1);
+    }
+
+    // Probability that optimal play wins from the state
+    double winProbability(int candidates, int attemptsLeft, int powerUps, boolean digitKnown) {
+        if (candidates <= 0 || attemptsLeft <= 0) {
+            return 0;
+        }
+        if (powerUps == 0 || isCertain(candidates, attemptsLeft)) {
+            return noPowerUpOdds(candidates, attemptsLeft);
+        }
+        int slot = solve(candidates, Math.min(attemptsLeft, MAX_ATTEMPTS), Math.min(powerUps, MAX_POWER_UPS), digitKnown);
+        return values[slot];
+    }
+
+    // USE_POWER_UP, or how many candidates lie below the one to guess
+    int bestMove(int candidates, int attemptsLeft, int powerUps, boolean digitKnown) {
+        if (candidates <= 0 || attemptsLeft <= 0 || powerUps == 0 || isCertain(candidates, attemptsLeft)) {
+            return Math.max(0, (candidates - 1) / 2);
+        }
+        int slot = solve(candidates, Math.min(attemptsLeft, MAX_ATTEMPTS), Math.min(powerUps, MAX_POWER_UPS), digitKnown);
+        return moves[slot];
+    }
+
+    // Number of memoized states
+    int size() {
+        return size;
+    }
+
+    // Whether bisection alone wins with k attempts whatever the target
+    static boolean isCertain(int n, int k) {
+        return k >= 31 || n <= (1 << k) - 1;
+    }
+
+    private static double noPowerUpOdds(int n, int k) {
+        return isCertain(n, k) ? 1 : ((1 << k) - 1) / (double) n;
+    }
+
+    // Value of a state reached during the search
+    private double value(int n, int k, int p, boolean digitKnown) {
+        if (n <= 0 || k <= 0) {
+            return 0;
+        }
+        if (p == 0 || isCertain(n, k)) {
+            return noPowerUpOdds(n, k);
+        }
+        int slot = solve(n, Math.min(k, MAX_ATTEMPTS), p, digitKnown);
+        return values[slot];
+    }
+
+    // Table slot holding the solved state
+    private int solve(int n, int k, int p, boolean digitKnown) {
+        long key = key(n, k, p, digitKnown);
+        int slot = find(key);
+        if (keys[slot] == key) {
+            return slot;
+        }
+
+        double powerUp;
+        if (digitKnown) {
+            // Only the extra attempt helps once the digit is known
+            powerUp = (2 * value(n, k, p - 1, true) + value(n, k + 1, p - 1, true)) / 3;
+        } else {
+            int q = n / 10, r = n % 10;
+            double digit = (r * (q + 1) * value(q + 1, k, p - 1, true)
+                + (10 - r) * q * value(q, k, p - 1, true)) / n;
+            powerUp = (digit + value(n, k, p - 1, false) + value(n, k + 1, p - 1, false)) / 3;
+        }
+
+        int from = 0, to = n - 1;
+        if (n > EXACT_SPLIT_LIMIT) {
+            from = (n - 1) / 2 - SPLIT_WINDOW;
+            to = (n - 1) / 2 + SPLIT_WINDOW;
+        }
+        double best = -1;
+        int bestSplit = (n - 1) / 2;
+        for (int a = from; a <= to; a++) {
+            int b = n - 1 - a;
+            double guess = (1 + a * value(a, k - 1, p, digitKnown) + b * value(b, k - 1, p, digitKnown)) / n;
+            if (guess > best + EPSILON) {
+                best = guess;
+                bestSplit = a;
+            }
+        }
+
+        int move = bestSplit;
+        if (powerUp > best + EPSILON) {
+            best = powerUp;
+            move = USE_POWER_UP;
+        }
+        // Solving children may have grown the table
+        slot = find(key);
+        keys[slot] = key;
+        values[slot] = best;
+        moves[slot] = move;
+        if (++size * 2 > keys.length) {
+            grow();
+            slot = find(key);
+        }
+        return slot;
+    }
+
+    private static long key(int n, int k, int p, boolean digitKnown) {
+        return (long) n << 11 | (long) k << 5 | (long) p << 1 | (digitKnown ? 1 : 0);
+    }
+
+    // Slot of the key, or the empty slot where it belongs
+    private int find(long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ hash >>> 32) & mask;
+        while (keys[slot] != -1 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        int[] oldMoves = moves;
+        keys = new long[oldKeys.length * 2];
+        values = new double[keys.length];
+        moves = new int[keys.length];
+        Arrays.fill(keys, -1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != -1) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                moves[slot] = oldMoves[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package numbergame;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Live windowed aggregates of finished rounds for dashboards. Game threads hand each outcome
+// to an EventRing with tryPublish, so they never wait on the stream: when the ring is full the
+// outcome is dropped and counted instead. One daemon thread drains the ring and folds every
+// outcome into each Span as it arrives. A span is a circle of 60 buckets; the sliding
+// aggregate is kept as a running total that a bucket is subtracted from when it expires, and
+// the tumbling aggregate is the last complete span-long period. Per level (levels from
+// MAX_LEVEL up share a slot, slot 0 is all levels) a bucket holds games, wins, time-ups,
+// the attempts sum and an attempts histogram, so memory is fixed at about 1.7 MB whatever
+// the game rate. Sessions must publish clock.nanoTime() of the stream's clock.
+final class OutcomeStream implements AutoCloseable {
+    static final int MAX_LEVEL = 32;
+    // Attempts from ATTEMPT_SLOTS - 1 up share the last histogram slot
+    static final int ATTEMPT_SLOTS = 32;
+
+    private static final int GAMES = 0;
+    private static final int WINS = 1;
+    private static final int TIME_UPS = 2;
+    private static final int ATTEMPTS_SUM = 3;
+    private static final int HISTOGRAM = 4;
+    private static final int STRIDE = HISTOGRAM + ATTEMPT_SLOTS;
+    private static final int BUCKET_SIZE = (MAX_LEVEL + 1) * STRIDE;
+    private static final int BUCKETS = 60;
+    private static final int BATCH = 1024;
+
+    private static OutcomeStream shared;
+
+    enum Span {
+        MINUTE("1m", 1_000_000_000L),
+        FIVE_MINUTES("5m", 5_000_000_000L),
+        HOUR("1h", 60_000_000_000L);
+
+        final String label;
+        final long bucketNanos;
+
+        Span(String label, long bucketNanos) {
+            this.label = label;
+            this.bucketNanos = bucketNanos;
+        }
+    }
+
+    // Copy of one span's totals; level 0 is every level together
+    record Aggregate(Span span, long[] counts) {
+        long games(int level) {
+            return counts[level * STRIDE + GAMES];
+        }
+
+        long wins(int level) {
+            return counts[level * STRIDE + WINS];
+        }
+
+        long timeUps(int level) {
+            return counts[level * STRIDE + TIME_UPS];
+        }
+
+        double winRate(int level) {
+            long games = games(level);
+            return games == 0 ? 0 : (double) wins(level) / games;
+        }
+
+        double meanAttempts(int level) {
+            long games = games(level);
+            return games == 0 ? 0 : (double) counts[level * STRIDE + ATTEMPTS_SUM] / games;
+        }
+
+        // Fewest attempts that at least percentile% of the level's games took, or 0 without games
+        int attemptsPercentile(int level, double percentile) {
+            long games = games(level);
+            if (games == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(games * percentile / 100));
+            long seen = 0;
+            for (int a = 0; a < ATTEMPT_SLOTS; a++) {
+                seen += counts[level * STRIDE + HISTOGRAM + a];
+                if (seen >= rank) {
+                    return a;
+                }
+            }
+            return ATTEMPT_SLOTS - 1;
+        }
+    }
+
+    // One span's buckets and totals, owned by whoever holds the stream's monitor
+    private static final class Window {
+        final Span span;
+        final long[] buckets = new long[BUCKETS * BUCKET_SIZE];
+        final long[] sliding = new long[BUCKET_SIZE];
+        long[] tumbling = new long[BUCKET_SIZE];
+        long[] lastTumbling = new long[BUCKET_SIZE];
+        long currentBucket = Long.MIN_VALUE;
+
+        Window(Span span) {
+            this.span = span;
+        }
+
+        void add(long nanos, int level, int outcome, int attempts) {
+            long bucket = Math.floorDiv(nanos, span.bucketNanos);
+            advance(bucket);
+            if (bucket <= currentBucket - BUCKETS) {
+                return; // Older than the span
+            }
+            int base = (int) Math.floorMod(bucket, (long) BUCKETS) * BUCKET_SIZE;
+            boolean thisPeriod = Math.floorDiv(bucket, BUCKETS) == Math.floorDiv(currentBucket, BUCKETS);
+            count(base, 0, thisPeriod, outcome, attempts);
+            if (level > 0) {
+                count(base, level * STRIDE, thisPeriod, outcome, attempts);
+            }
+        }
+
+        private void count(int base, int offset, boolean thisPeriod, int outcome, int attempts) {
+            count(buckets, base + offset, outcome, attempts);
+            count(sliding, offset, outcome, attempts);
+            if (thisPeriod) {
+                count(tumbling, offset, outcome, attempts);
+            }
+        }
+
+        private static void count(long[] counts, int offset, int outcome, int attempts) {
+            counts[offset + GAMES]++;
+            if (outcome == GuessOutcome.CORRECT.ordinal()) {
+                counts[offset + WINS]++;
+            } else if (outcome == GuessOutcome.TIME_UP.ordinal()) {
+                counts[offset + TIME_UPS]++;
+            }
+            counts[offset + ATTEMPTS_SUM] += attempts;
+            counts[offset + HISTOGRAM + Math.min(attempts, ATTEMPT_SLOTS - 1)]++;
+        }
+
+        // Moves the window's end to the bucket, expiring the buckets it passes
+        void advance(long bucket) {
+            if (currentBucket == Long.MIN_VALUE) {
+                currentBucket = bucket;
+                return;
+            }
+            if (bucket <= currentBucket) {
+                return;
+            }
+            long period = Math.floorDiv(bucket, BUCKETS);
+            long currentPeriod = Math.floorDiv(currentBucket, BUCKETS);
+            if (period != currentPeriod) {
+                long[] completed = tumbling;
+                tumbling = lastTumbling;
+                lastTumbling = completed;
+                Arrays.fill(tumbling, 0);
+                if (period != currentPeriod + 1) {
+                    Arrays.fill(lastTumbling, 0); // A whole period passed without games
+                }
+            }
+            long steps = Math.min(bucket - currentBucket, BUCKETS);
+            for (long b = bucket - steps + 1; b <= bucket; b++) {
+                int base = (int) Math.floorMod(b, (long) BUCKETS) * BUCKET_SIZE;
+                for (int i = 0; i < BUCKET_SIZE; i++) {
+                    sliding[i] -= buckets[base + i];
+                    buckets[base + i] = 0;
+                }
+            }
+            currentBucket = bucket;
+        }
+    }
+
+    private final GameClock clock;
+    private final EventRing ring;
+    private final Window[] windows = new Window[Span.values().length];
+    private final EventRing.Handler folder = this::fold;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    OutcomeStream(GameClock clock, int ringCapacity) {
+        this.clock = clock;
+        this.ring = new EventRing(ringCapacity);
+        for (Span span : Span.values()) {
+            windows[span.ordinal()] = new Window(span);
+        }
+        consumer = new Thread(this::run, "outcome-stream");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    // Stream on the system clock; its drops, backlog and 1m/5m/1h sliding totals are metrics gauges
+    static synchronized OutcomeStream shared() {
+        if (shared == null) {
+            shared = new OutcomeStream(GameClock.SYSTEM, 1 << 14);
+            MetricsRegistry registry = MetricsRegistry.shared();
+            registry.gauge("outcomes.dropped", shared::getDropped);
+            registry.gauge("outcomes.backlog", shared.ring::size);
+            for (Span span : Span.values()) {
+                String prefix = "outcomes." + span.label + ".";
+                registry.gauge(prefix + "games", () -> shared.sliding(span).games(0));
+                registry.gauge(prefix + "winPermille", () -> (long) (shared.sliding(span).winRate(0) * 1000));
+                registry.gauge(prefix + "timeUps", () -> shared.sliding(span).timeUps(0));
+                registry.gauge(prefix + "p90Attempts", () -> shared.sliding(span).attemptsPercentile(0, 90));
+            }
+        }
+        return shared;
+    }
+
+    // Called by game threads when a round ends; never blocks, false if the outcome was dropped
+    boolean publish(long nanos, int level, GuessOutcome outcome, int attempts) {
+        if (ring.tryPublish(nanos, Math.min(Math.max(level, 0), MAX_LEVEL), outcome.ordinal(), attempts)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    // Outcomes in the span ending now
+    synchronized Aggregate sliding(Span span) {
+        Window window = advanced(span);
+        return new Aggregate(span, window.sliding.clone());
+    }
+
+    // Outcomes in the last complete span-long period
+    synchronized Aggregate tumbling(Span span) {
+        Window window = advanced(span);
+        return new Aggregate(span, window.lastTumbling.clone());
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    // Published outcomes not yet folded into the windows
+    long getBacklog() {
+        return ring.size();
+    }
+
+    // Text view of the sliding spans for levels that have games
+    void dump(Appendable out) throws IOException {
+        for (Span span : Span.values()) {
+            Aggregate aggregate = sliding(span);
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                if (aggregate.games(level) > 0) {
+                    out.append(String.format("%s level %s games=%d win=%.1f%% timeUps=%d attempts mean=%.2f p50=%d p90=%d%n",
+                        span.label, level == 0 ? "all" : Integer.toString(level), aggregate.games(level),
+                        aggregate.winRate(level) * 100, aggregate.timeUps(level), aggregate.meanAttempts(level),
+                        aggregate.attemptsPercentile(level, 50), aggregate.attemptsPercentile(level, 90)));
+                }
+            }
+        }
+    }
+
+    // Folds everything published so far and stops the consumer
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Window advanced(Span span) {
+        Window window = windows[span.ordinal()];
+        window.advance(Math.floorDiv(clock.nanoTime(), span.bucketNanos));
+        return window;
+    }
+
+    private void run() {
+        while (true) {
+            boolean stopping = !running;
+            int drained;
+            synchronized (this) {
+                drained = ring.drain(folder, BATCH);
+            }
+            if (drained == 0) {
+                if (stopping) {
+                    return;
+                }
+                ring.await();
+            }
+        }
+    }
+
+    private void fold(long nanos, long level, long outcome, long attempts) {
+        for (Window window : windows) {
+            window.add(nanos, (int) level, (int) outcome, (int) attempts);
+        }
+    }
+}
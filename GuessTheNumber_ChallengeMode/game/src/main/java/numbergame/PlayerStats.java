@@ -0,0 +1,200 @@
+package numbergame;
+
+import java.util.*;
+
+class PlayerStats {
+    private final AchievementEngine achievements;
+    private int totalGames;
+    private int gamesWon;
+    private int currentStreak;
+    private int bestStreak;
+    private int totalGuesses;
+    private int coins;
+    private int highestLevel;
+    private int powerUpsUsed;
+    // Bit i set once achievement id i is unlocked
+    private final BitSet unlockedAchievements = new BitSet();
+    // Next rule to check for each AchievementEngine.Stat
+    private final int[] achievementCursors = new int[AchievementEngine.STAT_COUNT];
+
+    public PlayerStats() {
+        this(AchievementEngine.defaultEngine());
+    }
+
+    PlayerStats(AchievementEngine achievements) {
+        this.achievements = achievements;
+        totalGames = 0;
+        gamesWon = 0;
+        currentStreak = 0;
+        bestStreak = 0;
+        totalGuesses = 0;
+        coins = 0;
+        highestLevel = 1;
+    }
+
+    public void updateStats(boolean won, int attempts) {
+        totalGames++;
+        totalGuesses += attempts;
+        
+        if (won) {
+            gamesWon++;
+            currentStreak++;
+            if (currentStreak > bestStreak) {
+                bestStreak = currentStreak;
+                unlock(AchievementEngine.Stat.BEST_STREAK, bestStreak);
+            }
+            coins += 10; // Base reward for winning
+            unlock(AchievementEngine.Stat.GAMES_WON, gamesWon);
+        } else {
+            currentStreak = 0;
+        }
+
+        unlock(AchievementEngine.Stat.TOTAL_GAMES, totalGames);
+        unlock(AchievementEngine.Stat.TOTAL_GUESSES, totalGuesses);
+    }
+
+    public void recordPowerUp() {
+        powerUpsUsed++;
+        unlock(AchievementEngine.Stat.POWER_UPS_USED, powerUpsUsed);
+    }
+
+    public void recordLevel(int level) {
+        if (level > highestLevel) {
+            highestLevel = level;
+            unlock(AchievementEngine.Stat.LEVEL, highestLevel);
+        }
+    }
+
+    public boolean spendCoins(int amount) {
+        if (coins < amount) {
+            return false;
+        }
+        coins -= amount;
+        return true;
+    }
+
+    // Overwrites every field, e.g. with a record loaded from PlayerStatsStore
+    void restore(int totalGames, int gamesWon, int currentStreak, int bestStreak, int totalGuesses,
+                 int coins, int highestLevel, int powerUpsUsed, long[] achievementWords) {
+        this.totalGames = totalGames;
+        this.gamesWon = gamesWon;
+        this.currentStreak = currentStreak;
+        this.bestStreak = bestStreak;
+        this.totalGuesses = totalGuesses;
+        this.coins = coins;
+        this.highestLevel = Math.max(1, highestLevel);
+        this.powerUpsUsed = powerUpsUsed;
+        unlockedAchievements.clear();
+        for (int w = 0; w < achievementWords.length; w++) {
+            long word = achievementWords[w];
+            while (word != 0) {
+                unlockedAchievements.set(w * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        achievements.resetCursors(achievementCursors, unlockedAchievements);
+    }
+
+    // Overwrites every field with other's; both must use the same AchievementEngine
+    void copyFrom(PlayerStats other) {
+        totalGames = other.totalGames;
+        gamesWon = other.gamesWon;
+        currentStreak = other.currentStreak;
+        bestStreak = other.bestStreak;
+        totalGuesses = other.totalGuesses;
+        coins = other.coins;
+        highestLevel = other.highestLevel;
+        powerUpsUsed = other.powerUpsUsed;
+        unlockedAchievements.clear();
+        unlockedAchievements.or(other.unlockedAchievements);
+        System.arraycopy(other.achievementCursors, 0, achievementCursors, 0, achievementCursors.length);
+    }
+
+    // Unlocked bitset as words, as stored by PlayerStatsStore
+    long[] getAchievementWords() {
+        return unlockedAchievements.toLongArray();
+    }
+
+    // Re-evaluates every stat, e.g. after the rules file gained achievements
+    void checkAchievements() {
+        unlock(AchievementEngine.Stat.GAMES_WON, gamesWon);
+        unlock(AchievementEngine.Stat.TOTAL_GAMES, totalGames);
+        unlock(AchievementEngine.Stat.BEST_STREAK, bestStreak);
+        unlock(AchievementEngine.Stat.TOTAL_GUESSES, totalGuesses);
+        unlock(AchievementEngine.Stat.LEVEL, highestLevel);
+        unlock(AchievementEngine.Stat.POWER_UPS_USED, powerUpsUsed);
+    }
+
+    private void unlock(AchievementEngine.Stat stat, long value) {
+        coins += achievements.evaluate(stat, value, achievementCursors, unlockedAchievements);
+    }
+
+    public double getWinRate() {
+        return totalGames == 0 ? 0 : (double) gamesWon / totalGames * 100;
+    }
+
+    public double getAverageGuesses() {
+        return totalGames == 0 ? 0 : (double) totalGuesses / totalGames;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    // Names of the unlocked achievements in id order
+    public Set<String> getUnlockedAchievements() {
+        Set<String> names = new LinkedHashSet<>();
+        for (int id = unlockedAchievements.nextSetBit(0); id >= 0; id = unlockedAchievements.nextSetBit(id + 1)) {
+            String name = achievements.name(id);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    boolean hasAchievement(int id) {
+        return unlockedAchievements.get(id);
+    }
+
+    int getAchievementCount() {
+        return unlockedAchievements.cardinality();
+    }
+
+    // First unlocked achievement id at or after fromId, or -1
+    int nextAchievement(int fromId) {
+        return unlockedAchievements.nextSetBit(fromId);
+    }
+
+    AchievementEngine getAchievementEngine() {
+        return achievements;
+    }
+
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    public int getTotalGames() {
+        return totalGames;
+    }
+
+    public int getGamesWon() {
+        return gamesWon;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public int getTotalGuesses() {
+        return totalGuesses;
+    }
+
+    public int getHighestLevel() {
+        return highestLevel;
+    }
+
+    public int getPowerUpsUsed() {
+        return powerUpsUsed;
+    }
+}
@@ -0,0 +1,344 @@
+package numbergame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Durable PlayerStats storage for dense int player ids.
+//
+//   stats.log - append-only log of 20-byte events: lsn, player, attempts/coins/level, type, won
+//   stats.dat - 64-byte header followed by one fixed-width 128-byte record per player,
+//               memory-mapped, so opening a store with a million players parses nothing.
+//               A record ends with the player's achievement bitset (512 ids).
+//
+// Events are buffered and written to the log in small batches; only after a batch is in the
+// log is it applied to the mapped records, so a record never runs ahead of the log and a
+// process crash loses at most the unwritten batch. checkpoint() forces the records to disk
+// and truncates the log; on open, log events newer than a record's lsn are replayed.
+// save() is the write-behind path for callers that keep a player's stats themselves, such as
+// ProfileService: it overwrites the record directly, without logging the events behind it.
+class PlayerStatsStore implements AutoCloseable {
+    private static final int MAGIC = 0x47544e53; // "GTNS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 128;
+    private static final int ACHIEVEMENT_WORDS = AchievementEngine.MAX_ACHIEVEMENTS / 64;
+    private static final int EVENT_SIZE = 20;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte EVENT_GAME = 1;
+    private static final byte EVENT_SPEND = 2;
+    private static final byte EVENT_POWER_UP = 3;
+    private static final byte EVENT_LEVEL = 4;
+
+    // Record layout
+    private static final int R_LSN = 0;
+    private static final int R_TOTAL_GAMES = 8;
+    private static final int R_GAMES_WON = 12;
+    private static final int R_CURRENT_STREAK = 16;
+    private static final int R_BEST_STREAK = 20;
+    private static final int R_TOTAL_GUESSES = 24;
+    private static final int R_COINS = 28;
+    private static final int R_HIGHEST_LEVEL = 32;
+    private static final int R_POWER_UPS_USED = 36;
+    private static final int R_ACHIEVEMENTS = 40;
+
+    // Event layout
+    private static final int E_LSN = 0;
+    private static final int E_PLAYER = 8;
+    private static final int E_VALUE = 12;
+    private static final int E_TYPE = 16;
+    private static final int E_WON = 17;
+
+    // Header layout
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_RECORD_SIZE = 8;
+    private static final int H_CAPACITY = 12;
+    private static final int H_CHECKPOINT_LSN = 16;
+
+    private final FileChannel recordChannel;
+    private final FileChannel logChannel;
+    private final ByteBuffer logBuffer;
+    private final int maxBufferedEvents;
+    private final long checkpointEveryEvents;
+    private final PlayerStats scratch = new PlayerStats();
+    private final long[] achievementWords = new long[ACHIEVEMENT_WORDS];
+    private MappedByteBuffer records;
+    private int capacity;
+    private long nextLsn;
+    private long eventsSinceCheckpoint;
+
+    private PlayerStatsStore(FileChannel recordChannel, FileChannel logChannel,
+                             int maxBufferedEvents, long checkpointEveryEvents) {
+        this.recordChannel = recordChannel;
+        this.logChannel = logChannel;
+        this.maxBufferedEvents = maxBufferedEvents;
+        this.checkpointEveryEvents = checkpointEveryEvents;
+        this.logBuffer = ByteBuffer.allocateDirect(maxBufferedEvents * EVENT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static PlayerStatsStore open(Path dir) throws IOException {
+        return open(dir, 32, 1_000_000);
+    }
+
+    // maxBufferedEvents bounds what a crash can lose; checkpointEveryEvents bounds log length
+    static PlayerStatsStore open(Path dir, int maxBufferedEvents, long checkpointEveryEvents) throws IOException {
+        Files.createDirectories(dir);
+        FileChannel recordChannel = FileChannel.open(dir.resolve("stats.dat"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel logChannel = FileChannel.open(dir.resolve("stats.log"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PlayerStatsStore store = new PlayerStatsStore(recordChannel, logChannel, maxBufferedEvents, checkpointEveryEvents);
+        store.mapRecords();
+        store.recover();
+        return store;
+    }
+
+    synchronized void recordGame(int playerId, boolean won, int attempts) throws IOException {
+        append(playerId, EVENT_GAME, won, attempts);
+    }
+
+    synchronized void recordSpend(int playerId, int coins) throws IOException {
+        append(playerId, EVENT_SPEND, false, coins);
+    }
+
+    synchronized void recordPowerUp(int playerId) throws IOException {
+        append(playerId, EVENT_POWER_UP, false, 0);
+    }
+
+    synchronized void recordLevel(int playerId, int level) throws IOException {
+        append(playerId, EVENT_LEVEL, false, level);
+    }
+
+    // Stats of the player including events not yet written to the log
+    synchronized PlayerStats load(int playerId) {
+        PlayerStats stats = new PlayerStats();
+        load(playerId, stats);
+        return stats;
+    }
+
+    // Same as load(int) into a caller-owned PlayerStats
+    synchronized void load(int playerId, PlayerStats stats) {
+        readRecord(playerId, stats);
+        for (int offset = 0; offset < logBuffer.position(); offset += EVENT_SIZE) {
+            if (logBuffer.getInt(offset + E_PLAYER) == playerId) {
+                applyEvent(stats, logBuffer, offset);
+            }
+        }
+    }
+
+    // Overwrites the player's record with the stats, which must already contain every event
+    // logged for the player. The record takes the latest lsn, which flush() has put in the log,
+    // so recovery never replays older events over it and never reuses its lsn.
+    synchronized void save(int playerId, PlayerStats stats) throws IOException {
+        if (playerId < 0) {
+            throw new IllegalArgumentException("Player id must be non-negative: " + playerId);
+        }
+        flush();
+        ensureCapacity(playerId);
+        writeRecord(recordOffset(playerId), stats, Math.max(0, nextLsn - 1));
+    }
+
+    // Writes buffered events to the log and applies them to the records
+    synchronized void flush() throws IOException {
+        int length = logBuffer.position();
+        if (length == 0) {
+            return;
+        }
+        logBuffer.flip();
+        while (logBuffer.hasRemaining()) {
+            logChannel.write(logBuffer, logChannel.size());
+        }
+        for (int offset = 0; offset < length; offset += EVENT_SIZE) {
+            applyToRecord(logBuffer, offset);
+        }
+        logBuffer.clear();
+    }
+
+    // Compacts the log into the record file: forces records to disk, then empties the log
+    synchronized void checkpoint() throws IOException {
+        flush();
+        records.force();
+        records.putLong(H_CHECKPOINT_LSN, nextLsn - 1);
+        records.force();
+        logChannel.truncate(0);
+        logChannel.force(true);
+        eventsSinceCheckpoint = 0;
+    }
+
+    synchronized int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        checkpoint();
+        logChannel.close();
+        recordChannel.close();
+    }
+
+    private void append(int playerId, byte type, boolean won, int value) throws IOException {
+        if (playerId < 0) {
+            throw new IllegalArgumentException("Player id must be non-negative: " + playerId);
+        }
+        logBuffer.putLong(nextLsn++)
+            .putInt(playerId)
+            .putInt(value)
+            .put(type)
+            .put((byte) (won ? 1 : 0))
+            .putShort((short) 0);
+        if (logBuffer.position() == maxBufferedEvents * EVENT_SIZE) {
+            flush();
+        }
+        if (++eventsSinceCheckpoint >= checkpointEveryEvents) {
+            checkpoint();
+        }
+    }
+
+    private void recover() throws IOException {
+        nextLsn = records.getLong(H_CHECKPOINT_LSN) + 1;
+        long size = logChannel.size();
+        long complete = size - size % EVENT_SIZE; // a torn tail event is dropped
+        ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        long position = 0;
+        while (position < complete) {
+            in.clear();
+            in.limit((int) Math.min(in.capacity(), complete - position));
+            while (in.hasRemaining()) {
+                if (logChannel.read(in, position + in.position()) < 0) break;
+            }
+            for (int offset = 0; offset + EVENT_SIZE <= in.position(); offset += EVENT_SIZE) {
+                applyToRecord(in, offset);
+                nextLsn = Math.max(nextLsn, in.getLong(offset + E_LSN) + 1);
+            }
+            position += in.position();
+        }
+        if (complete != size) {
+            logChannel.truncate(complete);
+        }
+        eventsSinceCheckpoint = complete / EVENT_SIZE;
+    }
+
+    // Applies one logged event unless the record already contains it
+    private void applyToRecord(ByteBuffer events, int offset) throws IOException {
+        long lsn = events.getLong(offset + E_LSN);
+        int playerId = events.getInt(offset + E_PLAYER);
+        ensureCapacity(playerId);
+        int base = recordOffset(playerId);
+        if (records.getLong(base + R_LSN) >= lsn) {
+            return;
+        }
+        readRecord(playerId, scratch);
+        applyEvent(scratch, events, offset);
+        writeRecord(base, scratch, lsn);
+    }
+
+    private void writeRecord(int base, PlayerStats stats, long lsn) {
+        records.putInt(base + R_TOTAL_GAMES, stats.getTotalGames());
+        records.putInt(base + R_GAMES_WON, stats.getGamesWon());
+        records.putInt(base + R_CURRENT_STREAK, stats.getCurrentStreak());
+        records.putInt(base + R_BEST_STREAK, stats.getBestStreak());
+        records.putInt(base + R_TOTAL_GUESSES, stats.getTotalGuesses());
+        records.putInt(base + R_COINS, stats.getCoins());
+        records.putInt(base + R_HIGHEST_LEVEL, stats.getHighestLevel());
+        records.putInt(base + R_POWER_UPS_USED, stats.getPowerUpsUsed());
+        long[] words = stats.getAchievementWords();
+        for (int w = 0; w < ACHIEVEMENT_WORDS; w++) {
+            records.putLong(base + R_ACHIEVEMENTS + w * 8, w < words.length ? words[w] : 0);
+        }
+        records.putLong(base + R_LSN, lsn);
+    }
+
+    private static void applyEvent(PlayerStats stats, ByteBuffer events, int offset) {
+        byte type = events.get(offset + E_TYPE);
+        int value = events.getInt(offset + E_VALUE);
+        if (type == EVENT_GAME) {
+            stats.updateStats(events.get(offset + E_WON) != 0, value);
+        } else if (type == EVENT_SPEND) {
+            stats.spendCoins(value);
+        } else if (type == EVENT_POWER_UP) {
+            stats.recordPowerUp();
+        } else if (type == EVENT_LEVEL) {
+            stats.recordLevel(value);
+        }
+    }
+
+    private void readRecord(int playerId, PlayerStats stats) {
+        if (playerId >= capacity) {
+            Arrays.fill(achievementWords, 0);
+            stats.restore(0, 0, 0, 0, 0, 0, 1, 0, achievementWords);
+            return;
+        }
+        int base = recordOffset(playerId);
+        for (int w = 0; w < ACHIEVEMENT_WORDS; w++) {
+            achievementWords[w] = records.getLong(base + R_ACHIEVEMENTS + w * 8);
+        }
+        stats.restore(
+            records.getInt(base + R_TOTAL_GAMES),
+            records.getInt(base + R_GAMES_WON),
+            records.getInt(base + R_CURRENT_STREAK),
+            records.getInt(base + R_BEST_STREAK),
+            records.getInt(base + R_TOTAL_GUESSES),
+            records.getInt(base + R_COINS),
+            records.getInt(base + R_HIGHEST_LEVEL),
+            records.getInt(base + R_POWER_UPS_USED),
+            achievementWords);
+    }
+
+    private static int recordOffset(int playerId) {
+        return HEADER_SIZE + playerId * RECORD_SIZE;
+    }
+
+    private void mapRecords() throws IOException {
+        if (recordChannel.size() < HEADER_SIZE) {
+            records = recordChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) INITIAL_CAPACITY * RECORD_SIZE);
+            records.order(ByteOrder.LITTLE_ENDIAN);
+            records.putInt(H_MAGIC, MAGIC);
+            records.putInt(H_VERSION, VERSION);
+            records.putInt(H_RECORD_SIZE, RECORD_SIZE);
+            records.putInt(H_CAPACITY, INITIAL_CAPACITY);
+            records.putLong(H_CHECKPOINT_LSN, 0);
+            capacity = INITIAL_CAPACITY;
+            return;
+        }
+        MappedByteBuffer header = recordChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException("Not a player stats file");
+        }
+        int version = header.getInt(H_VERSION);
+        capacity = header.getInt(H_CAPACITY);
+        if (version != VERSION || header.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException("Unsupported player stats version " + version);
+        }
+        records = recordChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        records.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Doubles the mapped region until the player fits
+    private void ensureCapacity(int playerId) throws IOException {
+        if (playerId < capacity) {
+            return;
+        }
+        long newCapacity = capacity;
+        while (newCapacity <= playerId) {
+            newCapacity *= 2;
+        }
+        long size = HEADER_SIZE + newCapacity * RECORD_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Player id " + playerId + " exceeds the record file limit");
+        }
+        records.force();
+        records = recordChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        records.order(ByteOrder.LITTLE_ENDIAN);
+        capacity = (int) newCapacity;
+        records.putInt(H_CAPACITY, capacity);
+    }
+}
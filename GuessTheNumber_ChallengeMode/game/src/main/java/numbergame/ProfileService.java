@@ -0,0 +1,243 @@
+package numbergame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Player profiles (stats, coins, achievements) for more players than fit on the heap. The most
+// recently used `capacity` players are kept in an access-ordered LRU map and served from
+// memory; a miss loads the player from the memory-mapped PlayerStatsStore, reusing the
+// PlayerStats object of the player it evicts. Changes are write-behind: they only mark the
+// cached profile dirty, and dirty profiles are saved to the store when evicted, every
+// writeBehindMillis by a daemon thread, and on flush()/close(). A crash loses at most the
+// changes of one write-behind interval. A flush copies the dirty profiles under the service's
+// monitor and writes the copies without it, so players whose profile is cached are never held
+// up by the store; a miss waits for the flush in progress, so no player is evicted or reloaded
+// ahead of their pending write. Hits, misses, evictions and writes are counted in
+// MetricsRegistry, and hitRate() gives the rate since open for sizing the cache.
+final class ProfileService implements AutoCloseable {
+    private static final class Profile {
+        final PlayerStats stats;
+        boolean dirty;
+
+        Profile(PlayerStats stats) {
+            this.stats = stats;
+        }
+    }
+
+    private static final MetricsRegistry.Counter HITS = MetricsRegistry.shared().counter("profiles.hits");
+    private static final MetricsRegistry.Counter MISSES = MetricsRegistry.shared().counter("profiles.misses");
+    private static final MetricsRegistry.Counter EVICTIONS = MetricsRegistry.shared().counter("profiles.evictions");
+    private static final MetricsRegistry.Counter WRITES = MetricsRegistry.shared().counter("profiles.writes");
+
+    private final PlayerStatsStore store;
+    private final int capacity;
+    private final LinkedHashMap<Integer, Profile> cache;
+    private final Thread writer;
+    private long hits, misses, evictions;
+    // Copies of the dirty profiles the flush in progress is writing, reused by later flushes
+    private int[] flushIds = new int[0];
+    private PlayerStats[] flushStats = new PlayerStats[0];
+    private boolean flushing;
+    private volatile boolean running = true;
+
+    private ProfileService(PlayerStatsStore store, int capacity, long writeBehindMillis) {
+        this.store = store;
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true);
+        MetricsRegistry.shared().gauge("profiles.cached", this::size);
+        writer = new Thread(() -> writeBehind(writeBehindMillis), "profile-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    static ProfileService open(Path dir, int capacity) throws IOException {
+        return open(dir, capacity, 1000);
+    }
+
+    static ProfileService open(Path dir, int capacity, long writeBehindMillis) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        return new ProfileService(PlayerStatsStore.open(dir), capacity, writeBehindMillis);
+    }
+
+    synchronized void recordGame(int playerId, boolean won, int attempts) throws IOException {
+        Profile profile = profile(playerId);
+        profile.stats.updateStats(won, attempts);
+        profile.dirty = true;
+    }
+
+    synchronized void recordPowerUp(int playerId) throws IOException {
+        Profile profile = profile(playerId);
+        profile.stats.recordPowerUp();
+        profile.dirty = true;
+    }
+
+    synchronized void recordLevel(int playerId, int level) throws IOException {
+        Profile profile = profile(playerId);
+        profile.stats.recordLevel(level);
+        profile.dirty = true;
+    }
+
+    synchronized boolean spendCoins(int playerId, int amount) throws IOException {
+        Profile profile = profile(playerId);
+        if (!profile.stats.spendCoins(amount)) {
+            return false;
+        }
+        profile.dirty = true;
+        return true;
+    }
+
+    // Copies the player's current stats into the caller's PlayerStats
+    synchronized void read(int playerId, PlayerStats into) throws IOException {
+        into.copyFrom(profile(playerId).stats);
+    }
+
+    // Saves every dirty profile to the store and flushes it
+    void flush() throws IOException {
+        int count = 0;
+        synchronized (this) {
+            awaitFlush();
+            for (Map.Entry<Integer, Profile> entry : cache.entrySet()) {
+                Profile profile = entry.getValue();
+                if (profile.dirty) {
+                    if (count == flushIds.length) {
+                        flushIds = Arrays.copyOf(flushIds, Math.max(16, count * 2));
+                        flushStats = Arrays.copyOf(flushStats, flushIds.length);
+                    }
+                    if (flushStats[count] == null) {
+                        flushStats[count] = new PlayerStats();
+                    }
+                    flushIds[count] = entry.getKey();
+                    flushStats[count].copyFrom(profile.stats);
+                    profile.dirty = false;
+                    count++;
+                }
+            }
+            flushing = true;
+        }
+        int saved = 0;
+        try {
+            for (; saved < count; saved++) {
+                store.save(flushIds[saved], flushStats[saved]);
+                WRITES.increment();
+            }
+            store.flush();
+        } finally {
+            synchronized (this) {
+                // Profiles that were not written stay dirty for the next flush; none was evicted meanwhile
+                for (int i = saved; i < count; i++) {
+                    cache.get(flushIds[i]).dirty = true;
+                }
+                flushing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    // Call holding the monitor; returns once no flush is writing
+    private void awaitFlush() {
+        boolean interrupted = false;
+        while (flushing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    synchronized int size() {
+        return cache.size();
+    }
+
+    synchronized double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            flush();
+            store.close();
+        }
+    }
+
+    // The cached profile, loading it and evicting the least recently used one on a miss
+    private Profile profile(int playerId) throws IOException {
+        Profile profile = cache.get(playerId);
+        if (profile == null && flushing) {
+            awaitFlush(); // Releases the monitor, so look again
+            profile = cache.get(playerId);
+        }
+        if (profile != null) {
+            hits++;
+            HITS.increment();
+            return profile;
+        }
+        misses++;
+        MISSES.increment();
+        if (cache.size() >= capacity) {
+            Iterator<Map.Entry<Integer, Profile>> eldest = cache.entrySet().iterator();
+            Map.Entry<Integer, Profile> entry = eldest.next();
+            save(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+            EVICTIONS.increment();
+            profile = entry.getValue();
+        } else {
+            profile = new Profile(new PlayerStats());
+        }
+        store.load(playerId, profile.stats);
+        cache.put(playerId, profile);
+        return profile;
+    }
+
+    private void save(int playerId, Profile profile) throws IOException {
+        if (profile.dirty) {
+            store.save(playerId, profile.stats);
+            profile.dirty = false;
+            WRITES.increment();
+        }
+    }
+
+    private void writeBehind(long intervalMillis) {
+        while (running) {
+            try {
+                Thread.sleep(intervalMillis);
+                flush();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Could not write profiles: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package numbergame;
+
+// Order-statistic B+tree of (score, player) entries ordered best-first: higher score, then
+// lower player id. Every inner node keeps the entry count of each child, so rank-of-entry and
+// entry-at-rank are a walk down about four nodes of 64 contiguous slots, which stays in cache
+// far better than a pointer-per-entry skip list or red-black tree at a million entries.
+//
+// Deletion is lazy: nodes may become sparse and are only dropped once empty. Separators stay
+// valid lower bounds for their child, so lookups are unaffected. Not thread-safe.
+class RankedTree {
+    private static final int FANOUT = 64;
+
+    private abstract static class Node {
+        int n;
+        int total;
+    }
+
+    private static final class Leaf extends Node {
+        final long[] scores = new long[FANOUT];
+        final int[] players = new int[FANOUT];
+        Leaf prev, next;
+    }
+
+    private static final class Inner extends Node {
+        final Node[] children = new Node[FANOUT];
+        final int[] counts = new int[FANOUT];
+        // Smallest entry of children[i], for i >= 1
+        final long[] sepScores = new long[FANOUT];
+        final int[] sepPlayers = new int[FANOUT];
+    }
+
+    private Node root = new Leaf();
+
+    int size() {
+        return root.total;
+    }
+
+    // Negative if (scoreA, playerA) ranks ahead of (scoreB, playerB)
+    private static int compare(long scoreA, int playerA, long scoreB, int playerB) {
+        if (scoreA != scoreB) {
+            return scoreA > scoreB ? -1 : 1;
+        }
+        return Integer.compare(playerA, playerB);
+    }
+
+    // Child whose key range contains the entry
+    private static int childFor(Inner node, long score, int player) {
+        int low = 1, high = node.n - 1, child = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(node.sepScores[mid], node.sepPlayers[mid], score, player) <= 0) {
+                child = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return child;
+    }
+
+    // First slot of the leaf whose entry does not rank ahead of the given one
+    private static int slotFor(Leaf leaf, long score, int player) {
+        int low = 0, high = leaf.n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(leaf.scores[mid], leaf.players[mid], score, player) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    void insert(long score, int player) {
+        Node split = insert(root, score, player);
+        if (split != null) {
+            Inner newRoot = new Inner();
+            newRoot.children[0] = root;
+            newRoot.counts[0] = root.total;
+            newRoot.children[1] = split;
+            newRoot.counts[1] = split.total;
+            setSeparator(newRoot, 1, split);
+            newRoot.n = 2;
+            newRoot.total = root.total + split.total;
+            root = newRoot;
+        }
+    }
+
+    // Inserts below node; returns the new right sibling if node had to split
+    private Node insert(Node node, long score, int player) {
+        if (node instanceof Leaf leaf) {
+            int slot = slotFor(leaf, score, player);
+            if (leaf.n == FANOUT) {
+                Leaf right = splitLeaf(leaf);
+                if (slot > leaf.n) {
+                    insertIntoLeaf(right, slot - leaf.n, score, player);
+                } else {
+                    insertIntoLeaf(leaf, slot, score, player);
+                }
+                return right;
+            }
+            insertIntoLeaf(leaf, slot, score, player);
+            return null;
+        }
+
+        Inner inner = (Inner) node;
+        int c = childFor(inner, score, player);
+        Node split = insert(inner.children[c], score, player);
+        inner.total++;
+        inner.counts[c] = inner.children[c].total;
+        if (split == null) {
+            return null;
+        }
+        if (inner.n == FANOUT) {
+            Inner right = splitInner(inner);
+            if (c >= inner.n) {
+                insertChild(right, c - inner.n + 1, split);
+            } else {
+                insertChild(inner, c + 1, split);
+            }
+            return right;
+        }
+        insertChild(inner, c + 1, split);
+        return null;
+    }
+
+    private static void insertIntoLeaf(Leaf leaf, int slot, long score, int player) {
+        System.arraycopy(leaf.scores, slot, leaf.scores, slot + 1, leaf.n - slot);
+        System.arraycopy(leaf.players, slot, leaf.players, slot + 1, leaf.n - slot);
+        leaf.scores[slot] = score;
+        leaf.players[slot] = player;
+        leaf.n++;
+        leaf.total++;
+    }
+
+    private static Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf();
+        int half = leaf.n / 2;
+        right.n = leaf.n - half;
+        right.total = right.n;
+        System.arraycopy(leaf.scores, half, right.scores, 0, right.n);
+        System.arraycopy(leaf.players, half, right.players, 0, right.n);
+        leaf.n = half;
+        leaf.total = half;
+        right.next = leaf.next;
+        right.prev = leaf;
+        if (leaf.next != null) leaf.next.prev = right;
+        leaf.next = right;
+        return right;
+    }
+
+    private static Inner splitInner(Inner inner) {
+        Inner right = new Inner();
+        int half = inner.n / 2;
+        right.n = inner.n - half;
+        System.arraycopy(inner.children, half, right.children, 0, right.n);
+        System.arraycopy(inner.counts, half, right.counts, 0, right.n);
+        System.arraycopy(inner.sepScores, half, right.sepScores, 0, right.n);
+        System.arraycopy(inner.sepPlayers, half, right.sepPlayers, 0, right.n);
+        for (int i = half; i < inner.n; i++) {
+            inner.children[i] = null;
+        }
+        inner.n = half;
+        inner.total = 0;
+        for (int i = 0; i < inner.n; i++) inner.total += inner.counts[i];
+        for (int i = 0; i < right.n; i++) right.total += right.counts[i];
+        return right;
+    }
+
+    // Inserts child at index i >= 1 and accounts for its entries
+    private static void insertChild(Inner inner, int i, Node child) {
+        int move = inner.n - i;
+        System.arraycopy(inner.children, i, inner.children, i + 1, move);
+        System.arraycopy(inner.counts, i, inner.counts, i + 1, move);
+        System.arraycopy(inner.sepScores, i, inner.sepScores, i + 1, move);
+        System.arraycopy(inner.sepPlayers, i, inner.sepPlayers, i + 1, move);
+        inner.children[i] = child;
+        inner.counts[i] = child.total;
+        setSeparator(inner, i, child);
+        inner.n++;
+        // Counts of the split-off entries already moved from the left sibling
+        inner.counts[i - 1] = inner.children[i - 1].total;
+        inner.total = 0;
+        for (int k = 0; k < inner.n; k++) inner.total += inner.counts[k];
+    }
+
+    private static void setSeparator(Inner inner, int i, Node child) {
+        Node first = child;
+        while (first instanceof Inner in) {
+            first = in.children[0];
+        }
+        Leaf leaf = (Leaf) first;
+        inner.sepScores[i] = leaf.scores[0];
+        inner.sepPlayers[i] = leaf.players[0];
+    }
+
+    boolean remove(long score, int player) {
+        if (!remove(root, score, player)) {
+            return false;
+        }
+        while (root instanceof Inner inner && inner.n == 1) {
+            root = inner.children[0];
+        }
+        return true;
+    }
+
+    private boolean remove(Node node, long score, int player) {
+        if (node instanceof Leaf leaf) {
+            int slot = slotFor(leaf, score, player);
+            if (slot == leaf.n || leaf.scores[slot] != score || leaf.players[slot] != player) {
+                return false;
+            }
+            System.arraycopy(leaf.scores, slot + 1, leaf.scores, slot, leaf.n - slot - 1);
+            System.arraycopy(leaf.players, slot + 1, leaf.players, slot, leaf.n - slot - 1);
+            leaf.n--;
+            leaf.total--;
+            return true;
+        }
+
+        Inner inner = (Inner) node;
+        int c = childFor(inner, score, player);
+        Node child = inner.children[c];
+        if (!remove(child, score, player)) {
+            return false;
+        }
+        inner.total--;
+        inner.counts[c]--;
+        if (child.total == 0 && inner.n > 1) {
+            // An empty subtree is a chain of single-child nodes ending in one empty leaf
+            Node first = child;
+            while (first instanceof Inner in) {
+                first = in.children[0];
+            }
+            Leaf leaf = (Leaf) first;
+            if (leaf.prev != null) leaf.prev.next = leaf.next;
+            if (leaf.next != null) leaf.next.prev = leaf.prev;
+            int move = inner.n - c - 1;
+            System.arraycopy(inner.children, c + 1, inner.children, c, move);
+            System.arraycopy(inner.counts, c + 1, inner.counts, c, move);
+            System.arraycopy(inner.sepScores, c + 1, inner.sepScores, c, move);
+            System.arraycopy(inner.sepPlayers, c + 1, inner.sepPlayers, c, move);
+            inner.n--;
+            inner.children[inner.n] = null;
+        }
+        return true;
+    }
+
+    // 1-based rank of the entry, or -1 if it is not present
+    int rank(long score, int player) {
+        Node node = root;
+        int before = 0;
+        while (node instanceof Inner inner) {
+            int c = childFor(inner, score, player);
+            int[] counts = inner.counts;
+            for (int i = 0; i < c; i++) {
+                before += counts[i];
+            }
+            node = inner.children[c];
+        }
+        Leaf leaf = (Leaf) node;
+        int slot = slotFor(leaf, score, player);
+        if (slot == leaf.n || leaf.scores[slot] != score || leaf.players[slot] != player) {
+            return -1;
+        }
+        return before + slot + 1;
+    }
+
+    // Player at a 1-based rank, or -1 when out of range
+    int playerAt(int rank) {
+        if (rank < 1 || rank > root.total) {
+            return -1;
+        }
+        int remaining = rank - 1;
+        Node node = root;
+        while (node instanceof Inner inner) {
+            int c = 0;
+            while (remaining >= inner.counts[c]) {
+                remaining -= inner.counts[c];
+                c++;
+            }
+            node = inner.children[c];
+        }
+        return ((Leaf) node).players[remaining];
+    }
+
+    // Copies the players of the best k entries into out; returns how many were copied
+    int top(int k, int[] out) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[0];
+        }
+        int limit = Math.min(k, out.length);
+        int count = 0;
+        for (Leaf leaf = (Leaf) node; leaf != null && count < limit; leaf = leaf.next) {
+            for (int i = 0; i < leaf.n && count < limit; i++) {
+                out[count++] = leaf.players[i];
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,111 @@
+package numbergame;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+// Source of the random streams sessions draw their round seeds from. newStream() hands out an
+// independent generator for one session, which must only be used by one thread at a time;
+// perThread() is one generator any thread may call, each thread drawing from its own stream.
+// Seeded providers split every stream off one root generator, so with a fixed seed the n-th
+// stream handed out is always the same; a perThread() stream depends on the order threads
+// first draw. Targets and power-ups are then derived from a round seed with bounded(), so a
+// round replays from its seed alone.
+//
+// SHARED is chosen at startup with -Dnumbergame.rng=splittable|l64x128|thread (default
+// splittable) and -Dnumbergame.seed=<long> (default random); thread is ThreadLocalRandom, which
+// cannot be seeded.
+interface RngProvider {
+    RngProvider SHARED = fromSystemProperties();
+
+    RandomGenerator newStream();
+
+    RandomGenerator perThread();
+
+    static RngProvider splittable(long seed) {
+        return new SplittingRngProvider(new SplittableRandom(seed));
+    }
+
+    static RngProvider l64x128(long seed) {
+        return new SplittingRngProvider((RandomGenerator.SplittableGenerator)
+            RandomGeneratorFactory.of("L64X128MixRandom").create(seed));
+    }
+
+    // Unseeded: every stream comes from ThreadLocalRandom
+    static RngProvider threadLocal() {
+        return ThreadLocalRngProvider.INSTANCE;
+    }
+
+    private static RngProvider fromSystemProperties() {
+        String kind = System.getProperty("numbergame.rng", "splittable");
+        String seedProperty = System.getProperty("numbergame.seed");
+        long seed = seedProperty == null ? ThreadLocalRandom.current().nextLong() : Long.parseLong(seedProperty);
+        switch (kind) {
+            case "splittable":
+                return splittable(seed);
+            case "l64x128":
+                return l64x128(seed);
+            case "thread":
+                return threadLocal();
+            default:
+                throw new IllegalArgumentException("Unknown numbergame.rng: " + kind);
+        }
+    }
+
+    // Unbiased value in [0, bound) for an unsigned bound > 0, drawn from the seed's SplitMix64
+    // stream: Lemire's multiply-shift, redrawing only when the low product falls in the biased
+    // sliver below 2^64 mod bound
+    static long bounded(long seed, long bound) {
+        long x = GameSession.mix(seed += SplittingRngProvider.GOLDEN_GAMMA);
+        long low = x * bound;
+        if (Long.compareUnsigned(low, bound) < 0) {
+            long threshold = Long.remainderUnsigned(-bound, bound);
+            while (Long.compareUnsigned(low, threshold) < 0) {
+                x = GameSession.mix(seed += SplittingRngProvider.GOLDEN_GAMMA);
+                low = x * bound;
+            }
+        }
+        return Math.unsignedMultiplyHigh(x, bound);
+    }
+}
+
+// Splits each stream off a root generator; the root is only touched under its lock
+final class SplittingRngProvider implements RngProvider {
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final RandomGenerator.SplittableGenerator root;
+    private final ThreadLocal<RandomGenerator> threadStreams = ThreadLocal.withInitial(this::newStream);
+    private final RandomGenerator perThread = () -> threadStreams.get().nextLong();
+
+    SplittingRngProvider(RandomGenerator.SplittableGenerator root) {
+        this.root = root;
+    }
+
+    @Override
+    public synchronized RandomGenerator newStream() {
+        return root.split();
+    }
+
+    @Override
+    public RandomGenerator perThread() {
+        return perThread;
+    }
+}
+
+final class ThreadLocalRngProvider implements RngProvider {
+    static final ThreadLocalRngProvider INSTANCE = new ThreadLocalRngProvider();
+
+    private ThreadLocalRngProvider() {
+    }
+
+    @Override
+    public RandomGenerator newStream() {
+        return new SplittableRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    @Override
+    public RandomGenerator perThread() {
+        return GameSession.THREAD_RANDOM;
+    }
+}
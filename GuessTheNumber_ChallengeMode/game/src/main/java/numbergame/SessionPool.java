@@ -0,0 +1,52 @@
+package numbergame;
+
+import java.util.random.RandomGenerator;
+
+// Recycles GameSessions so that creating a player's session does not allocate once the pool is
+// warm. All sessions share the pool's clock and RNG; with an RngProvider.perThread() generator
+// each thread draws from its own stream. A released session is detached from its deadline
+// watch and event log and must not be used by the caller again.
+final class SessionPool {
+    private final GameClock clock;
+    private final RandomGenerator random;
+    private final GameSession[] free;
+    private int size;
+
+    SessionPool(GameClock clock, RandomGenerator random, int capacity) {
+        this.clock = clock;
+        this.random = random;
+        this.free = new GameSession[capacity];
+    }
+
+    // A level-1 session on the bounds with its first round started
+    GameSession acquire(int minRange, int maxRange, int maxAttempts) {
+        GameSession session;
+        synchronized (this) {
+            if (size == 0) {
+                session = null;
+            } else {
+                session = free[--size];
+                free[size] = null;
+            }
+        }
+        if (session == null) {
+            return new GameSession(minRange, maxRange, maxAttempts, clock, random);
+        }
+        session.reinitialize(minRange, maxRange, maxAttempts);
+        return session;
+    }
+
+    // Keeps the session for reuse, or drops it when the pool is full
+    void release(GameSession session) {
+        session.detach();
+        synchronized (this) {
+            if (size < free.length) {
+                free[size++] = session;
+            }
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,224 @@
+package numbergame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Text line protocol spoken by SessionServer. One request per line, one reply per line:
+//
+//   NEW <player> [<min> <max> <maxAttempts>]   -> OK <min> <max> <maxAttempts>
+//   GUESS <player> <number>                    -> LOW <left> | HIGH <left> | CORRECT <attempts>
+//                                                 | TIME_UP <target> | OUT_OF_ATTEMPTS <target>
+//   POWER <player>                             -> LAST_DIGIT <digit> | RANGE <min> <max>
+//                                                 | EXTRA_ATTEMPT <maxAttempts> | NONE 0
+//   RESET <player>                             -> OK <min> <max> <maxAttempts>
+//   RANK <player> <metric>                     -> RANK <rank>  (-1 if unranked)
+//   TOP <k> <metric>                           -> TOP <player>...  (k <= 20)
+//   EXPORT <player>                            -> STATE <state>  (the player leaves this node)
+//   IMPORT <player> <state>                    -> OK <min> <max> <maxAttempts>
+//   QUIT                                       -> connection closed
+//
+// EXPORT and IMPORT hand a player over between cluster nodes. A state is the session's
+// GameSession.STATE_FIELDS ints, the player's 8 PlayerStats counters, then the number of
+// achievement words and each word as two ints (high, low).
+// Player ids are 0 to Leaderboard.MAX_PLAYERS - 1.
+// NEW needs min <= max and 1 <= maxAttempts <= GameSession.MAX_ATTEMPTS, and IMPORT a state
+// GameSession.checkState() accepts; otherwise the reply is "ERR bad-argument".
+// Metrics are WIN_RATE, BEST_STREAK and AVERAGE_GUESSES. Errors are answered with "ERR <reason>". Both sides parse and format numbers straight
+// from byte buffers, so the steady-state request path does not create Strings.
+final class SessionProtocol {
+    static final int DEFAULT_PORT = 7878;
+    static final int MAX_TOKENS = 48;
+    static final int MAX_LINE = 1024;
+    static final int MAX_TOP = 20;
+
+    private SessionProtocol() {
+    }
+
+    // Buffered reader that splits a line into byte-range tokens
+    static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[8192];
+        private int position, limit;
+        final byte[] line = new byte[MAX_LINE];
+        final int[] tokenStart = new int[MAX_TOKENS];
+        final int[] tokenEnd = new int[MAX_TOKENS];
+        int tokens;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        // Reads the next line; false at end of stream
+        boolean next() throws IOException {
+            int length = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return false;
+                    }
+                }
+                byte b = buffer[position++];
+                if (b == '\n') {
+                    break;
+                }
+                if (b != '\r' && length < line.length) {
+                    line[length++] = b;
+                }
+            }
+            tokenize(length);
+            return true;
+        }
+
+        private void tokenize(int length) {
+            tokens = 0;
+            int i = 0;
+            while (i < length && tokens < MAX_TOKENS) {
+                while (i < length && line[i] == ' ') i++;
+                if (i == length) break;
+                tokenStart[tokens] = i;
+                while (i < length && line[i] != ' ') i++;
+                tokenEnd[tokens++] = i;
+            }
+        }
+
+        boolean tokenEquals(int token, byte[] word) {
+            int start = tokenStart[token];
+            if (tokenEnd[token] - start != word.length) {
+                return false;
+            }
+            for (int i = 0; i < word.length; i++) {
+                if (line[start + i] != word[i]) return false;
+            }
+            return true;
+        }
+
+        int intToken(int token) {
+            if (token >= tokens) {
+                throw new NumberFormatException("Missing argument " + token);
+            }
+            int i = tokenStart[token], end = tokenEnd[token];
+            boolean negative = line[i] == '-';
+            if (negative) i++;
+            if (i == end) {
+                throw new NumberFormatException("Empty number");
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = line[i] - '0';
+                if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                    throw new NumberFormatException("Bad number");
+                }
+                value = value * 10 + digit;
+            }
+            value = negative ? -value : value;
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Number out of range");
+            }
+            return (int) value;
+        }
+    }
+
+    // Reply/request builder over a reusable byte array
+    static final class LineWriter {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[MAX_LINE];
+        private final byte[] digits = new byte[11];
+        private int length;
+
+        LineWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        LineWriter word(byte[] word) {
+            if (length > 0) buffer[length++] = ' ';
+            System.arraycopy(word, 0, buffer, length, word.length);
+            length += word.length;
+            return this;
+        }
+
+        LineWriter number(int value) {
+            if (length > 0) buffer[length++] = ' ';
+            long v = value;
+            if (v < 0) {
+                buffer[length++] = '-';
+                v = -v;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v > 0);
+            while (n > 0) {
+                buffer[length++] = digits[--n];
+            }
+            return this;
+        }
+
+        // Appends the reader's tokens from the given one on, as they were received
+        LineWriter tokens(LineReader in, int from) {
+            for (int t = from; t < in.tokens; t++) {
+                if (length > 0) buffer[length++] = ' ';
+                int start = in.tokenStart[t], tokenLength = in.tokenEnd[t] - start;
+                System.arraycopy(in.line, start, buffer, length, tokenLength);
+                length += tokenLength;
+            }
+            return this;
+        }
+
+        void endLine() throws IOException {
+            buffer[length++] = '\n';
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    static byte[] ascii(String word) {
+        return word.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static final byte[] NEW = ascii("NEW");
+    static final byte[] GUESS = ascii("GUESS");
+    static final byte[] POWER = ascii("POWER");
+    static final byte[] RESET = ascii("RESET");
+    static final byte[] QUIT = ascii("QUIT");
+    static final byte[] RANK = ascii("RANK");
+    static final byte[] TOP = ascii("TOP");
+    static final byte[] EXPORT = ascii("EXPORT");
+    static final byte[] IMPORT = ascii("IMPORT");
+    static final byte[] STATE = ascii("STATE");
+    static final byte[] OK = ascii("OK");
+    static final byte[] ERR = ascii("ERR");
+    static final byte[] NONE = ascii("NONE");
+    static final byte[] LAST_DIGIT = ascii("LAST_DIGIT");
+    static final byte[] RANGE = ascii("RANGE");
+    static final byte[] EXTRA_ATTEMPT = ascii("EXTRA_ATTEMPT");
+    static final byte[] BAD_NUMBER = ascii("bad-number");
+    static final byte[] BAD_ARGUMENT = ascii("bad-argument");
+    static final byte[] NO_SESSION = ascii("no-session");
+    static final byte[] UNKNOWN_COMMAND = ascii("unknown-command");
+    static final byte[] UNKNOWN_METRIC = ascii("unknown-metric");
+
+    // Reply keywords indexed by GuessOutcome.ordinal()
+    static final byte[][] OUTCOMES = new byte[GuessOutcome.values().length][];
+
+    // Metric names indexed by Leaderboard.Metric.ordinal()
+    static final byte[][] METRICS = new byte[Leaderboard.Metric.values().length][];
+
+    static {
+        for (GuessOutcome outcome : GuessOutcome.values()) {
+            OUTCOMES[outcome.ordinal()] = ascii(outcome.name());
+        }
+        for (Leaderboard.Metric metric : Leaderboard.Metric.values()) {
+            METRICS[metric.ordinal()] = ascii(metric.name());
+        }
+    }
+}
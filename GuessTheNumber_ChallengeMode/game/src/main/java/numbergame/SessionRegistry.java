@@ -0,0 +1,143 @@
+package numbergame;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Live sessions and their players' stats keyed by player id. A session or PlayerStats is only
+// ever touched while holding its own monitor, so players never contend with each other.
+// A player's session lives until it is removed: NEW restarts it in place, and removed sessions
+// go back to a pool for the next new player.
+class SessionRegistry {
+    private static final int POOL_CAPACITY = 4096;
+
+    private final ConcurrentHashMap<Integer, GameSession> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, PlayerStats> stats = new ConcurrentHashMap<>();
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final SessionPool pool;
+    private final GameEventLog eventLog;
+    private final OutcomeStream outcomes;
+
+    SessionRegistry(GameClock clock) {
+        this(clock, null, null);
+    }
+
+    // Sessions created by this registry log to eventLog and publish round outcomes to
+    // outcomes when they are not null; outcomes must run on the same clock
+    SessionRegistry(GameClock clock, GameEventLog eventLog, OutcomeStream outcomes) {
+        this.pool = new SessionPool(clock, RngProvider.SHARED.perThread(), POOL_CAPACITY);
+        this.eventLog = eventLog;
+        this.outcomes = outcomes;
+        MetricsRegistry.shared().gauge("sessions.live", this::size);
+    }
+
+    // Starts the player over at level 1 on the bounds, reusing their session if they have one.
+    // Bounds GameSession.checkBounds() rejects throw IllegalArgumentException and change nothing.
+    GameSession create(int playerId, int minRange, int maxRange, int maxAttempts) {
+        GameSession.checkBounds(minRange, maxRange, maxAttempts);
+        GameSession existing = sessions.get(playerId);
+        if (existing != null) {
+            synchronized (existing) {
+                if (sessions.get(playerId) == existing) {
+                    existing.reinitialize(minRange, maxRange, maxAttempts);
+                    return existing;
+                }
+            }
+        }
+        GameSession session = pool.acquire(minRange, maxRange, maxAttempts);
+        if (eventLog != null) {
+            session.recordTo(eventLog, playerId);
+        }
+        if (outcomes != null) {
+            session.streamTo(outcomes);
+        }
+        GameSession replaced = sessions.put(playerId, session);
+        if (replaced != null) {
+            remove(replaced);
+        }
+        return session;
+    }
+
+    GameSession get(int playerId) {
+        return sessions.get(playerId);
+    }
+
+    // Ends the player's session; it goes back to the pool
+    void remove(int playerId) {
+        GameSession session = sessions.remove(playerId);
+        if (session != null) {
+            remove(session);
+        }
+    }
+
+    private void remove(GameSession session) {
+        synchronized (session) {
+            pool.release(session);
+        }
+    }
+
+    // Hands the player to another node: copies their round into state (GameSession.STATE_FIELDS
+    // ints) and their stats into statsOut, then forgets both here. False if they have no session.
+    boolean export(int playerId, int[] state, PlayerStats statsOut) {
+        GameSession session = sessions.get(playerId);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            session.exportState(state);
+            remove(playerId);
+        }
+        PlayerStats playerStats = stats.remove(playerId);
+        if (playerStats != null) {
+            synchronized (playerStats) {
+                statsOut.copyFrom(playerStats);
+            }
+            leaderboard.remove(playerId);
+        } else {
+            statsOut.copyFrom(new PlayerStats());
+        }
+        return true;
+    }
+
+    // Takes over a player exported by another node, replacing any session and stats they had here.
+    // A state GameSession.checkState() rejects throws IllegalArgumentException and changes nothing.
+    GameSession importSession(int playerId, int[] state, PlayerStats imported) {
+        GameSession.checkState(state);
+        GameSession session = create(playerId, state[1], state[2], state[3]);
+        synchronized (session) {
+            session.importState(state);
+        }
+        PlayerStats playerStats = statsFor(playerId);
+        synchronized (playerStats) {
+            playerStats.copyFrom(imported);
+            leaderboard.update(playerId, playerStats);
+        }
+        return session;
+    }
+
+    PlayerStats statsFor(int playerId) {
+        return stats.computeIfAbsent(playerId, _ -> new PlayerStats());
+    }
+
+    // Records a finished round and moves the player on the leaderboard
+    void recordResult(int playerId, boolean won, int attempts) {
+        PlayerStats playerStats = statsFor(playerId);
+        synchronized (playerStats) {
+            playerStats.updateStats(won, attempts);
+            leaderboard.update(playerId, playerStats);
+        }
+    }
+
+    void recordPowerUp(int playerId) {
+        PlayerStats playerStats = statsFor(playerId);
+        synchronized (playerStats) {
+            playerStats.recordPowerUp();
+        }
+    }
+
+    Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    int size() {
+        return sessions.size();
+    }
+}
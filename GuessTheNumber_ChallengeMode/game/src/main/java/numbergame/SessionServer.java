@@ -0,0 +1,281 @@
+package numbergame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Hosts GameSessions for many players over SessionProtocol, one virtual thread per connection.
+// A connection may drive any number of players. With an event log directory every session is
+// logged for GameLogReplayer. Round outcomes feed OutcomeStream.shared(), whose live windows
+// are metrics gauges. Usage: java numbergame.SessionServer [port] [eventLogDir]
+public class SessionServer implements AutoCloseable {
+    private final SessionRegistry registry;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final ThreadLocal<int[]> topBuffer = ThreadLocal.withInitial(() -> new int[SessionProtocol.MAX_TOP]);
+    private volatile boolean running = true;
+
+    SessionServer(int port, SessionRegistry registry) throws IOException {
+        this.registry = registry;
+        this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : SessionProtocol.DEFAULT_PORT;
+        GameEventLog eventLog = args.length > 1 ? GameEventLog.open(Path.of(args[1])) : null;
+        if (eventLog != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    eventLog.close();
+                } catch (IOException e) {
+                    System.err.println("Could not close event log: " + e.getMessage());
+                }
+            }));
+        }
+        SessionServer server = new SessionServer(port, new SessionRegistry(GameClock.SYSTEM, eventLog, OutcomeStream.shared()));
+        System.out.println("Session server listening on " + server.getPort());
+        server.serve();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    SessionRegistry getRegistry() {
+        return registry;
+    }
+
+    // Accepts connections until close() is called
+    void serve() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Starts serve() on a background thread
+    Thread start() {
+        Thread acceptor = new Thread(this::serve, "session-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return acceptor;
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            SessionProtocol.LineReader in = new SessionProtocol.LineReader(new BufferedInputStream(socket.getInputStream()));
+            SessionProtocol.LineWriter out = new SessionProtocol.LineWriter(new BufferedOutputStream(socket.getOutputStream()));
+            while (in.next()) {
+                if (in.tokens == 0) {
+                    continue;
+                }
+                if (in.tokenEquals(0, SessionProtocol.QUIT)) {
+                    break;
+                }
+                try {
+                    dispatch(in, out);
+                } catch (NumberFormatException e) {
+                    out.word(SessionProtocol.ERR).word(SessionProtocol.BAD_NUMBER).endLine();
+                } catch (IllegalArgumentException e) {
+                    out.word(SessionProtocol.ERR).word(SessionProtocol.BAD_ARGUMENT).endLine();
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away; nothing to clean up beyond the socket
+        }
+    }
+
+    private void dispatch(SessionProtocol.LineReader in, SessionProtocol.LineWriter out) throws IOException {
+        if (in.tokenEquals(0, SessionProtocol.RANK) || in.tokenEquals(0, SessionProtocol.TOP)) {
+            queryLeaderboard(in, out);
+            return;
+        }
+
+        int playerId = in.intToken(1);
+        if (playerId < 0 || playerId >= Leaderboard.MAX_PLAYERS) {
+            out.word(SessionProtocol.ERR).word(SessionProtocol.BAD_ARGUMENT).endLine();
+            return;
+        }
+        if (in.tokenEquals(0, SessionProtocol.NEW)) {
+            GameSession session = in.tokens >= 5
+                ? registry.create(playerId, in.intToken(2), in.intToken(3), in.intToken(4))
+                : registry.create(playerId, 1, 100, 10);
+            synchronized (session) {
+                writeRange(out, session);
+            }
+            return;
+        }
+        if (in.tokenEquals(0, SessionProtocol.EXPORT)) {
+            exportPlayer(playerId, out);
+            return;
+        }
+        if (in.tokenEquals(0, SessionProtocol.IMPORT)) {
+            importPlayer(playerId, in, out);
+            return;
+        }
+
+        GameSession session = registry.get(playerId);
+        if (session == null) {
+            out.word(SessionProtocol.ERR).word(SessionProtocol.NO_SESSION).endLine();
+            return;
+        }
+        synchronized (session) {
+            // The session may have gone back to the pool, and on to another player, since the lookup
+            if (registry.get(playerId) != session) {
+                out.word(SessionProtocol.ERR).word(SessionProtocol.NO_SESSION).endLine();
+                return;
+            }
+            if (in.tokenEquals(0, SessionProtocol.GUESS)) {
+                int guess = in.intToken(2);
+                boolean wasOver = session.isRoundOver();
+                GuessOutcome outcome = session.evaluateGuess(guess);
+                if (!wasOver && outcome.isGameOver()) {
+                    registry.recordResult(playerId, outcome == GuessOutcome.CORRECT, session.getAttempts());
+                }
+                out.word(SessionProtocol.OUTCOMES[outcome.ordinal()]);
+                switch (outcome) {
+                    case LOW:
+                    case HIGH:
+                        out.number(session.getRemainingAttempts());
+                        break;
+                    case CORRECT:
+                        out.number(session.getAttempts());
+                        break;
+                    default:
+                        out.number(session.getTargetNumber());
+                        break;
+                }
+                out.endLine();
+            } else if (in.tokenEquals(0, SessionProtocol.POWER)) {
+                int powerUp = session.applyPowerUp();
+                if (powerUp != GameSession.POWER_UP_NONE) {
+                    registry.recordPowerUp(playerId);
+                }
+                switch (powerUp) {
+                    case GameSession.POWER_UP_LAST_DIGIT:
+                        out.word(SessionProtocol.LAST_DIGIT).number(session.getRevealedDigit());
+                        break;
+                    case GameSession.POWER_UP_RANGE:
+                        out.word(SessionProtocol.RANGE).number(session.getMinRange()).number(session.getMaxRange());
+                        break;
+                    case GameSession.POWER_UP_EXTRA_ATTEMPT:
+                        out.word(SessionProtocol.EXTRA_ATTEMPT).number(session.getMaxAttempts());
+                        break;
+                    default:
+                        out.word(SessionProtocol.NONE).number(0);
+                        break;
+                }
+                out.endLine();
+            } else if (in.tokenEquals(0, SessionProtocol.RESET)) {
+                session.resetGame();
+                writeRange(out, session);
+            } else {
+                out.word(SessionProtocol.ERR).word(SessionProtocol.UNKNOWN_COMMAND).endLine();
+            }
+        }
+    }
+
+    private void queryLeaderboard(SessionProtocol.LineReader in, SessionProtocol.LineWriter out) throws IOException {
+        Leaderboard.Metric metric = null;
+        for (Leaderboard.Metric m : Leaderboard.Metric.values()) {
+            if (in.tokens > 2 && in.tokenEquals(2, SessionProtocol.METRICS[m.ordinal()])) {
+                metric = m;
+            }
+        }
+        if (metric == null) {
+            out.word(SessionProtocol.ERR).word(SessionProtocol.UNKNOWN_METRIC).endLine();
+            return;
+        }
+
+        Leaderboard leaderboard = registry.getLeaderboard();
+        if (in.tokenEquals(0, SessionProtocol.RANK)) {
+            out.word(SessionProtocol.RANK).number(leaderboard.rank(metric, in.intToken(1))).endLine();
+            return;
+        }
+        int[] players = topBuffer.get();
+        int count = leaderboard.top(metric, Math.min(in.intToken(1), SessionProtocol.MAX_TOP), players);
+        out.word(SessionProtocol.TOP);
+        for (int i = 0; i < count; i++) {
+            out.number(players[i]);
+        }
+        out.endLine();
+    }
+
+    // Handoffs are rare, so they allocate their buffers
+    private void exportPlayer(int playerId, SessionProtocol.LineWriter out) throws IOException {
+        int[] state = new int[GameSession.STATE_FIELDS];
+        PlayerStats stats = new PlayerStats();
+        if (!registry.export(playerId, state, stats)) {
+            out.word(SessionProtocol.ERR).word(SessionProtocol.NO_SESSION).endLine();
+            return;
+        }
+        out.word(SessionProtocol.STATE);
+        for (int value : state) {
+            out.number(value);
+        }
+        out.number(stats.getTotalGames()).number(stats.getGamesWon())
+            .number(stats.getCurrentStreak()).number(stats.getBestStreak())
+            .number(stats.getTotalGuesses()).number(stats.getCoins())
+            .number(stats.getHighestLevel()).number(stats.getPowerUpsUsed());
+        long[] words = stats.getAchievementWords();
+        out.number(words.length);
+        for (long word : words) {
+            out.number((int) (word >>> 32)).number((int) word);
+        }
+        out.endLine();
+    }
+
+    private void importPlayer(int playerId, SessionProtocol.LineReader in, SessionProtocol.LineWriter out) throws IOException {
+        int[] state = new int[GameSession.STATE_FIELDS];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = in.intToken(2 + i);
+        }
+        int statsToken = 2 + GameSession.STATE_FIELDS;
+        int wordCount = in.intToken(statsToken + 8);
+        if (wordCount < 0 || wordCount > AchievementEngine.MAX_ACHIEVEMENTS / 64) {
+            throw new NumberFormatException("Bad achievement word count");
+        }
+        long[] words = new long[wordCount];
+        for (int w = 0; w < wordCount; w++) {
+            int token = statsToken + 9 + 2 * w;
+            words[w] = (long) in.intToken(token) << 32 | (in.intToken(token + 1) & 0xffffffffL);
+        }
+        PlayerStats stats = new PlayerStats();
+        stats.restore(in.intToken(statsToken), in.intToken(statsToken + 1), in.intToken(statsToken + 2),
+            in.intToken(statsToken + 3), in.intToken(statsToken + 4), in.intToken(statsToken + 5),
+            in.intToken(statsToken + 6), in.intToken(statsToken + 7), words);
+        GameSession session = registry.importSession(playerId, state, stats);
+        synchronized (session) {
+            writeRange(out, session);
+        }
+    }
+
+    private static void writeRange(SessionProtocol.LineWriter out, GameSession session) throws IOException {
+        out.word(SessionProtocol.OK)
+            .number(session.getMinRange())
+            .number(session.getMaxRange())
+            .number(session.getMaxAttempts())
+            .endLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
@@ -0,0 +1,204 @@
+package numbergame;
+
+import java.util.Arrays;
+
+// Sessions for bots and replay tools that guess at high rates, kept as parallel arrays
+// indexed by session id instead of one GameSession object each. guess() resolves a whole
+// batch of (session id, guess) pairs in one loop: the clock is read once per batch, wins,
+// losses and time-ups reach the metrics counters once per batch, and no feedback, history
+// or result object is built. Rules match GameSession.evaluateGuess() for rounds without
+// power-ups, and a round started from a seed has the target GameSession.startRound() would
+// draw. Guess history, power-ups, levels and event logging stay with GameSession.
+// Not thread-safe: one thread owns a table, as with a GameSession.
+final class SessionTable {
+    // guess() outcome for a session id that is closed or whose round is already over
+    static final byte NO_ROUND = -1;
+
+    private static final byte LOW = (byte) GuessOutcome.LOW.ordinal();
+    private static final byte HIGH = (byte) GuessOutcome.HIGH.ordinal();
+    private static final byte CORRECT = (byte) GuessOutcome.CORRECT.ordinal();
+    private static final byte TIME_UP = (byte) GuessOutcome.TIME_UP.ordinal();
+    private static final byte OUT_OF_ATTEMPTS = (byte) GuessOutcome.OUT_OF_ATTEMPTS.ordinal();
+    private static final GuessOutcome[] OUTCOMES = GuessOutcome.values();
+
+    // Session states
+    private static final byte FREE = 0;
+    private static final byte PLAYING = 1;
+    private static final byte OVER = 2;
+
+    private static final MetricsRegistry.Timer BATCH_TIME = MetricsRegistry.shared().timer("guessBatch");
+    private static final MetricsRegistry.Counter WINS = MetricsRegistry.shared().counter("games.won");
+    private static final MetricsRegistry.Counter LOSSES = MetricsRegistry.shared().counter("games.lost");
+    private static final MetricsRegistry.Counter TIME_UPS = MetricsRegistry.shared().counter("games.timeUp");
+
+    private final GameClock clock;
+    private byte[] states;
+    private int[] targets;
+    private int[] attempts;
+    private int[] maxAttempts;
+    private int[] minRanges;
+    private int[] maxRanges;
+    private int[] timeLimits;
+    private long[] deadlines;
+    // Closed ids, reused before the arrays grow
+    private int[] freeIds = new int[0];
+    private int freeCount;
+    private int highWater;
+
+    SessionTable(GameClock clock, int initialCapacity) {
+        this.clock = clock;
+        resize(Math.max(1, initialCapacity));
+    }
+
+    // Opens a session and starts its first round from the seed; returns the session id
+    int open(int minRange, int maxRange, int maxAttempts, int timeLimitSeconds, long seed) {
+        if (maxRange < minRange) {
+            throw new IllegalArgumentException("Empty range " + minRange + " - " + maxRange);
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (highWater == states.length) {
+                resize(states.length * 2);
+            }
+            id = highWater++;
+        }
+        minRanges[id] = minRange;
+        maxRanges[id] = maxRange;
+        this.maxAttempts[id] = maxAttempts;
+        timeLimits[id] = timeLimitSeconds;
+        beginRound(id, seed);
+        return id;
+    }
+
+    // Starts a new round on the session's bounds
+    void startRound(int id, long seed) {
+        checkOpen(id);
+        beginRound(id, seed);
+    }
+
+    private void beginRound(int id, long seed) {
+        int minRange = minRanges[id];
+        targets[id] = minRange + (int) RngProvider.bounded(seed, (long) maxRanges[id] - minRange + 1);
+        attempts[id] = 0;
+        deadlines[id] = clock.nanoTime() + timeLimits[id] * 1_000_000_000L;
+        states[id] = PLAYING;
+    }
+
+    void close(int id) {
+        checkOpen(id);
+        states[id] = FREE;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(16, freeCount * 2));
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    // Resolves count guesses, guesses[i] made on session sessionIds[i], in order, writing the
+    // GuessOutcome ordinal or NO_ROUND of each to outcomes[i]. All guesses of the batch are
+    // made at the same instant. Returns how many rounds the batch ended.
+    int guess(int[] sessionIds, int[] guesses, int count, byte[] outcomes) {
+        long start = BATCH_TIME.start();
+        long now = clock.nanoTime();
+        byte[] states = this.states;
+        int[] targets = this.targets;
+        int[] attempts = this.attempts;
+        int[] maxAttempts = this.maxAttempts;
+        long[] deadlines = this.deadlines;
+        int wins = 0, losses = 0, timeUps = 0;
+        for (int i = 0; i < count; i++) {
+            int id = sessionIds[i];
+            byte outcome;
+            if (states[id] != PLAYING) {
+                outcome = NO_ROUND;
+            } else if (now - deadlines[id] >= 0) {
+                states[id] = OVER;
+                timeUps++;
+                outcome = TIME_UP;
+            } else {
+                int guess = guesses[i];
+                int target = targets[id];
+                int tries = ++attempts[id];
+                if (guess == target) {
+                    states[id] = OVER;
+                    wins++;
+                    outcome = CORRECT;
+                } else if (tries >= maxAttempts[id]) {
+                    states[id] = OVER;
+                    losses++;
+                    outcome = OUT_OF_ATTEMPTS;
+                } else {
+                    outcome = guess < target ? LOW : HIGH;
+                }
+            }
+            outcomes[i] = outcome;
+        }
+        if (wins + losses + timeUps > 0) {
+            WINS.add(wins);
+            LOSSES.add(losses);
+            TIME_UPS.add(timeUps);
+        }
+        BATCH_TIME.stop(start);
+        return wins + losses + timeUps;
+    }
+
+    // Outcome for a value guess() wrote, or null for NO_ROUND
+    static GuessOutcome outcome(byte code) {
+        return code == NO_ROUND ? null : OUTCOMES[code];
+    }
+
+    int getAttempts(int id) {
+        return attempts[id];
+    }
+
+    int getTargetNumber(int id) {
+        return targets[id];
+    }
+
+    int getMinRange(int id) {
+        return minRanges[id];
+    }
+
+    int getMaxRange(int id) {
+        return maxRanges[id];
+    }
+
+    // True once the round has been won, lost or timed out; time-up is only noticed by guess()
+    boolean isRoundOver(int id) {
+        return states[id] == OVER;
+    }
+
+    // Open sessions
+    int size() {
+        return highWater - freeCount;
+    }
+
+    private void checkOpen(int id) {
+        if (id < 0 || id >= highWater || states[id] == FREE) {
+            throw new IllegalArgumentException("No open session " + id);
+        }
+    }
+
+    private void resize(int capacity) {
+        if (states == null) {
+            states = new byte[capacity];
+            targets = new int[capacity];
+            attempts = new int[capacity];
+            maxAttempts = new int[capacity];
+            minRanges = new int[capacity];
+            maxRanges = new int[capacity];
+            timeLimits = new int[capacity];
+            deadlines = new long[capacity];
+            return;
+        }
+        states = Arrays.copyOf(states, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        attempts = Arrays.copyOf(attempts, capacity);
+        maxAttempts = Arrays.copyOf(maxAttempts, capacity);
+        minRanges = Arrays.copyOf(minRanges, capacity);
+        maxRanges = Arrays.copyOf(maxRanges, capacity);
+        timeLimits = Arrays.copyOf(timeLimits, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+    }
+}
@@ -0,0 +1,337 @@
+package numbergame;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+class SimpleGameUI extends JFrame {
+    private static final int LOCAL_PLAYER = 0;
+    private static final GuessOutcome[] OUTCOMES = GuessOutcome.values();
+    // The rules live in the core; this window renders its events
+    private final GameCore core =
+        new GameCore(LOCAL_PLAYER, new PlayerStats(), GameClock.SYSTEM, RngProvider.SHARED.newStream());
+    private JTextField guessField;
+    private JLabel messageLabel, timerLabel;
+    private JButton guessButton, powerUpButton, restartButton;
+    private Timer gameTimer;
+    private int timeLeft = -1;
+    private JLabel levelLabel;
+    private JProgressBar levelBar;
+    private JLabel gamesStatsLabel, avgGuessesLabel, winRateLabel, coinsLabel;
+    // Height the statistics panel takes, reserved while lazy startup has not built it yet
+    private static final int STATS_PANEL_HEIGHT = 72;
+
+    public SimpleGameUI() {
+        setTitle("Guess the Number - Challenge Mode");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+        setResizable(false);
+        setSize(800, 600);
+        getContentPane().setBackground(Color.WHITE);
+
+        // Create main panel with white background
+        JPanel mainPanel = new JPanel();
+        mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.Y_AXIS));
+        mainPanel.setBackground(Color.WHITE);
+        mainPanel.setBorder(UiResources.FRAME_PADDING);
+
+        // Create level panel at the top
+        JPanel levelPanel = new JPanel();
+        levelPanel.setLayout(new BoxLayout(levelPanel, BoxLayout.Y_AXIS));
+        levelPanel.setBackground(Color.WHITE);
+        levelPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        // Add level label
+        levelLabel = new JLabel("Level 1");
+        levelLabel.setForeground(UiResources.ACCENT);
+        levelLabel.setFont(UiResources.SEGOE_12);
+        levelLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        levelPanel.add(levelLabel);
+
+        // Add level progress bar
+        levelBar = new JProgressBar(0, GameCore.MAX_ATTEMPTS);
+        levelBar.setPreferredSize(new Dimension(200, 5));
+        levelBar.setMaximumSize(new Dimension(200, 5));
+        levelBar.setForeground(UiResources.ACCENT);
+        levelBar.setBackground(Color.WHITE);
+        levelBar.setBorderPainted(false);
+        levelBar.setValue(0);
+        levelPanel.add(Box.createVerticalStrut(5));
+        levelPanel.add(levelBar);
+
+        // Create stats panel; lazy startup builds it into the holder after the first frame
+        JPanel statsHolder = new JPanel(new BorderLayout());
+        statsHolder.setBackground(Color.WHITE);
+        if (UiResources.LAZY_PANELS) {
+            statsHolder.setPreferredSize(new Dimension(0, STATS_PANEL_HEIGHT));
+        } else {
+            statsHolder.add(createStatsPanel());
+        }
+
+        // Create message label (centered)
+        messageLabel = new JLabel("🎯 Level 1: Guess a number between 1 and 100");
+        messageLabel.setFont(UiResources.SEGOE_20);
+        messageLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        // Create timer label (centered)
+        timerLabel = new JLabel("⏱️ Time: 60s");
+        timerLabel.setFont(UiResources.SEGOE_18);
+        timerLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        // Create input panel
+        JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        inputPanel.setBackground(Color.WHITE);
+
+        JLabel guessLabel = new JLabel("Your Guess:");
+        guessLabel.setFont(UiResources.SEGOE_12);
+        
+        guessField = new JTextField(8);
+        guessField.setPreferredSize(new Dimension(100, 25));
+        guessField.setFont(UiResources.SEGOE_12);
+        guessField.setBorder(UiResources.CONTROL_BORDER);
+
+        guessButton = new JButton("✓ Guess");
+        powerUpButton = new JButton("⚡ Use Power-Up");
+        restartButton = new JButton("↺ Restart");
+
+        // Style buttons
+        for (JButton button : new JButton[]{guessButton, powerUpButton, restartButton}) {
+            button.setBackground(Color.WHITE);
+            button.setFont(UiResources.SEGOE_12);
+            button.setBorderPainted(true);
+            button.setFocusPainted(false);
+            button.setBorder(UiResources.CONTROL_BORDER);
+            button.setPreferredSize(new Dimension(button.getPreferredSize().width, 25));
+        }
+
+        inputPanel.add(guessLabel);
+        inputPanel.add(guessField);
+        inputPanel.add(guessButton);
+        inputPanel.add(powerUpButton);
+        inputPanel.add(restartButton);
+
+        // Add components to main panel with exact spacing
+        mainPanel.add(levelPanel);
+        mainPanel.add(Box.createVerticalStrut(5));
+        mainPanel.add(statsHolder);
+        mainPanel.add(Box.createVerticalStrut(80));
+        mainPanel.add(messageLabel);
+        mainPanel.add(Box.createVerticalStrut(80));
+        mainPanel.add(timerLabel);
+        mainPanel.add(Box.createVerticalStrut(40));
+        mainPanel.add(inputPanel);
+
+        // Add main panel to frame
+        add(mainPanel);
+
+        // Add action listeners
+        guessButton.addActionListener(_ -> handleGuess());
+        powerUpButton.addActionListener(_ -> usePowerUp());
+        restartButton.addActionListener(_ -> startNewGame());
+        guessField.addActionListener(_ -> handleGuess());
+
+        // Create timer for the countdown label; the deadline itself is on the shared wheel
+        gameTimer = new Timer(1000, _ -> updateTimeLeft());
+        core.getBus().subscribe(this::onGameEvent);
+        if (UiResources.OUTCOME_STREAM) {
+            core.getBus().subscribe(new StatsRecorder(null, null, OutcomeStream.shared()));
+        }
+        core.watchDeadline(TimingWheel.shared(), () -> SwingUtilities.invokeLater(this::handleTimeUp));
+
+        // Restore saved statistics
+        if (!UiResources.LAZY_PANELS) {
+            openStatsStore();
+        }
+
+        // Start new game
+        startNewGame();
+
+        // Center the frame on screen
+        setLocationRelativeTo(null);
+        setVisible(true);
+
+        if (UiResources.LAZY_PANELS) {
+            SwingUtilities.invokeLater(() -> {
+                statsHolder.add(createStatsPanel());
+                statsHolder.setPreferredSize(null);
+                openStatsStore();
+                updateStats();
+                statsHolder.revalidate();
+            });
+        }
+    }
+
+    private JPanel createStatsPanel() {
+        JPanel statsPanel = new JPanel();
+        statsPanel.setLayout(new BoxLayout(statsPanel, BoxLayout.Y_AXIS));
+        statsPanel.setBorder(BorderFactory.createTitledBorder(UiResources.PANEL_BORDER, "📊 Statistics"));
+        statsPanel.setBackground(Color.WHITE);
+
+        // Stats content panel
+        JPanel statsContent = new JPanel(new GridLayout(2, 2, 10, 5));
+        statsContent.setBackground(Color.WHITE);
+        statsContent.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+
+        // Stats labels
+        gamesStatsLabel = new JLabel("Games: 0 | Wins: 0 | Streak: 0");
+        winRateLabel = new JLabel("Win Rate: 0%");
+        avgGuessesLabel = new JLabel("Avg Guesses: 0");
+        coinsLabel = new JLabel("💰 Coins: 0");
+
+        // Set font for all stats labels
+        gamesStatsLabel.setFont(UiResources.SEGOE_12);
+        winRateLabel.setFont(UiResources.SEGOE_12);
+        avgGuessesLabel.setFont(UiResources.SEGOE_12);
+        coinsLabel.setFont(UiResources.SEGOE_12);
+
+        // Add stats labels to content panel
+        statsContent.add(gamesStatsLabel);
+        statsContent.add(winRateLabel);
+        statsContent.add(avgGuessesLabel);
+        statsContent.add(coinsLabel);
+
+        statsPanel.add(statsContent);
+        return statsPanel;
+    }
+
+    // Startup probe: once the window is open, plays one guess through the normal path and
+    // prints the time from JVM start to the guess being handled, then exits
+    void probeFirstGuess() {
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowOpened(java.awt.event.WindowEvent e) {
+                SwingUtilities.invokeLater(() -> {
+                    guessField.setText("50");
+                    handleGuess();
+                    System.out.println("startup.firstGuess.ms=" + UiResources.millisSinceJvmStart());
+                    System.exit(0);
+                });
+            }
+        });
+    }
+
+    private void openStatsStore() {
+        PlayerStatsStore statsStore;
+        try {
+            // Writes are flushed once per recorder batch, so a small buffer loses nothing in practice
+            statsStore = PlayerStatsStore.open(Path.of(System.getProperty("user.home"), ".guessthenumber"), 64, 1000);
+        } catch (IOException e) {
+            System.err.println("Statistics will not be saved: " + e.getMessage());
+            return;
+        }
+        core.getStats().copyFrom(statsStore.load(LOCAL_PLAYER));
+        updateStats();
+
+        // Saving runs off the EDT; the recorder drains its queue before the store closes
+        GameBus.Batched recorder = new GameBus.Batched(new StatsRecorder(statsStore, null, null), 1024, "stats-recorder");
+        core.getBus().subscribe(recorder);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            recorder.close();
+            try {
+                statsStore.close();
+            } catch (IOException e) {
+                System.err.println("Could not save statistics: " + e.getMessage());
+            }
+        }));
+    }
+
+    private void startNewGame() {
+        core.startNewGame();
+    }
+
+    private void handleGuess() {
+        if (!guessField.isEnabled()) return;
+        
+        try {
+            core.guess(Integer.parseInt(guessField.getText()));
+            guessField.setText("");
+            guessField.requestFocus();
+        } catch (NumberFormatException ex) {
+            messageLabel.setText("❌ Enter a valid number!");
+        }
+    }
+
+    private void usePowerUp() {
+        core.usePowerUp();
+    }
+
+    private void handleTimeUp() {
+        if (core.checkTimeUp()) {
+            updateTimeLeft();
+        }
+    }
+
+    // Renders the core's events; runs on the EDT, where the core is driven
+    private void onGameEvent(long nanos, int playerId, int type, int a, int b) {
+        GameSession session = core.getSession();
+        switch (type) {
+            case GameBus.ROUND_STARTED:
+                updateTimeLeft();
+                messageLabel.setText(String.format("🎯 Level %d: Guess a number between %d and %d",
+                    a, session.getMinRange(), session.getMaxRange()));
+                guessField.setText("");
+                guessField.setEnabled(true);
+                levelLabel.setText("Level " + a);
+                levelBar.setMaximum(b);
+                levelBar.setValue(0);
+                powerUpButton.setText("⚡ Use Power-Up");
+                gameTimer.start();
+                guessField.requestFocus();
+                break;
+            case GameBus.GUESSED:
+                levelBar.setValue(b);
+                if (a == GuessOutcome.LOW.ordinal() || a == GuessOutcome.HIGH.ordinal()) {
+                    messageLabel.setText(OUTCOMES[a].triesLeftMessage(session.getRemainingAttempts()));
+                }
+                break;
+            case GameBus.POWER_UP:
+                messageLabel.setText(session.describePowerUp(a));
+                powerUpButton.setText("⚡ Use Power-Up (" + b + ")");
+                break;
+            case GameBus.ROUND_ENDED:
+                gameTimer.stop();
+                guessField.setEnabled(false);
+                if (a == GuessOutcome.CORRECT.ordinal()) {
+                    messageLabel.setText("🎉 Correct! You won in " + b + " attempts!");
+                } else {
+                    messageLabel.setText("❌ Game Over! The number was " + session.getTargetNumber());
+                }
+                updateStats();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void updateTimeLeft() {
+        long remaining = core.getSession().getDeadlineNanos() - System.nanoTime();
+        int seconds = (int) Math.max(0, (remaining + 999_999_999L) / 1_000_000_000L);
+        if (seconds != timeLeft) {
+            timeLeft = seconds;
+            timerLabel.setText("⏱️ Time: " + timeLeft + "s");
+        }
+    }
+
+    private void updateStats() {
+        if (gamesStatsLabel == null) {
+            return; // Lazy startup has not built the panel yet; it renders once it has
+        }
+        PlayerStats stats = core.getStats();
+        renderStats(stats.getTotalGames(), stats.getGamesWon(), stats.getCurrentStreak(), stats.getTotalGuesses(),
+            stats.getCoins(), gamesStatsLabel, avgGuessesLabel, winRateLabel, coinsLabel);
+    }
+
+    // Static so the label formatting can be benchmarked without a frame
+    static void renderStats(int totalGames, int gamesWon, int currentStreak, int totalGuesses, int coins,
+                            JLabel gamesStatsLabel, JLabel avgGuessesLabel, JLabel winRateLabel, JLabel coinsLabel) {
+        double avgGuesses = totalGames == 0 ? 0 : (double) totalGuesses / totalGames;
+        double winRate = totalGames == 0 ? 0 : (double) gamesWon / totalGames * 100;
+        
+        gamesStatsLabel.setText(String.format("Games: %d | Wins: %d | Streak: %d", totalGames, gamesWon, currentStreak));
+        avgGuessesLabel.setText(String.format("Avg Guesses: %.1f", avgGuesses));
+        winRateLabel.setText(String.format("Win Rate: %.1f%%", winRate));
+        coinsLabel.setText("💰 Coins: " + coins);
+    }
+}
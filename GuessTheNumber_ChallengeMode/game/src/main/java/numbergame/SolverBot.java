@@ -0,0 +1,64 @@
+package numbergame;
+
+// Bot player that follows OptimalSolver. It only tracks what a player can see - the candidate
+// interval, the revealed last digit, guesses and power-ups left - so the same bot drives an
+// in-process GameSession or a remote session over SessionProtocol. Each move is one solver
+// table lookup once a state has been solved.
+final class SolverBot {
+    // nextMove() result meaning "use a power-up now"
+    static final int USE_POWER_UP = Integer.MIN_VALUE;
+
+    private final OptimalSolver solver;
+    private int low, high;
+    private int attemptsLeft;
+    private int powerUps;
+    private int digit;
+
+    SolverBot(OptimalSolver solver) {
+        this.solver = solver;
+    }
+
+    void startRound(int minRange, int maxRange, int maxAttempts, int powerUps) {
+        this.low = minRange;
+        this.high = maxRange;
+        this.attemptsLeft = maxAttempts;
+        this.powerUps = powerUps;
+        this.digit = -1;
+    }
+
+    // Number to guess next, or USE_POWER_UP
+    int nextMove() {
+        boolean digitKnown = digit >= 0;
+        int first = digitKnown ? low + Math.floorMod(digit - low, 10) : low;
+        int step = digitKnown ? 10 : 1;
+        int candidates = high < first ? 1 : (high - first) / step + 1;
+        int move = solver.bestMove(candidates, attemptsLeft, powerUps, digitKnown);
+        if (move == OptimalSolver.USE_POWER_UP) {
+            return USE_POWER_UP;
+        }
+        return first + move * step;
+    }
+
+    void onGuess(int guess, GuessOutcome outcome) {
+        attemptsLeft--;
+        if (outcome == GuessOutcome.LOW) {
+            low = guess + 1;
+        } else if (outcome == GuessOutcome.HIGH) {
+            high = guess - 1;
+        }
+    }
+
+    // code is a GameSession.POWER_UP_* value; revealedDigit is used for POWER_UP_LAST_DIGIT
+    void onPowerUp(int code, int revealedDigit) {
+        if (code == GameSession.POWER_UP_NONE) {
+            powerUps = 0;
+            return;
+        }
+        powerUps--;
+        if (code == GameSession.POWER_UP_LAST_DIGIT) {
+            digit = revealedDigit;
+        } else if (code == GameSession.POWER_UP_EXTRA_ATTEMPT) {
+            attemptsLeft++;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package numbergame;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Headless GameBus consumer for persistence, rankings and metrics: finished rounds, power-ups
+// and level-ups go to a PlayerStatsStore, to a Leaderboard and, as outcomes, to an
+// OutcomeStream; any of the three may be null. For the leaderboard it replays each player's
+// events into its own PlayerStats replica, applying the rules GameCore applied, so it never
+// reads a core's state and can run on a GameBus.Batched thread. Store writes are flushed once
+// per delivered batch. The OutcomeStream must share the cores' clock.
+final class StatsRecorder implements GameBus.Listener {
+    private static final GuessOutcome[] OUTCOMES = GuessOutcome.values();
+
+    private final PlayerStatsStore store;
+    private final Leaderboard leaderboard;
+    private final OutcomeStream outcomes;
+    private PlayerStats[] replicas = new PlayerStats[0];
+    private int[] levels = new int[0];
+
+    StatsRecorder(PlayerStatsStore store, Leaderboard leaderboard, OutcomeStream outcomes) {
+        this.store = store;
+        this.leaderboard = leaderboard;
+        this.outcomes = outcomes;
+    }
+
+    @Override
+    public void onEvent(long nanos, int playerId, int type, int a, int b) {
+        if (playerId >= levels.length) {
+            int capacity = Math.max(playerId + 1, levels.length * 2);
+            replicas = Arrays.copyOf(replicas, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+        }
+        // Taken before this event reaches the store, which a new replica is loaded from
+        PlayerStats replica = leaderboard == null || type == GameBus.ROUND_STARTED ? null : replica(playerId);
+        try {
+            switch (type) {
+                case GameBus.ROUND_STARTED:
+                    levels[playerId] = a;
+                    break;
+                case GameBus.ROUND_ENDED:
+                    boolean won = a == GuessOutcome.CORRECT.ordinal();
+                    if (store != null) {
+                        store.recordGame(playerId, won, b);
+                    }
+                    if (replica != null) {
+                        replica.updateStats(won, b);
+                        leaderboard.update(playerId, replica);
+                    }
+                    if (outcomes != null) {
+                        outcomes.publish(nanos, levels[playerId], OUTCOMES[a], b);
+                    }
+                    break;
+                case GameBus.POWER_UP:
+                    if (a != GameSession.POWER_UP_NONE) {
+                        if (store != null) {
+                            store.recordPowerUp(playerId);
+                        }
+                        if (replica != null) {
+                            replica.recordPowerUp();
+                        }
+                    }
+                    break;
+                case GameBus.LEVEL_UP:
+                    levels[playerId] = a;
+                    if (store != null) {
+                        store.recordLevel(playerId, a);
+                    }
+                    if (replica != null) {
+                        replica.recordLevel(a);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not save statistics of player " + playerId + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void endOfBatch() {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.flush();
+        } catch (IOException e) {
+            System.err.println("Could not save statistics: " + e.getMessage());
+        }
+    }
+
+    // The player's replica, starting from their stored stats before the first event
+    private PlayerStats replica(int playerId) {
+        PlayerStats replica = replicas[playerId];
+        if (replica == null) {
+            replica = store != null ? store.load(playerId) : new PlayerStats();
+            replicas[playerId] = replica;
+        }
+        return replica;
+    }
+}
@@ -0,0 +1,220 @@
+package numbergame;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// Hierarchical timing wheel shared by every session deadline in the JVM. One daemon thread
+// advances the wheel; callers only push Timeout objects onto a lock-free stack, so arming
+// or cancelling a deadline never blocks and never allocates. Four levels of 64 slots at a
+// 10 ms tick cover about 46 hours before an entry has to be re-cascaded.
+//
+// Callbacks run on the wheel thread and must be short; UI code should hand off with
+// SwingUtilities.invokeLater.
+class TimingWheel {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long NOT_ARMED = Long.MIN_VALUE;
+
+    private static TimingWheel shared;
+
+    // A reusable deadline. Re-arming an armed Timeout moves it instead of adding a second entry.
+    static final class Timeout {
+        private final Runnable task;
+        private final AtomicLong requestedDeadline = new AtomicLong(NOT_ARMED);
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private Timeout nextPending;
+
+        // Owned by the wheel thread
+        private long deadline = NOT_ARMED;
+        private long expirationTick;
+        private Timeout prev, next;
+        private Slot slot;
+
+        Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        boolean isArmed() {
+            return requestedDeadline.get() != NOT_ARMED;
+        }
+    }
+
+    private static final class Slot {
+        Timeout head;
+
+        void link(Timeout t) {
+            t.slot = this;
+            t.prev = null;
+            t.next = head;
+            if (head != null) head.prev = t;
+            head = t;
+        }
+
+        void unlink(Timeout t) {
+            if (t.prev != null) t.prev.next = t.next; else head = t.next;
+            if (t.next != null) t.next.prev = t.prev;
+            t.prev = t.next = null;
+            t.slot = null;
+        }
+    }
+
+    private final GameClock clock;
+    private final long tickNanos;
+    private final long originNanos;
+    private final Slot[][] wheels = new Slot[LEVELS][WHEEL_SIZE];
+    private final AtomicReference<Timeout> pending = new AtomicReference<>();
+    private final Thread worker;
+    private long currentTick;
+    private volatile int activeTimeouts;
+    private volatile boolean running = true;
+
+    TimingWheel(GameClock clock, long tickNanos) {
+        this.clock = clock;
+        this.tickNanos = tickNanos;
+        this.originNanos = clock.nanoTime();
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) wheel[i] = new Slot();
+        }
+        worker = new Thread(this::run, "timing-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // JVM-wide wheel on the system clock with a 10 ms tick
+    static synchronized TimingWheel shared() {
+        if (shared == null) {
+            shared = new TimingWheel(GameClock.SYSTEM, 10_000_000L);
+            MetricsRegistry.shared().gauge("timers.active", shared::size);
+        }
+        return shared;
+    }
+
+    // Arms (or moves) the timeout to fire once at the given clock.nanoTime() deadline
+    void schedule(Timeout timeout, long deadlineNanos) {
+        timeout.requestedDeadline.set(deadlineNanos == NOT_ARMED ? NOT_ARMED + 1 : deadlineNanos);
+        enqueue(timeout);
+    }
+
+    void cancel(Timeout timeout) {
+        if (timeout.requestedDeadline.get() == NOT_ARMED) {
+            return;
+        }
+        timeout.requestedDeadline.set(NOT_ARMED);
+        enqueue(timeout);
+    }
+
+    // Number of armed timeouts currently held by the wheel
+    int size() {
+        return activeTimeouts;
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void enqueue(Timeout timeout) {
+        if (!timeout.queued.compareAndSet(false, true)) {
+            return; // Already waiting; the wheel thread will read the latest deadline
+        }
+        Timeout head;
+        do {
+            head = pending.get();
+            timeout.nextPending = head;
+        } while (!pending.compareAndSet(head, timeout));
+    }
+
+    private void run() {
+        while (running) {
+            drainPending();
+            long nowTick = (clock.nanoTime() - originNanos) / tickNanos;
+            while (currentTick < nowTick) {
+                currentTick++;
+                cascade();
+                expire(wheels[0][(int) (currentTick & WHEEL_MASK)]);
+            }
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+
+    private void drainPending() {
+        Timeout t = pending.getAndSet(null);
+        while (t != null) {
+            Timeout next = t.nextPending;
+            t.nextPending = null;
+            t.queued.set(false);
+            long requested = t.requestedDeadline.get();
+            if (t.slot != null) {
+                t.slot.unlink(t);
+                activeTimeouts--;
+            }
+            t.deadline = requested;
+            if (requested != NOT_ARMED) {
+                t.expirationTick = Math.max(currentTick + 1, ceilTick(requested));
+                activeTimeouts++;
+                place(t);
+            }
+            t = next;
+        }
+    }
+
+    private long ceilTick(long deadlineNanos) {
+        long offset = deadlineNanos - originNanos;
+        return offset <= 0 ? 0 : (offset + tickNanos - 1) / tickNanos;
+    }
+
+    // Puts the timeout on the lowest level whose span still reaches its expiration tick
+    private void place(Timeout t) {
+        long delta = t.expirationTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * WHEEL_BITS;
+            if (delta < (long) WHEEL_SIZE << shift || level == LEVELS - 1) {
+                long tick = level == LEVELS - 1 ? Math.min(t.expirationTick, currentTick + ((long) WHEEL_MASK << shift)) : t.expirationTick;
+                wheels[level][(int) ((tick >>> shift) & WHEEL_MASK)].link(t);
+                return;
+            }
+        }
+    }
+
+    // On each boundary of a higher level, pull its current slot down to finer levels
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = level * WHEEL_BITS;
+            if ((currentTick & ((1L << shift) - 1)) == 0) {
+                Slot slot = wheels[level][(int) ((currentTick >>> shift) & WHEEL_MASK)];
+                Timeout t = slot.head;
+                while (t != null) {
+                    Timeout next = t.next;
+                    slot.unlink(t);
+                    place(t);
+                    t = next;
+                }
+            }
+        }
+    }
+
+    private void expire(Slot slot) {
+        Timeout t = slot.head;
+        while (t != null) {
+            Timeout next = t.next;
+            if (t.expirationTick <= currentTick) {
+                slot.unlink(t);
+                activeTimeouts--;
+                // Skip if the owner re-armed or cancelled after this entry was placed; the CAS
+                // disarms only the deadline that expired, never one a racing schedule() set
+                if (!t.queued.get() && t.requestedDeadline.compareAndSet(t.deadline, NOT_ARMED)) {
+                    try {
+                        t.task.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Timeout task failed: " + e);
+                    }
+                }
+            }
+            t = next;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package numbergame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Offline difficulty tuning: every player climbs the whole increaseDifficulty() ladder, playing
+// roundsPerLevel rounds at each level whatever the outcome. Players are split in halves across
+// a work-stealing ForkJoinPool down to small leaves, and the per-level aggregates of the halves
+// are added on the way back up. Rounds are seeded from (seed, player, level, round), so results
+// do not depend on the thread count. Guesses take HeadlessDriver's think time on a simulated
+// clock, so time limits apply as in play. With a history directory every game is also appended
+// to a GameHistoryStore there, and win rates, streaks and attempts are reported from its scans.
+// Usage: java numbergame.TournamentRunner [players] [levels] [roundsPerLevel] [bisect|optimal] [threads] [seed] [historyDir]
+public class TournamentRunner {
+    private static final int LEAF_PLAYERS = 16;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int levels;
+    private final int roundsPerLevel;
+    private final boolean optimal;
+    private final long seed;
+    private final GameHistoryStore history;
+    private final ThreadLocal<SolverBot> bots = ThreadLocal.withInitial(() -> new SolverBot(new OptimalSolver()));
+
+    // Per-level totals over any set of players
+    static final class LevelStats {
+        final int[] minRange, maxRange, maxAttempts, timeLimit;
+        final long[] games, wins, guesses, timeUps, powerUps;
+
+        LevelStats(int levels) {
+            minRange = new int[levels];
+            maxRange = new int[levels];
+            maxAttempts = new int[levels];
+            timeLimit = new int[levels];
+            games = new long[levels];
+            wins = new long[levels];
+            guesses = new long[levels];
+            timeUps = new long[levels];
+            powerUps = new long[levels];
+        }
+
+        void add(LevelStats other) {
+            for (int l = 0; l < games.length; l++) {
+                if (other.games[l] > 0) {
+                    minRange[l] = other.minRange[l];
+                    maxRange[l] = other.maxRange[l];
+                    maxAttempts[l] = other.maxAttempts[l];
+                    timeLimit[l] = other.timeLimit[l];
+                }
+                games[l] += other.games[l];
+                wins[l] += other.wins[l];
+                guesses[l] += other.guesses[l];
+                timeUps[l] += other.timeUps[l];
+                powerUps[l] += other.powerUps[l];
+            }
+        }
+
+        long totalGames() {
+            long total = 0;
+            for (long g : games) total += g;
+            return total;
+        }
+    }
+
+    TournamentRunner(int levels, int roundsPerLevel, boolean optimal, long seed) {
+        this(levels, roundsPerLevel, optimal, seed, null);
+    }
+
+    // Every game played is appended to history when it is not null
+    TournamentRunner(int levels, int roundsPerLevel, boolean optimal, long seed, GameHistoryStore history) {
+        this.levels = levels;
+        this.roundsPerLevel = roundsPerLevel;
+        this.optimal = optimal;
+        this.seed = seed;
+        this.history = history;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int levels = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        boolean optimal = args.length > 3 && args[3].equals("optimal");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+        GameHistoryStore history = args.length > 6 ? GameHistoryStore.open(Path.of(args[6])) : null;
+
+        System.out.printf("%,d players x %d levels x %d rounds, %s play on %d threads%n",
+            players, levels, rounds, optimal ? "optimal" : "bisection", threads);
+        TournamentRunner runner = new TournamentRunner(levels, rounds, optimal, seed, history);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            LevelStats stats = runner.run(pool, players);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            print(stats);
+            System.out.printf("%,d games in %.2fs = %,.0f games/sec (%,d steals)%n",
+                stats.totalGames(), seconds, stats.totalGames() / seconds, pool.getStealCount());
+            if (history != null) {
+                printHistory(history);
+            }
+        } finally {
+            pool.shutdown();
+            if (history != null) {
+                history.close();
+            }
+        }
+    }
+
+    LevelStats run(ForkJoinPool pool, int players) {
+        return pool.invoke(new Players(0, players));
+    }
+
+    private static void print(LevelStats stats) {
+        System.out.println("Level  Range            Attempts  Time  Games        Win%    Guesses  TimeUp%  PowerUps");
+        for (int l = 0; l < stats.games.length; l++) {
+            long games = Math.max(1, stats.games[l]);
+            System.out.printf("%5d  %-15s  %8d  %3ds  %,11d  %6.2f  %7.2f  %7.2f  %8.2f%n",
+                l + 1, stats.minRange[l] + "-" + stats.maxRange[l], stats.maxAttempts[l], stats.timeLimit[l],
+                stats.games[l], stats.wins[l] * 100.0 / games, (double) stats.guesses[l] / games,
+                stats.timeUps[l] * 100.0 / games, (double) stats.powerUps[l] / games);
+        }
+    }
+
+    // Reports over every game in the store, including those of earlier runs
+    private static void printHistory(GameHistoryStore history) {
+        long start = System.nanoTime();
+        GameHistoryStore.LevelCounts levels = history.winRateByLevel();
+        long[] streaks = history.streakDistribution();
+        long[] attempts = history.attemptsHistogram();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%nHistory: %,d games, scanned 3 times in %.2fs%n", history.size(), seconds);
+        System.out.println("Level  Games        Win%");
+        for (int l = 1; l < levels.games().length; l++) {
+            System.out.printf("%5d  %,11d  %6.2f%n", l, levels.games()[l], levels.winRate(l) * 100);
+        }
+        System.out.print("Win streaks:");
+        for (int n = 1; n < streaks.length; n++) {
+            if (streaks[n] > 0) {
+                System.out.printf(" %d%s=%,d", n, n == GameHistoryStore.MAX_STREAK ? "+" : "", streaks[n]);
+            }
+        }
+        System.out.print("\nWins by attempts:");
+        for (int a = 1; a < attempts.length; a++) {
+            System.out.printf(" %d=%,d", a, attempts[a]);
+        }
+        System.out.println();
+    }
+
+    // Players [first, last), split in halves until a leaf is small enough to play directly
+    private class Players extends RecursiveTask<LevelStats> {
+        private final int first, last;
+
+        Players(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected LevelStats compute() {
+            if (last - first <= LEAF_PLAYERS) {
+                return play(first, last);
+            }
+            int middle = (first + last) >>> 1;
+            Players left = new Players(first, middle);
+            left.fork();
+            LevelStats stats = new Players(middle, last).compute();
+            stats.add(left.join());
+            return stats;
+        }
+    }
+
+    private LevelStats play(int first, int last) {
+        LevelStats stats = new LevelStats(levels);
+        ManualClock clock = new ManualClock(0);
+        SolverBot bot = optimal ? bots.get() : null;
+        for (int player = first; player < last; player++) {
+            long playerSeed = GameSession.mix(seed + player * GOLDEN_GAMMA);
+            GameSession session = new GameSession(1, 100, 10, clock, new SplittableRandom(playerSeed));
+            for (int l = 0; l < levels; l++) {
+                if (l > 0) {
+                    session.increaseDifficulty();
+                }
+                stats.minRange[l] = session.getMinRange();
+                stats.maxRange[l] = session.getMaxRange();
+                stats.maxAttempts[l] = session.getMaxAttempts();
+                stats.timeLimit[l] = session.getTimeLimit();
+                for (int r = 0; r < roundsPerLevel; r++) {
+                    // Mixed rather than stepped by GOLDEN_GAMMA: the target and power-up draws step
+                    // by it from the round seed, so stepped seeds would share draws between rounds
+                    session.startRound(GameSession.mix(playerSeed + ((long) l * roundsPerLevel + r + 1) * GOLDEN_GAMMA));
+                    GuessOutcome outcome = optimal
+                        ? HeadlessDriver.playOptimal(session, clock, bot)
+                        : HeadlessDriver.playBisection(session, clock);
+                    if (history != null) {
+                        try {
+                            history.record(player, session, outcome);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    stats.games[l]++;
+                    stats.guesses[l] += session.getAttempts();
+                    stats.powerUps[l] += GameSession.POWER_UPS_PER_ROUND - session.getPowerUps();
+                    if (outcome == GuessOutcome.CORRECT) {
+                        stats.wins[l]++;
+                    } else if (outcome == GuessOutcome.TIME_UP) {
+                        stats.timeUps[l]++;
+                    }
+                }
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,48 @@
+package numbergame;
+
+import javax.swing.BorderFactory;
+import javax.swing.border.Border;
+import java.awt.Color;
+import java.awt.Font;
+
+// Fonts, colours and borders of both game windows, created once instead of per component.
+// All of them are immutable, so one instance can be shared by every component that uses it.
+//
+// -Dnumbergame.startup=lazy puts the windows in fast-startup mode: the play area is shown
+// first and the statistics panel (plus, in SimpleGameUI, the saved statistics) follows one
+// event later; EnhancedGameUI only builds its achievements panel when the first achievement
+// is unlocked. -Dnumbergame.startupProbe=true makes the game play one guess as soon as its
+// window opens, print the time since JVM start and exit, for StartupBenchmark.
+// -Dnumbergame.outcomes=true feeds finished rounds to OutcomeStream.shared(), whose windows
+// show up in the metrics dump; without it the windows never create the stream.
+final class UiResources {
+    static final boolean LAZY_PANELS = System.getProperty("numbergame.startup", "eager").equals("lazy");
+    static final boolean STARTUP_PROBE = Boolean.getBoolean("numbergame.startupProbe");
+    static final boolean OUTCOME_STREAM = Boolean.getBoolean("numbergame.outcomes");
+
+    static final Font SEGOE_12 = new Font("Segoe UI", Font.PLAIN, 12);
+    static final Font SEGOE_18 = new Font("Segoe UI", Font.PLAIN, 18);
+    static final Font SEGOE_20 = new Font("Segoe UI", Font.PLAIN, 20);
+    static final Font ARIAL_18 = new Font("Arial", Font.PLAIN, 18);
+    static final Font ARIAL_20 = new Font("Arial", Font.PLAIN, 20);
+    static final Font ARIAL_BOLD_16 = new Font("Arial", Font.BOLD, 16);
+    static final Font ARIAL_BOLD_32 = new Font("Arial", Font.BOLD, 32);
+
+    static final Color ACCENT = new Color(51, 153, 255);
+    static final Color PANEL_LINE = new Color(240, 240, 240);
+    static final Color CONTROL_LINE = new Color(200, 200, 200);
+
+    static final Border PANEL_BORDER = BorderFactory.createLineBorder(PANEL_LINE);
+    static final Border CONTROL_BORDER = BorderFactory.createLineBorder(CONTROL_LINE);
+    static final Border FRAME_PADDING = BorderFactory.createEmptyBorder(10, 10, 10, 10);
+
+    private UiResources() {
+    }
+
+    // Milliseconds since this JVM was started, or -1 if the OS does not say
+    static long millisSinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+            .map(start -> System.currentTimeMillis() - start.toEpochMilli())
+            .orElse(-1L);
+    }
+}
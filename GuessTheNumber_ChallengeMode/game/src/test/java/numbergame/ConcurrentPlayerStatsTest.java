@@ -0,0 +1,78 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentPlayerStatsTest {
+    private static final int THREADS = 4;
+    private static final int GAMES = 200_000;
+
+    @Test
+    void snapshotsNeverTearAGame() throws InterruptedException {
+        ConcurrentPlayerStats stats = new ConcurrentPlayerStats(AchievementEngine.defaultEngine(), THREADS);
+        AtomicBoolean torn = new AtomicBoolean();
+        Thread[] writers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            // Every game a win in two guesses, so a consistent view has guesses = 2 x wins = 2 x games
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < GAMES; i++) {
+                    stats.updateStats(true, 2);
+                }
+            });
+            writers[t].start();
+        }
+        Thread reader = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                ConcurrentPlayerStats.Snapshot s = stats.snapshot();
+                if (s.gamesWon() != s.totalGames() || s.totalGuesses() != 2 * s.totalGames()) {
+                    torn.set(true);
+                }
+            }
+        });
+        reader.start();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        reader.interrupt();
+        reader.join();
+
+        assertFalse(torn.get());
+        ConcurrentPlayerStats.Snapshot s = stats.snapshot();
+        assertEquals((long) THREADS * GAMES, s.totalGames());
+        assertEquals(100.0, s.winRate());
+        assertEquals(2.0, s.averageGuesses());
+        assertEquals(s.totalGames(), s.bestStreak());
+        assertEquals(s.totalGames(), s.currentStreak());
+    }
+
+    @Test
+    void copiesIntoPlayerStats() {
+        ConcurrentPlayerStats stats = new ConcurrentPlayerStats(AchievementEngine.defaultEngine(), 8);
+        PlayerStats expected = new PlayerStats();
+        for (int i = 0; i < 1_000; i++) {
+            boolean won = i % 3 != 0;
+            stats.updateStats(won, 1 + i % 7);
+            expected.updateStats(won, 1 + i % 7);
+        }
+        stats.recordPowerUp();
+        expected.recordPowerUp();
+        stats.recordLevel(4);
+        expected.recordLevel(4);
+        assertTrue(stats.spendCoins(5));
+        assertTrue(expected.spendCoins(5));
+
+        PlayerStats copy = new PlayerStats();
+        stats.copyTo(copy);
+        assertEquals(expected.getTotalGames(), copy.getTotalGames());
+        assertEquals(expected.getGamesWon(), copy.getGamesWon());
+        assertEquals(expected.getTotalGuesses(), copy.getTotalGuesses());
+        assertEquals(expected.getBestStreak(), copy.getBestStreak());
+        assertEquals(expected.getHighestLevel(), copy.getHighestLevel());
+        assertEquals(expected.getUnlockedAchievements(), copy.getUnlockedAchievements());
+        assertEquals(expected.getCoins(), copy.getCoins());
+        assertFalse(stats.spendCoins(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,73 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashTest {
+    private static final int PLAYERS = 100_000;
+    private static final int VIRTUAL_NODES = 128;
+
+    @Test
+    void addingANodeOnlyMovesPlayersOntoIt() {
+        ConsistentHash ring = new ConsistentHash(new int[] {9001, 9002, 9003, 9004}, VIRTUAL_NODES);
+        ConsistentHash grown = ring.with(9005);
+        int moved = 0;
+        for (int player = 0; player < PLAYERS; player++) {
+            int before = ring.owner(player);
+            int after = grown.owner(player);
+            if (before != after) {
+                assertEquals(9005, after);
+                moved++;
+            }
+        }
+        // About 1/5 of the players, with room for the spread of 128 points per node
+        assertTrue(moved > PLAYERS / 5 * 0.7 && moved < PLAYERS / 5 * 1.3, "moved " + moved);
+    }
+
+    @Test
+    void removingANodeOnlyMovesItsPlayers() {
+        ConsistentHash ring = new ConsistentHash(new int[] {1, 2, 3, 4, 5}, VIRTUAL_NODES);
+        ConsistentHash shrunk = ring.without(3);
+        assertArrayEquals(new int[] {1, 2, 4, 5}, shrunk.nodes());
+        int[] owned = new int[6];
+        for (int player = 0; player < PLAYERS; player++) {
+            int before = ring.owner(player);
+            int after = shrunk.owner(player);
+            owned[before]++;
+            assertNotEquals(3, after);
+            if (before != 3) {
+                assertEquals(before, after);
+            }
+        }
+        for (int node = 1; node <= 5; node++) {
+            assertTrue(owned[node] > PLAYERS / 5 * 0.7 && owned[node] < PLAYERS / 5 * 1.3,
+                "node " + node + " owns " + owned[node]);
+        }
+    }
+
+    @Test
+    void ownersAreDeterministic() {
+        ConsistentHash a = new ConsistentHash(new int[] {7, 8, 9}, VIRTUAL_NODES);
+        // Same nodes in another order, as a node rebuilding the ring from a membership list would
+        ConsistentHash b = new ConsistentHash(new int[] {9, 7, 8}, VIRTUAL_NODES);
+        ConsistentHash c = new ConsistentHash(new int[] {7}, VIRTUAL_NODES).with(8).with(9);
+        for (int player = 0; player < PLAYERS; player++) {
+            int owner = a.owner(player);
+            assertEquals(owner, b.owner(player));
+            assertEquals(owner, c.owner(player));
+        }
+    }
+
+    @Test
+    void unchangedMembershipKeepsTheRing() {
+        ConsistentHash ring = new ConsistentHash(new int[] {1, 2}, VIRTUAL_NODES);
+        assertSame(ring, ring.with(2));
+        assertSame(ring, ring.without(3));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHash(new int[0], VIRTUAL_NODES));
+        ConsistentHash single = new ConsistentHash(new int[] {4}, VIRTUAL_NODES);
+        assertEquals(4, single.owner(0));
+        assertEquals(4, single.owner(Integer.MAX_VALUE));
+        assertEquals(4, single.owner(-1));
+    }
+}
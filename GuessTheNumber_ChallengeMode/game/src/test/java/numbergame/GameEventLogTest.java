@@ -0,0 +1,139 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventLogTest {
+    private static final int SESSIONS = 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayRebuildsEverySession() throws IOException {
+        ManualClock clock = new ManualClock(1_000_000_000L);
+        SplittableRandom random = new SplittableRandom(7);
+        GameSession[] sessions = new GameSession[SESSIONS];
+        PlayerStats[] expected = new PlayerStats[SESSIONS];
+        // Small segments, so the replay has to read them in order
+        try (GameEventLog log = GameEventLog.open(dir, 1024, 4096)) {
+            for (int id = 0; id < SESSIONS; id++) {
+                sessions[id] = new GameSession(1, 100, 10, clock, random.split());
+                sessions[id].recordTo(log, id);
+                expected[id] = new PlayerStats();
+            }
+            for (int step = 0; step < 3_000; step++) {
+                int id = random.nextInt(SESSIONS);
+                play(sessions[id], expected[id], clock, random);
+            }
+        }
+
+        GameLogReplayer replayer = GameLogReplayer.replay(dir);
+        assertEquals(0, replayer.getMismatches());
+        assertEquals(SESSIONS, replayer.getSessionCount());
+        for (int id = 0; id < SESSIONS; id++) {
+            GameSession session = sessions[id];
+            GameSession replayed = replayer.session(id);
+            assertEquals(session.getTargetNumber(), replayed.getTargetNumber());
+            assertEquals(session.getAttempts(), replayed.getAttempts());
+            assertEquals(session.getLevel(), replayed.getLevel());
+            assertEquals(session.getMinRange(), replayed.getMinRange());
+            assertEquals(session.getMaxRange(), replayed.getMaxRange());
+            assertEquals(session.getPowerUps(), replayed.getPowerUps());
+            PlayerStats stats = replayer.stats(id);
+            assertEquals(expected[id].getTotalGames(), stats == null ? 0 : stats.getTotalGames());
+            assertEquals(expected[id].getGamesWon(), stats == null ? 0 : stats.getGamesWon());
+            assertEquals(expected[id].getPowerUpsUsed(), stats == null ? 0 : stats.getPowerUpsUsed());
+        }
+    }
+
+    @Test
+    void importedRoundReplaysOnItsNewSession() throws IOException {
+        ManualClock clock = new ManualClock(0);
+        SplittableRandom random = new SplittableRandom(11);
+        GameSession moved;
+        try (GameEventLog log = GameEventLog.open(dir)) {
+            GameSession source = new GameSession(1, 100, 10, clock, random.split());
+            source.recordTo(log, 0);
+            source.increaseDifficulty();
+            source.resetGame();
+            source.applyPowerUp();
+            source.evaluateGuess(source.getMinRange());
+            clock.advance(5_000);
+
+            int[] state = new int[GameSession.STATE_FIELDS];
+            source.exportState(state);
+            moved = new GameSession(1, 100, 10, clock, random.split());
+            moved.recordTo(log, 1);
+            moved.importState(state);
+            clock.advance(1_000);
+            moved.applyPowerUp();
+            moved.evaluateGuess(moved.getTargetNumber() == moved.getMinRange()
+                ? moved.getMaxRange() : moved.getMinRange());
+        }
+
+        GameLogReplayer replayer = GameLogReplayer.replay(dir);
+        assertEquals(0, replayer.getMismatches());
+        GameSession replayed = replayer.session(1);
+        assertEquals(moved.getTargetNumber(), replayed.getTargetNumber());
+        assertEquals(moved.getAttempts(), replayed.getAttempts());
+        assertEquals(moved.getLevel(), replayed.getLevel());
+        assertEquals(moved.getMaxAttempts(), replayed.getMaxAttempts());
+        assertEquals(moved.getPowerUps(), replayed.getPowerUps());
+    }
+
+    @Test
+    void tornTailEventIsIgnored() throws IOException {
+        ManualClock clock = new ManualClock(0);
+        try (GameEventLog log = GameEventLog.open(dir)) {
+            GameSession session = new GameSession(1, 100, 10, clock, new SplittableRandom(3));
+            session.recordTo(log, 0);
+            session.evaluateGuess(50);
+        }
+        Path segment = GameEventLog.segmentPath(dir, 0);
+        Files.write(segment, new byte[GameEventLog.EVENT_SIZE - 1], StandardOpenOption.APPEND);
+
+        GameLogReplayer replayer = GameLogReplayer.replay(dir);
+        assertEquals(0, replayer.getMismatches());
+        assertEquals(2, replayer.getEvents());
+        assertEquals(1, replayer.session(0).getAttempts());
+    }
+
+    // One random move of a player after some time has passed: a new round, a power-up or a guess.
+    // A round found timed out is counted and replaced in the same move, so each time-up counts once.
+    private static void play(GameSession session, PlayerStats stats, ManualClock clock, SplittableRandom random) {
+        int move = random.nextInt(100);
+        clock.advance(move < 2 ? 70_000 : random.nextInt(500)); // 70 s is past any level's time limit
+        boolean open = !session.isGameWon() && session.getAttempts() < session.getMaxAttempts();
+        if (open && session.isTimeUp()) {
+            stats.updateStats(false, session.getAttempts());
+            open = false;
+        }
+        if (!open || move < 5) {
+            if (session.isGameWon() && session.getLevel() < 6) {
+                session.increaseDifficulty();
+                stats.recordLevel(session.getLevel());
+            }
+            session.resetGame();
+        } else if (move < 12) {
+            if (session.applyPowerUp() != GameSession.POWER_UP_NONE) {
+                stats.recordPowerUp();
+            }
+        } else {
+            int guess = random.nextInt(4) == 0 ? session.getTargetNumber()
+                : random.nextInt(session.getMinRange(), session.getMaxRange() + 1);
+            GuessOutcome outcome = session.evaluateGuess(guess);
+            if (outcome.isGameOver()) {
+                stats.updateStats(outcome == GuessOutcome.CORRECT, session.getAttempts());
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHistoryStoreTest {
+    private static final int PLAYERS = 50;
+    private static final int ROWS = 20_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void scansMatchTheRowsAppended() throws IOException {
+        SplittableRandom random = new SplittableRandom(5);
+        long[] games = new long[8], wins = new long[8];
+        long[] streaks = new long[GameHistoryStore.MAX_STREAK + 1];
+        long[] attempts = new long[256];
+        int[] current = new int[PLAYERS];
+        // Segments smaller than the rows and not a multiple of the scan block
+        try (GameHistoryStore store = GameHistoryStore.open(dir, 6_000)) {
+            for (int i = 0; i < ROWS; i++) {
+                int player = random.nextInt(PLAYERS);
+                int level = random.nextInt(1, 8);
+                int tries = random.nextInt(1, 300);
+                // Mostly wins, so some streaks reach MAX_STREAK
+                GuessOutcome outcome = random.nextInt(40) == 0 ? GuessOutcome.OUT_OF_ATTEMPTS : GuessOutcome.CORRECT;
+                store.append(player, level, 100 * level, tries, outcome, random.nextInt(60_000), random.nextInt(4));
+
+                games[level]++;
+                if (outcome == GuessOutcome.CORRECT) {
+                    wins[level]++;
+                    attempts[Math.min(tries, 255)]++;
+                    current[player]++;
+                } else if (current[player] > 0) {
+                    streaks[Math.min(current[player], GameHistoryStore.MAX_STREAK)]++;
+                    current[player] = 0;
+                }
+            }
+            assertEquals(ROWS, store.size());
+        }
+        for (int streak : current) {
+            if (streak > 0) {
+                streaks[Math.min(streak, GameHistoryStore.MAX_STREAK)]++;
+            }
+        }
+        assertTrue(streaks[GameHistoryStore.MAX_STREAK] > 0);
+
+        // Reopened, the store scans the rows of every segment
+        try (GameHistoryStore store = GameHistoryStore.open(dir)) {
+            assertEquals(ROWS, store.size());
+            GameHistoryStore.LevelCounts levels = store.winRateByLevel();
+            assertArrayEquals(games, levels.games());
+            assertArrayEquals(wins, levels.wins());
+            assertEquals(0, levels.winRate(0));
+            assertArrayEquals(streaks, store.streakDistribution());
+            assertArrayEquals(attempts, store.attemptsHistogram());
+        }
+    }
+
+    @Test
+    void recordsFinishedRounds() throws IOException {
+        ManualClock clock = new ManualClock(0);
+        GameSession session = new GameSession(1, 100, 10, clock, new SplittableRandom(8));
+        try (GameHistoryStore store = GameHistoryStore.open(dir)) {
+            // Player 0 wins twice, in one and then two attempts, and loses a round at level 2
+            store.record(0, session, session.evaluateGuess(session.getTargetNumber()));
+            session.resetGame();
+            int target = session.getTargetNumber();
+            session.evaluateGuess(target == 1 ? 2 : 1);
+            store.record(0, session, session.evaluateGuess(target));
+            session.increaseDifficulty();
+            session.resetGame();
+            clock.advance(session.getTimeLimit() * 1000L);
+            store.record(0, session, session.evaluateGuess(session.getTargetNumber()));
+
+            assertEquals(3, store.size());
+            GameHistoryStore.LevelCounts levels = store.winRateByLevel();
+            assertEquals(1.0, levels.winRate(1));
+            assertEquals(0.0, levels.winRate(2));
+            assertEquals(1, levels.games()[2]);
+            long[] streaks = new long[GameHistoryStore.MAX_STREAK + 1];
+            streaks[2] = 1;
+            assertArrayEquals(streaks, store.streakDistribution());
+            assertEquals("[0, 1, 1]", Arrays.toString(store.attemptsHistogram()));
+        }
+    }
+
+    @Test
+    void rejectsNegativePlayerIds() throws IOException {
+        try (GameHistoryStore store = GameHistoryStore.open(dir)) {
+            assertThrows(IllegalArgumentException.class,
+                () -> store.append(-1, 1, 100, 1, GuessOutcome.CORRECT, 0, 0));
+            assertEquals(0, store.size());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameViewModelTest {
+    @Test
+    void rendersOnlyWhatChangedOncePerFrame() {
+        List<GameViewModel.Frame> frames = new ArrayList<>();
+        List<Integer> dirtyBits = new ArrayList<>();
+        int[] scheduled = new int[1];
+        GameViewModel[] model = new GameViewModel[1];
+        model[0] = new GameViewModel((frame, dirty) -> {
+            // The view renders outside the lock, so setters on game threads never wait for it
+            assertFalse(Thread.holdsLock(model[0]));
+            frames.add(frame);
+            dirtyBits.add(dirty);
+        }, () -> scheduled[0]++);
+
+        model[0].setMessage("Too low");
+        model[0].setMessage("Too high");
+        model[0].setSecondsLeft(42);
+        model[0].setProgress(50, 2, true);
+        assertEquals(1, scheduled[0]);
+        model[0].flush();
+        model[0].flush();
+        assertEquals(1, frames.size());
+        assertEquals(GameViewModel.MESSAGE | GameViewModel.TIME_LEFT | GameViewModel.PROGRESS, dirtyBits.get(0));
+        GameViewModel.Frame frame = frames.get(0);
+        assertEquals("Too high", frame.message());
+        assertEquals(42, frame.secondsLeft());
+        assertEquals(50, frame.progress());
+        assertEquals(2, frame.progressLevel());
+        assertTrue(frame.progressShowsPercent());
+
+        // Unchanged values neither schedule nor render
+        model[0].setMessage("Too high");
+        model[0].setSecondsLeft(42);
+        assertEquals(1, scheduled[0]);
+        model[0].flush();
+        assertEquals(1, frames.size());
+    }
+
+    @Test
+    void framesKeepTheAchievementsOfTheirRefresh() {
+        List<GameViewModel.Frame> frames = new ArrayList<>();
+        GameViewModel model = new GameViewModel((frame, _) -> frames.add(frame), () -> { });
+        PlayerStats stats = new PlayerStats();
+        stats.updateStats(true, 1);
+        model.setStats(stats);
+        model.flush();
+        List<String> first = frames.get(0).newAchievements();
+        assertFalse(first.isEmpty());
+        assertEquals(1, frames.get(0).totalGames());
+
+        // A later batch neither repeats nor changes what the earlier frame holds
+        List<String> copy = List.copyOf(first);
+        stats.updateStats(true, 1);
+        model.setStats(stats);
+        model.flush();
+        assertEquals(copy, first);
+        assertEquals(2, frames.get(1).totalGames());
+        for (String name : frames.get(1).newAchievements()) {
+            assertFalse(first.contains(name));
+        }
+        assertTrue(model.frame().newAchievements().isEmpty());
+    }
+}
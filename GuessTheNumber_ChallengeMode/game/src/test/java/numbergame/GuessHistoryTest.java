@@ -0,0 +1,110 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuessHistoryTest {
+    @Test
+    void aggregatesFollowEveryGuess() {
+        GuessHistory history = new GuessHistory();
+        history.reset(10, 1, 100, 37);
+        assertEquals(0, history.getLowBracket());
+        assertEquals(101, history.getHighBracket());
+        assertEquals(100, history.getRemainingCandidates());
+        assertEquals(0, history.getBinarySearchEfficiency());
+        assertEquals(0, history.getDistanceTrend());
+
+        history.add(50);
+        history.add(25);
+        assertEquals(25, history.getLowBracket());
+        assertEquals(50, history.getHighBracket());
+        assertEquals(24, history.getRemainingCandidates());
+        assertEquals(1.0, history.getDistanceTrend()); // 13 then 12
+
+        history.add(37);
+        assertEquals(36, history.getLowBracket());
+        assertEquals(38, history.getHighBracket());
+        assertEquals(1, history.getRemainingCandidates());
+        assertEquals(Math.log(100) / Math.log(2) / 3, history.getBinarySearchEfficiency(), 1e-9);
+        assertEquals(6.5, history.getDistanceTrend());
+        assertEquals(25, history.getMinGuess());
+        assertEquals(50, history.getMaxGuess());
+        assertEquals(0, history.getLastDistance());
+        assertEquals(3, history.count());
+        assertEquals(50, history.get(0));
+        assertEquals(37, history.last());
+    }
+
+    @Test
+    void resetClearsTheRound() {
+        GuessHistory history = new GuessHistory();
+        history.reset(5, 1, 10, 3);
+        history.add(9);
+        history.reset(5, 1, 20, 4);
+        assertEquals(0, history.count());
+        assertEquals(0, history.size());
+        assertEquals(21, history.getHighBracket());
+        assertEquals(0, history.getLastDistance());
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(0));
+    }
+
+    @Test
+    void extremeBoundsDoNotOverflow() {
+        GuessHistory history = new GuessHistory();
+        history.reset(4, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals((long) Integer.MIN_VALUE - 1, history.getLowBracket());
+        assertEquals((long) Integer.MAX_VALUE + 1, history.getHighBracket());
+        history.add(Integer.MIN_VALUE);
+        assertEquals(0xffffffffL, history.getLastDistance());
+        assertEquals(Integer.MIN_VALUE, history.getLowBracket());
+    }
+
+    @Test
+    void oldestGuessesFallOutOnceFull() {
+        GuessHistory history = new GuessHistory();
+        history.reset(3, 1, 100, 100);
+        for (int guess = 1; guess <= 5; guess++) {
+            history.add(guess);
+        }
+        assertEquals(5, history.count());
+        assertEquals(3, history.size());
+        assertEquals(3, history.get(0));
+        assertEquals(5, history.last());
+        assertEquals(5, history.getLowBracket()); // Aggregates still cover every guess
+        assertEquals(1, history.getMinGuess());
+    }
+
+    @Test
+    void extraAttemptPowerUpKeepsTheFirstGuess() {
+        GameSession session = new GameSession(1, 1000, 2, new ManualClock(0), new SplittableRandom(1));
+        // A round whose first power-up is the extra attempt
+        long seed = 0;
+        while (true) {
+            session.startRound(seed);
+            if (session.applyPowerUp() == GameSession.POWER_UP_EXTRA_ATTEMPT) {
+                break;
+            }
+            seed++;
+        }
+        int[] guesses = new int[3];
+        for (int i = 0, guess = 1; i < guesses.length; guess++) {
+            if (guess != session.getTargetNumber()) {
+                guesses[i++] = guess;
+            }
+        }
+        assertEquals(3, session.getMaxAttempts());
+        assertFalse(session.evaluateGuess(guesses[0]).isGameOver());
+        assertFalse(session.evaluateGuess(guesses[1]).isGameOver());
+        assertEquals(GuessOutcome.OUT_OF_ATTEMPTS, session.evaluateGuess(guesses[2]));
+        GuessHistory history = session.getGuessHistory();
+        assertEquals(3, session.getAttempts());
+        assertEquals(3, history.count());
+        assertEquals(3, history.size());
+        for (int i = 0; i < guesses.length; i++) {
+            assertEquals(guesses[i], history.get(i));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LargeRangeSessionTest {
+    private final ManualClock clock = new ManualClock(0);
+
+    @Test
+    void matchesGameSessionOnIntRanges() {
+        GameSession small = new GameSession(1, 100, 10, clock, new SplittableRandom(1));
+        LargeRangeSession large = new LargeRangeSession(1, 100, 10, clock, new SplittableRandom(1));
+        for (long seed = 0; seed < 1_000; seed++) {
+            small.startRound(seed);
+            large.startRound(seed);
+            assertEquals(small.getTargetNumber(), large.getTargetNumber());
+            for (int i = 0; i <= GameSession.POWER_UPS_PER_ROUND; i++) {
+                assertEquals(small.applyPowerUp(), large.applyPowerUp());
+            }
+        }
+    }
+
+    @Test
+    void fullLongRangeCanBeWon() {
+        LargeRangeSession session = new LargeRangeSession(Long.MIN_VALUE, Long.MAX_VALUE, 64, clock, new SplittableRandom(2));
+        long low = Long.MIN_VALUE, high = Long.MAX_VALUE;
+        while (true) {
+            long guess = (low >> 1) + (high >> 1) + (low & high & 1);
+            GuessOutcome outcome = session.evaluateGuess(guess);
+            if (outcome == GuessOutcome.LOW) {
+                low = guess + 1;
+            } else if (outcome == GuessOutcome.HIGH) {
+                high = guess - 1;
+            } else {
+                assertEquals(GuessOutcome.CORRECT, outcome);
+                assertEquals(session.getTargetNumber(), guess);
+                break;
+            }
+        }
+        assertTrue(session.getAttempts() <= 64);
+    }
+
+    @Test
+    void rangeOverflowsIntoBigInteger() {
+        long max = Long.MAX_VALUE / 4 * 3;
+        LargeRangeSession session = new LargeRangeSession(1, max, 10, clock, new SplittableRandom(3));
+        assertFalse(session.isBig());
+        session.increaseDifficulty();
+        assertTrue(session.isBig());
+        // The round in progress keeps its bounds until the next one starts
+        assertEquals(max, session.getMaxRange());
+
+        BigInteger grown = BigInteger.valueOf(max).add(BigInteger.valueOf(max / 2));
+        boolean sawBigTarget = false, sawDigit = false;
+        for (long seed = 0; seed < 64; seed++) {
+            session.startRound(seed);
+            assertEquals(grown, session.getMaxRangeBig());
+            assertThrows(ArithmeticException.class, session::getMaxRange);
+            BigInteger target = session.getTargetBig();
+            assertTrue(target.signum() > 0 && target.compareTo(grown) <= 0);
+            if (target.bitLength() >= 64) {
+                sawBigTarget = true;
+                assertThrows(ArithmeticException.class, session::getTargetNumber);
+                // Every long guess is below a target past Long.MAX_VALUE
+                assertEquals(GuessOutcome.LOW, session.evaluateGuess(Long.MAX_VALUE));
+            } else {
+                assertEquals(target.longValueExact(), session.getTargetNumber());
+                assertEquals(GuessOutcome.HIGH, session.evaluateGuess(grown));
+            }
+            assertEquals(GuessOutcome.CORRECT, session.evaluateGuess(target));
+            while (session.getPowerUps() > 0) {
+                session.applyPowerUp();
+            }
+            if (session.getRevealedDigit() >= 0) {
+                sawDigit = true;
+                assertEquals(target.mod(BigInteger.TEN).intValue(), session.getRevealedDigit());
+            }
+        }
+        // About a ninth of the grown range lies past Long.MAX_VALUE
+        assertTrue(sawBigTarget);
+        assertTrue(sawDigit);
+
+        session.increaseDifficulty();
+        session.resetGame();
+        assertEquals(grown.add(grown.divide(BigInteger.TWO)), session.getMaxRangeBig());
+    }
+
+    @Test
+    void powerUpsLastOneRound() {
+        LargeRangeSession session = new LargeRangeSession(-1_000_000_000_000L, 1_000_000_000_000L, 10,
+            clock, new SplittableRandom(4));
+        for (long seed = 0; seed < 100; seed++) {
+            session.startRound(seed);
+            int attempts = 10;
+            for (int i = 0; i < GameSession.POWER_UPS_PER_ROUND; i++) {
+                long min = session.getMinRange(), max = session.getMaxRange();
+                int code = session.applyPowerUp();
+                switch (code) {
+                    case GameSession.POWER_UP_RANGE -> {
+                        long quarter = (max - min) >>> 2;
+                        assertEquals(min + quarter, session.getMinRange());
+                        assertEquals(max - quarter, session.getMaxRange());
+                    }
+                    case GameSession.POWER_UP_EXTRA_ATTEMPT -> attempts++;
+                    default -> {
+                        assertEquals(GameSession.POWER_UP_LAST_DIGIT, code);
+                        assertEquals(GameSession.lastDigit(session.getTargetNumber()), session.getRevealedDigit());
+                    }
+                }
+                assertEquals(attempts, session.getMaxAttempts());
+            }
+            assertEquals(0, session.getPowerUps());
+            assertEquals(GameSession.POWER_UP_NONE, session.applyPowerUp());
+        }
+        session.startRound(0);
+        assertEquals(10, session.getMaxAttempts());
+        assertEquals(-1_000_000_000_000L, session.getMinRange());
+        assertEquals(-1, session.getRevealedDigit());
+        assertEquals(GameSession.POWER_UPS_PER_ROUND, session.getPowerUps());
+    }
+
+    @Test
+    void finishedRoundOnlyRepeatsItsOutcome() {
+        LargeRangeSession session = new LargeRangeSession(1, 1L << 40, 2, clock, new SplittableRandom(5));
+        long target = session.getTargetNumber();
+        long wrong = target == 1 ? 2 : 1;
+        assertNotEquals(GuessOutcome.CORRECT, session.evaluateGuess(wrong));
+        assertEquals(GuessOutcome.OUT_OF_ATTEMPTS, session.evaluateGuess(wrong));
+        // A lost round cannot be won afterwards
+        assertEquals(GuessOutcome.OUT_OF_ATTEMPTS, session.evaluateGuess(target));
+        assertEquals(GuessOutcome.OUT_OF_ATTEMPTS, session.evaluateGuess(BigInteger.valueOf(target)));
+        assertFalse(session.isGameWon());
+        assertEquals(2, session.getAttempts());
+
+        session.resetGame();
+        target = session.getTargetNumber();
+        assertEquals(GuessOutcome.CORRECT, session.evaluateGuess(target));
+        // Nor does a won round count further guesses
+        assertEquals(GuessOutcome.CORRECT, session.evaluateGuess(target == 1 ? 2 : 1));
+        assertEquals(1, session.getAttempts());
+        assertTrue(session.isGameWon());
+    }
+
+    @Test
+    void timeRunsOut() {
+        LargeRangeSession session = new LargeRangeSession(1, 1L << 50, 10, clock, new SplittableRandom(6));
+        clock.advance(59_999);
+        assertFalse(session.isTimeUp());
+        clock.advance(1);
+        assertEquals(GuessOutcome.TIME_UP, session.evaluateGuess(session.getTargetNumber()));
+        assertEquals(0, session.getAttempts());
+    }
+}
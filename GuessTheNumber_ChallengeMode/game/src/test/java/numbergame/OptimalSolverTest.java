@@ -0,0 +1,94 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimalSolverTest {
+    @Test
+    void certainStatesNeedNoSearch() {
+        OptimalSolver solver = new OptimalSolver();
+        assertTrue(OptimalSolver.isCertain(100, 7));
+        assertFalse(OptimalSolver.isCertain(128, 7));
+        assertEquals(1.0, solver.winProbability(100, 10, 3, false));
+        assertEquals(49, solver.bestMove(100, 10, 3, false));
+        assertEquals(0, solver.size());
+        // Without power-ups k guesses find 2^k - 1 of the candidates
+        assertEquals(31 / 100.0, solver.winProbability(100, 5, 0, false), 1e-12);
+    }
+
+    @Test
+    void matchesExhaustiveSearchWhereBisectionIsNotCertain() {
+        OptimalSolver solver = new OptimalSolver();
+        Map<String, Double> memo = new HashMap<>();
+        for (int n = 1; n <= 60; n++) {
+            for (int k = 1; k <= 5; k++) {
+                for (int p = 0; p <= GameSession.POWER_UPS_PER_ROUND; p++) {
+                    double expected = exhaustive(n, k, p, false, memo);
+                    assertEquals(expected, solver.winProbability(n, k, p, false), 1e-9, n + " in " + k + " with " + p);
+                }
+            }
+        }
+        assertTrue(solver.size() > 0);
+        // Power-ups are worth something only when bisection can miss
+        assertTrue(solver.winProbability(60, 4, 3, false) > solver.winProbability(60, 4, 0, false));
+    }
+
+    @Test
+    void botWinsAtTheSolvedRate() {
+        // 1-100 in 5 attempts: bisection alone finds 31 of the 100 candidates
+        OptimalSolver solver = new OptimalSolver();
+        double odds = solver.winProbability(100, 5, GameSession.POWER_UPS_PER_ROUND, false);
+        assertTrue(odds > 0.5);
+        SolverBot bot = new SolverBot(solver);
+        ManualClock clock = new ManualClock(0);
+        GameSession session = new GameSession(1, 100, 5, clock, new SplittableRandom(3));
+        int rounds = 20_000, wins = 0;
+        for (long seed = 0; seed < rounds; seed++) {
+            session.startRound(seed);
+            if (HeadlessDriver.playOptimal(session, clock, bot) == GuessOutcome.CORRECT) {
+                wins++;
+            }
+        }
+        assertEquals(odds, (double) wins / rounds, 0.01);
+    }
+
+    // Value of a state over every split and the power-up, without the solver's table or windows
+    private static double exhaustive(int n, int k, int p, boolean digitKnown, Map<String, Double> memo) {
+        if (n <= 0 || k <= 0) {
+            return 0;
+        }
+        String key = n + "/" + k + "/" + p + "/" + digitKnown;
+        Double cached = memo.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        double best = 0;
+        for (int a = 0; a < n; a++) {
+            int b = n - 1 - a;
+            best = Math.max(best, (1 + a * exhaustive(a, k - 1, p, digitKnown, memo)
+                + b * exhaustive(b, k - 1, p, digitKnown, memo)) / n);
+        }
+        if (p > 0) {
+            // Last digit: each of the 10 classes mod 10 is as likely as its share of the candidates
+            double digit = 0;
+            if (digitKnown) {
+                digit = exhaustive(n, k, p - 1, true, memo);
+            } else {
+                for (int c = 0; c < 10; c++) {
+                    int size = n / 10 + (c < n % 10 ? 1 : 0);
+                    digit += size * exhaustive(size, k, p - 1, true, memo) / n;
+                }
+            }
+            double range = exhaustive(n, k, p - 1, digitKnown, memo);
+            double extra = exhaustive(n, k + 1, p - 1, digitKnown, memo);
+            best = Math.max(best, (digit + range + extra) / 3);
+        }
+        memo.put(key, best);
+        return best;
+    }
+}
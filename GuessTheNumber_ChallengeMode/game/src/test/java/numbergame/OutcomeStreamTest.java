@@ -0,0 +1,82 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutcomeStreamTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void slidingSpansExpireBucketsAndTumblingSpansRollOver() {
+        OutcomeStream stream = new OutcomeStream(now::get, 64);
+        assertTrue(stream.publish(SECOND / 2, 2, GuessOutcome.CORRECT, 3));
+        assertTrue(stream.publish(10 * SECOND + SECOND / 5, 2, GuessOutcome.OUT_OF_ATTEMPTS, 10));
+        assertTrue(stream.publish(59 * SECOND + SECOND * 9 / 10, 40, GuessOutcome.TIME_UP, 4));
+        stream.close();
+
+        now.set(59 * SECOND + SECOND * 9 / 10);
+        OutcomeStream.Aggregate minute = stream.sliding(OutcomeStream.Span.MINUTE);
+        assertEquals(3, minute.games(0));
+        assertEquals(1, minute.wins(0));
+        assertEquals(1, minute.timeUps(0));
+        assertEquals(2, minute.games(2));
+        assertEquals(0.5, minute.winRate(2));
+        // Levels past MAX_LEVEL share its slot
+        assertEquals(1, minute.games(OutcomeStream.MAX_LEVEL));
+        assertEquals(17 / 3.0, minute.meanAttempts(0), 1e-12);
+        assertEquals(4, minute.attemptsPercentile(0, 50));
+        assertEquals(10, minute.attemptsPercentile(0, 90));
+        // The first minute is not over yet
+        assertEquals(0, stream.tumbling(OutcomeStream.Span.MINUTE).games(0));
+
+        // One second on, the bucket of the first game has left the minute
+        now.set(60 * SECOND + SECOND / 2);
+        minute = stream.sliding(OutcomeStream.Span.MINUTE);
+        assertEquals(2, minute.games(0));
+        assertEquals(0, minute.wins(0));
+        assertEquals(1, minute.games(2));
+        OutcomeStream.Aggregate lastMinute = stream.tumbling(OutcomeStream.Span.MINUTE);
+        assertEquals(3, lastMinute.games(0));
+        assertEquals(1, lastMinute.wins(0));
+
+        now.set(70 * SECOND + SECOND / 2);
+        assertEquals(1, stream.sliding(OutcomeStream.Span.MINUTE).games(0));
+        assertEquals(3, stream.tumbling(OutcomeStream.Span.MINUTE).games(0));
+        assertEquals(3, stream.sliding(OutcomeStream.Span.FIVE_MINUTES).games(0));
+
+        // A whole minute without games empties both minute views; the hour keeps everything
+        now.set(125 * SECOND);
+        assertEquals(0, stream.sliding(OutcomeStream.Span.MINUTE).games(0));
+        assertEquals(0, stream.tumbling(OutcomeStream.Span.MINUTE).games(0));
+        assertEquals(3, stream.sliding(OutcomeStream.Span.HOUR).games(0));
+        assertEquals(0, stream.tumbling(OutcomeStream.Span.HOUR).games(0));
+
+        // Five-second buckets: at 302 s the one of 0-5 s has left the five minutes, 10-15 s has not
+        now.set(302 * SECOND);
+        assertEquals(2, stream.sliding(OutcomeStream.Span.FIVE_MINUTES).games(0));
+        assertEquals(3, stream.tumbling(OutcomeStream.Span.FIVE_MINUTES).games(0));
+        assertEquals(0, stream.getDropped());
+    }
+
+    @Test
+    void lateOutcomesOnlyCountWhereTheSpanStillCoversThem() {
+        OutcomeStream stream = new OutcomeStream(now::get, 64);
+        stream.publish(200 * SECOND, 1, GuessOutcome.CORRECT, 5);
+        // Published by a slower thread after the one above
+        stream.publish(100 * SECOND, 1, GuessOutcome.CORRECT, 6);
+        stream.close();
+
+        now.set(200 * SECOND);
+        assertEquals(1, stream.sliding(OutcomeStream.Span.MINUTE).games(1));
+        assertEquals(2, stream.sliding(OutcomeStream.Span.FIVE_MINUTES).games(1));
+        assertEquals(2, stream.sliding(OutcomeStream.Span.HOUR).games(1));
+        // 100 s belongs to the minute period that ended at 120 s, which the late outcome still counts in
+        now.set(240 * SECOND);
+        assertEquals(1, stream.tumbling(OutcomeStream.Span.MINUTE).games(1));
+    }
+}
@@ -0,0 +1,192 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStatsStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenedStoreKeepsEveryEvent() throws IOException {
+        PlayerStats expected = new PlayerStats();
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            store.recordGame(7, true, 4);
+            expected.updateStats(true, 4);
+            store.recordGame(7, false, 10);
+            expected.updateStats(false, 10);
+            store.recordPowerUp(7);
+            expected.recordPowerUp();
+            store.recordLevel(7, 3);
+            expected.recordLevel(3);
+            store.recordSpend(7, 5);
+            expected.spendCoins(5);
+            assertStats(expected, store.load(7));
+        }
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            assertStats(expected, store.load(7));
+            assertStats(new PlayerStats(), store.load(8));
+        }
+    }
+
+    @Test
+    void tornLogTailIsDroppedAndTruncated() throws IOException {
+        PlayerStats expected = new PlayerStats();
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            store.recordGame(1, true, 2);
+            expected.updateStats(true, 2);
+        }
+        // The start of an event that would have been a second win
+        Path log = dir.resolve("stats.log");
+        ByteBuffer torn = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 2);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(torn);
+        }
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            assertEquals(0, Files.size(log) % 20);
+            assertStats(expected, store.load(1));
+            // The next event takes the torn one's place
+            store.recordGame(1, true, 3);
+            expected.updateStats(true, 3);
+        }
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            assertStats(expected, store.load(1));
+        }
+    }
+
+    @Test
+    void recoveryReplaysLogOverCheckpointedRecords(@TempDir Path crashed) throws IOException {
+        PlayerStats expected = new PlayerStats();
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir, 4, Long.MAX_VALUE)) {
+            store.recordGame(3, true, 5);
+            expected.updateStats(true, 5);
+            store.checkpoint();
+            Files.copy(dir.resolve("stats.dat"), crashed.resolve("stats.dat"));
+            for (int i = 0; i < 10; i++) {
+                store.recordGame(3, i % 3 != 0, i + 1);
+                expected.updateStats(i % 3 != 0, i + 1);
+            }
+            store.recordPowerUp(3);
+            expected.recordPowerUp();
+            store.recordLevel(3, 2);
+            expected.recordLevel(2);
+            store.flush();
+            // A crash now leaves the checkpointed records and the log written since
+            Files.copy(dir.resolve("stats.log"), crashed.resolve("stats.log"));
+        }
+        try (PlayerStatsStore store = PlayerStatsStore.open(crashed)) {
+            assertStats(expected, store.load(3));
+        }
+        // Records newer than the log are not replayed twice
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            assertStats(expected, store.load(3));
+        }
+    }
+
+    @Test
+    void matchesInMemoryModelAcrossFlushesCheckpointsAndReopens() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        int players = 40;
+        PlayerStats[] model = new PlayerStats[players];
+        for (int i = 0; i < players; i++) {
+            model[i] = new PlayerStats();
+        }
+        PlayerStatsStore store = PlayerStatsStore.open(dir, 8, 500);
+        try {
+            for (int step = 0; step < 5_000; step++) {
+                // Ids past the initial capacity make the record file grow
+                int player = random.nextInt(players) * 64;
+                PlayerStats stats = model[player / 64];
+                int action = random.nextInt(100);
+                if (action < 60) {
+                    boolean won = random.nextBoolean();
+                    int attempts = 1 + random.nextInt(10);
+                    store.recordGame(player, won, attempts);
+                    stats.updateStats(won, attempts);
+                } else if (action < 70) {
+                    store.recordPowerUp(player);
+                    stats.recordPowerUp();
+                } else if (action < 80) {
+                    int level = 1 + random.nextInt(12);
+                    store.recordLevel(player, level);
+                    stats.recordLevel(level);
+                } else if (action < 90) {
+                    int coins = random.nextInt(30);
+                    store.recordSpend(player, coins);
+                    stats.spendCoins(coins);
+                } else if (action < 95) {
+                    store.flush();
+                } else if (action < 98) {
+                    store.checkpoint();
+                } else {
+                    store.close();
+                    store = PlayerStatsStore.open(dir, 8, 500);
+                }
+                assertStats(stats, store.load(player));
+            }
+        } finally {
+            store.close();
+        }
+        try (PlayerStatsStore reopened = PlayerStatsStore.open(dir)) {
+            assertTrue(reopened.getCapacity() > (players - 1) * 64);
+            for (int i = 0; i < players; i++) {
+                assertStats(model[i], reopened.load(i * 64));
+            }
+        }
+    }
+
+    @Test
+    void valuesPastShortRangeSurviveLogAndRecords(@TempDir Path crashed) throws IOException {
+        PlayerStats expected = new PlayerStats();
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir, 4, Long.MAX_VALUE)) {
+            store.recordLevel(5, 40_000);
+            expected.recordLevel(40_000);
+            store.recordGame(5, true, 70_000);
+            expected.updateStats(true, 70_000);
+            // Still buffered
+            assertStats(expected, store.load(5));
+            store.flush();
+            Files.copy(dir.resolve("stats.dat"), crashed.resolve("stats.dat"));
+            Files.copy(dir.resolve("stats.log"), crashed.resolve("stats.log"));
+        }
+        // Replayed from the log, and read back from the checkpointed records
+        try (PlayerStatsStore store = PlayerStatsStore.open(crashed)) {
+            assertStats(expected, store.load(5));
+        }
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            assertStats(expected, store.load(5));
+        }
+    }
+
+    @Test
+    void rejectsOtherVersions() throws IOException {
+        // Header: magic, version 2, 128-byte records, capacity 4
+        ByteBuffer file = ByteBuffer.allocate(64 + 4 * 128).order(ByteOrder.LITTLE_ENDIAN);
+        file.putInt(0, 0x47544e53).putInt(4, 2).putInt(8, 128).putInt(12, 4);
+        Files.write(dir.resolve("stats.dat"), file.array());
+        assertThrows(IOException.class, () -> PlayerStatsStore.open(dir));
+    }
+
+    private static void assertStats(PlayerStats expected, PlayerStats actual) {
+        assertEquals(expected.getTotalGames(), actual.getTotalGames(), "total games");
+        assertEquals(expected.getGamesWon(), actual.getGamesWon(), "games won");
+        assertEquals(expected.getCurrentStreak(), actual.getCurrentStreak(), "current streak");
+        assertEquals(expected.getBestStreak(), actual.getBestStreak(), "best streak");
+        assertEquals(expected.getTotalGuesses(), actual.getTotalGuesses(), "total guesses");
+        assertEquals(expected.getCoins(), actual.getCoins(), "coins");
+        assertEquals(expected.getHighestLevel(), actual.getHighestLevel(), "highest level");
+        assertEquals(expected.getPowerUpsUsed(), actual.getPowerUpsUsed(), "power-ups used");
+        assertArrayEquals(expected.getAchievementWords(), actual.getAchievementWords(), "achievements");
+    }
+}
@@ -0,0 +1,123 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileServiceTest {
+    private static final long NEVER = Long.MAX_VALUE;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void evictsTheLeastRecentlyUsedAndSavesItFirst() throws IOException {
+        try (ProfileService service = ProfileService.open(dir, 3, NEVER)) {
+            service.recordGame(0, true, 2);
+            service.recordGame(1, true, 3);
+            service.recordGame(2, false, 10);
+            // Player 0 becomes the most recently used, so 1 is the one to go
+            PlayerStats stats = new PlayerStats();
+            service.read(0, stats);
+            service.recordLevel(3, 4);
+            assertEquals(3, service.size());
+            assertEquals(1, service.getEvictions());
+            assertEquals(1, service.getHits());
+            assertEquals(4, service.getMisses());
+
+            // Player 1 comes back from the store with the game it played before eviction
+            service.read(1, stats);
+            assertEquals(1, stats.getGamesWon());
+            assertEquals(3, stats.getTotalGuesses());
+            assertEquals(2, service.getEvictions()); // Player 2 made room
+            // and player 2 from the store too, evicting 0
+            service.read(2, stats);
+            assertEquals(1, stats.getTotalGames());
+            assertEquals(0, stats.getGamesWon());
+            assertEquals(3, service.getEvictions());
+            assertEquals(1 / 7.0, service.hitRate(), 1e-12);
+        }
+    }
+
+    @Test
+    void writeBehindSavesWithoutAnEviction(@TempDir Path crashed) throws IOException, InterruptedException {
+        PlayerStats expected = new PlayerStats();
+        expected.updateStats(true, 4);
+        expected.spendCoins(3);
+        try (ProfileService service = ProfileService.open(dir, 16, 20)) {
+            service.recordGame(5, true, 4);
+            assertTrue(service.spendCoins(5, 3));
+            // What a crash would leave on disk, once the writer has run after both changes
+            PlayerStats saved = new PlayerStats();
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (saved.getTotalGames() == 0 || saved.getCoins() != expected.getCoins()) {
+                assertTrue(System.nanoTime() < deadline, "profile never written");
+                Thread.sleep(10);
+                for (String file : new String[] {"stats.dat", "stats.log"}) {
+                    Files.copy(dir.resolve(file), crashed.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+                }
+                try (PlayerStatsStore store = PlayerStatsStore.open(crashed)) {
+                    store.load(5, saved);
+                }
+            }
+            assertEquals(1, saved.getGamesWon());
+            assertEquals(4, saved.getTotalGuesses());
+            assertArrayEquals(expected.getAchievementWords(), saved.getAchievementWords());
+            assertEquals(0, service.getEvictions());
+        }
+    }
+
+    @Test
+    void closeSavesEveryPlayer() throws IOException {
+        int players = 50;
+        PlayerStats[] model = new PlayerStats[players];
+        for (int i = 0; i < players; i++) {
+            model[i] = new PlayerStats();
+        }
+        SplittableRandom random = new SplittableRandom(17);
+        try (ProfileService service = ProfileService.open(dir, 8, NEVER)) {
+            for (int step = 0; step < 3_000; step++) {
+                int player = random.nextInt(players);
+                int action = random.nextInt(10);
+                if (action < 6) {
+                    boolean won = random.nextBoolean();
+                    int attempts = 1 + random.nextInt(10);
+                    service.recordGame(player, won, attempts);
+                    model[player].updateStats(won, attempts);
+                } else if (action < 7) {
+                    service.recordPowerUp(player);
+                    model[player].recordPowerUp();
+                } else if (action < 8) {
+                    int level = 1 + random.nextInt(10);
+                    service.recordLevel(player, level);
+                    model[player].recordLevel(level);
+                } else if (action < 9) {
+                    int coins = random.nextInt(40);
+                    assertEquals(model[player].spendCoins(coins), service.spendCoins(player, coins));
+                } else {
+                    service.flush();
+                }
+            }
+            assertEquals(8, service.size());
+        }
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir)) {
+            for (int i = 0; i < players; i++) {
+                PlayerStats stored = store.load(i);
+                assertEquals(model[i].getTotalGames(), stored.getTotalGames());
+                assertEquals(model[i].getGamesWon(), stored.getGamesWon());
+                assertEquals(model[i].getBestStreak(), stored.getBestStreak());
+                assertEquals(model[i].getCoins(), stored.getCoins());
+                assertEquals(model[i].getHighestLevel(), stored.getHighestLevel());
+                assertEquals(model[i].getPowerUpsUsed(), stored.getPowerUpsUsed());
+                assertArrayEquals(model[i].getAchievementWords(), stored.getAchievementWords());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedTreeTest {
+    private record Entry(long score, int player) {
+    }
+
+    // Best first: higher score, then lower player id
+    private static final Comparator<Entry> ORDER =
+        Comparator.comparingLong(Entry::score).reversed().thenComparingInt(Entry::player);
+
+    @Test
+    void emptyTree() {
+        RankedTree tree = new RankedTree();
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.rank(10, 1));
+        assertEquals(-1, tree.playerAt(1));
+        assertEquals(0, tree.top(5, new int[5]));
+        assertFalse(tree.remove(10, 1));
+    }
+
+    @Test
+    void matchesSortedSetModel() {
+        SplittableRandom random = new SplittableRandom(5);
+        RankedTree tree = new RankedTree();
+        TreeSet<Entry> model = new TreeSet<>(ORDER);
+        for (int step = 0; step < 60_000; step++) {
+            // Few distinct scores, so ties are ordered by player id; removals outnumber inserts
+            // late in the run, so nodes empty out and are dropped
+            long score = random.nextInt(500);
+            int player = random.nextInt(20_000);
+            Entry entry = new Entry(score, player);
+            boolean insert = step < 40_000 ? random.nextInt(3) != 0 : random.nextInt(4) == 0;
+            if (insert) {
+                if (model.add(entry)) {
+                    tree.insert(score, player);
+                }
+            } else if (!model.isEmpty() && random.nextBoolean()) {
+                Entry victim = random.nextBoolean() ? model.first() : model.ceiling(entry);
+                if (victim == null) {
+                    victim = model.last();
+                }
+                model.remove(victim);
+                assertTrue(tree.remove(victim.score(), victim.player()));
+            } else {
+                assertEquals(model.remove(entry), tree.remove(score, player));
+            }
+            assertEquals(model.size(), tree.size());
+            if (step % 5_000 == 0) {
+                assertSameOrder(model, tree);
+            }
+        }
+        assertSameOrder(model, tree);
+        for (Entry entry : model.toArray(new Entry[0])) {
+            assertTrue(tree.remove(entry.score(), entry.player()));
+        }
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.playerAt(1));
+    }
+
+    private static void assertSameOrder(TreeSet<Entry> model, RankedTree tree) {
+        int[] top = new int[model.size() + 1];
+        assertEquals(model.size(), tree.top(top.length, top));
+        int rank = 1;
+        for (Entry entry : model) {
+            assertEquals(rank, tree.rank(entry.score(), entry.player()));
+            assertEquals(entry.player(), tree.playerAt(rank));
+            assertEquals(entry.player(), top[rank - 1]);
+            // Same player, other score: not in the tree
+            assertEquals(-1, tree.rank(entry.score() + 1000, entry.player()));
+            rank++;
+        }
+        assertEquals(-1, tree.playerAt(rank));
+        int[] three = new int[3];
+        assertEquals(Math.min(3, model.size()), tree.top(10, three));
+    }
+}
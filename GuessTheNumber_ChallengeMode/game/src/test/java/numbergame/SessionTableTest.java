@@ -0,0 +1,83 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTableTest {
+    private static final int SESSIONS = 32;
+    private static final int BATCH = 16;
+
+    @Test
+    void batchesMatchGameSessionGuessByGuess() {
+        ManualClock clock = new ManualClock(0);
+        SplittableRandom random = new SplittableRandom(13);
+        SessionTable table = new SessionTable(clock, 4);
+        GameSession[] sessions = new GameSession[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            long seed = random.nextLong();
+            sessions[i] = new GameSession(1, 100, 10, clock, new SplittableRandom(i));
+            sessions[i].startRound(seed);
+            assertEquals(i, table.open(1, 100, 10, sessions[i].getTimeLimit(), seed));
+            assertEquals(sessions[i].getTargetNumber(), table.getTargetNumber(i));
+        }
+
+        int[] ids = new int[BATCH], guesses = new int[BATCH];
+        byte[] outcomes = new byte[BATCH];
+        long ended = 0;
+        for (int step = 0; step < 5_000; step++) {
+            // Now and then a long pause, so some rounds time out
+            clock.advance(random.nextInt(100) == 0 ? 61_000 : random.nextInt(2_000));
+            for (int i = 0; i < BATCH; i++) {
+                // Ids repeat within a batch, and guesses stray outside the range
+                ids[i] = random.nextInt(SESSIONS);
+                guesses[i] = random.nextInt(4) == 0 ? table.getTargetNumber(ids[i]) : random.nextInt(-5, 106);
+            }
+            ended += table.guess(ids, guesses, BATCH, outcomes);
+            for (int i = 0; i < BATCH; i++) {
+                GameSession session = sessions[ids[i]];
+                boolean wasOver = session.isRoundOver();
+                int attempts = session.getAttempts();
+                GuessOutcome expected = session.evaluateGuess(guesses[i]);
+                if (wasOver) {
+                    // The table reports a finished round instead of repeating its outcome
+                    assertEquals(SessionTable.NO_ROUND, outcomes[i]);
+                    assertEquals(attempts, session.getAttempts());
+                } else {
+                    assertEquals(expected, SessionTable.outcome(outcomes[i]), "step " + step);
+                }
+            }
+            for (int id : ids) {
+                assertEquals(sessions[id].getAttempts(), table.getAttempts(id));
+                assertEquals(sessions[id].isRoundOver(), table.isRoundOver(id));
+            }
+            if (random.nextInt(4) == 0) {
+                int id = random.nextInt(SESSIONS);
+                long seed = random.nextLong();
+                sessions[id].startRound(seed);
+                table.startRound(id, seed);
+                assertEquals(sessions[id].getTargetNumber(), table.getTargetNumber(id));
+            }
+        }
+        assertTrue(ended > 0);
+    }
+
+    @Test
+    void closedIdsAreReused() {
+        SessionTable table = new SessionTable(new ManualClock(0), 1);
+        int a = table.open(1, 10, 3, 60, 1);
+        int b = table.open(1, 10, 3, 60, 2);
+        table.close(a);
+        assertEquals(1, table.size());
+        assertThrows(IllegalArgumentException.class, () -> table.startRound(a, 3));
+        byte[] outcomes = new byte[1];
+        table.guess(new int[] {a}, new int[] {5}, 1, outcomes);
+        assertEquals(SessionTable.NO_ROUND, outcomes[0]);
+        assertEquals(a, table.open(5, 5, 1, 60, 4));
+        assertEquals(5, table.getTargetNumber(a));
+        assertNotEquals(a, b);
+        assertThrows(IllegalArgumentException.class, () -> table.open(2, 1, 3, 60, 5));
+    }
+}
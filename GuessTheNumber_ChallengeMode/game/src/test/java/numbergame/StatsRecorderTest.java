@@ -0,0 +1,114 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsRecorderTest {
+    private static final int PLAYERS = 12;
+    private static final int THREADS = 3;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void batchedRecorderMirrorsEveryCore() throws IOException, InterruptedException {
+        AtomicLong now = new AtomicLong();
+        GameClock clock = now::get;
+        GameCore[] cores = new GameCore[PLAYERS];
+        Leaderboard leaderboard = new Leaderboard();
+        LongAdder ended = new LongAdder();
+        try (PlayerStatsStore store = PlayerStatsStore.open(dir);
+             OutcomeStream outcomes = new OutcomeStream(clock, 1 << 16)) {
+            try (GameBus.Batched recorder = new GameBus.Batched(new StatsRecorder(store, leaderboard, outcomes), 256, "stats-recorder")) {
+                SplittableRandom root = new SplittableRandom(9);
+                for (int id = 0; id < PLAYERS; id++) {
+                    cores[id] = new GameCore(id, new PlayerStats(), clock, root.split());
+                    cores[id].getBus().subscribe(recorder);
+                    cores[id].getBus().subscribe((_, _, type, _, _) -> {
+                        if (type == GameBus.ROUND_ENDED) ended.increment();
+                    });
+                }
+                // Several game threads publish to the one recorder, each owning its own cores
+                Thread[] threads = new Thread[THREADS];
+                for (int t = 0; t < THREADS; t++) {
+                    SplittableRandom random = root.split();
+                    int first = t * PLAYERS / THREADS, last = (t + 1) * PLAYERS / THREADS;
+                    threads[t] = new Thread(() -> {
+                        for (int step = 0; step < 20_000; step++) {
+                            play(cores[random.nextInt(first, last)], random);
+                        }
+                    });
+                    threads[t].start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                // Time-ups, found on the test thread once every game thread is done
+                now.addAndGet(70_000_000_000L);
+                for (GameCore core : cores) {
+                    core.checkTimeUp();
+                }
+            }
+            // The recorder has delivered everything queued before it closed
+            store.flush();
+            for (GameCore core : cores) {
+                PlayerStats expected = core.getStats();
+                PlayerStats stored = store.load(core.getPlayerId());
+                assertEquals(expected.getTotalGames(), stored.getTotalGames());
+                assertEquals(expected.getGamesWon(), stored.getGamesWon());
+                assertEquals(expected.getBestStreak(), stored.getBestStreak());
+                assertEquals(expected.getTotalGuesses(), stored.getTotalGuesses());
+                assertEquals(expected.getPowerUpsUsed(), stored.getPowerUpsUsed());
+                assertEquals(expected.getHighestLevel(), stored.getHighestLevel());
+                assertEquals(expected.getCoins(), stored.getCoins());
+            }
+
+            for (Leaderboard.Metric metric : Leaderboard.Metric.values()) {
+                Integer[] order = new Integer[PLAYERS];
+                for (int id = 0; id < PLAYERS; id++) {
+                    order[id] = id;
+                }
+                Arrays.sort(order, Comparator.<Integer>comparingLong(id -> metric.score(cores[id].getStats())).reversed()
+                    .thenComparingInt(id -> id));
+                assertEquals(PLAYERS, leaderboard.size(metric));
+                for (int rank = 1; rank <= PLAYERS; rank++) {
+                    assertEquals(order[rank - 1], leaderboard.playerAt(metric, rank), metric + " rank " + rank);
+                }
+            }
+
+            outcomes.close();
+            OutcomeStream.Aggregate hour = outcomes.sliding(OutcomeStream.Span.HOUR);
+            assertEquals(ended.sum(), hour.games(0));
+            long won = Arrays.stream(cores).mapToLong(core -> core.getStats().getGamesWon()).sum();
+            assertEquals(won, hour.wins(0));
+            assertEquals(0, outcomes.getDropped());
+        }
+    }
+
+    // One random move: a new round, a power-up or a guess, mostly a bisecting one
+    private static void play(GameCore core, SplittableRandom random) {
+        if (!core.isRoundOpen() || random.nextInt(50) == 0) {
+            core.startNewGame();
+            return;
+        }
+        GameSession session = core.getSession();
+        if (random.nextInt(10) == 0) {
+            core.usePowerUp();
+        } else if (random.nextInt(4) == 0) {
+            core.guess(random.nextInt(session.getMinRange(), session.getMaxRange() + 1));
+        } else {
+            GuessHistory history = session.getGuessHistory();
+            core.guess((int) ((history.getLowBracket() + history.getHighBracket()) >> 1));
+        }
+    }
+}
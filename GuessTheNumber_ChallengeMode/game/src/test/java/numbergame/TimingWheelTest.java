@@ -0,0 +1,95 @@
+package numbergame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long MS = 1_000_000L;
+
+    // Read by the wheel thread, so not a ManualClock
+    private final AtomicLong now = new AtomicLong();
+    private final TimingWheel wheel = new TimingWheel(now::get, MS);
+
+    @AfterEach
+    void shutdown() {
+        wheel.shutdown();
+    }
+
+    @Test
+    void firesOnceAtDeadlineOnEveryLevel() throws InterruptedException {
+        // 1 ms ticks: level 0 spans 64 ms, level 1 4 s, level 2 about 4.4 min, then level 3
+        long[] deadlines = {10, 63, 66, 100, 4_000, 4_200, 70_000, 300_000};
+        AtomicInteger[] fired = new AtomicInteger[deadlines.length];
+        for (int i = 0; i < deadlines.length; i++) {
+            AtomicInteger count = new AtomicInteger();
+            fired[i] = count;
+            wheel.schedule(new TimingWheel.Timeout(count::incrementAndGet), deadlines[i] * MS);
+        }
+        awaitSize(deadlines.length);
+
+        // Step the clock to just before and just after each deadline; steps must move it forward
+        for (long deadline : deadlines) {
+            for (long at : new long[] {deadline - 1, deadline + 1}) {
+                awaitWheel(at);
+                for (int i = 0; i < deadlines.length; i++) {
+                    assertEquals(deadlines[i] < at ? 1 : 0, fired[i].get(),
+                        "timeout at " + deadlines[i] + " ms with the clock at " + at + " ms");
+                }
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledAndMovedTimeoutsFireOnlyWhenStillDue() throws InterruptedException {
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        AtomicInteger movedRuns = new AtomicInteger();
+        TimingWheel.Timeout cancelled = new TimingWheel.Timeout(cancelledRuns::incrementAndGet);
+        TimingWheel.Timeout moved = new TimingWheel.Timeout(movedRuns::incrementAndGet);
+        wheel.schedule(cancelled, 200 * MS);
+        wheel.schedule(moved, 5_000 * MS);
+        awaitSize(2);
+        awaitWheel(100);
+        wheel.cancel(cancelled);
+        wheel.schedule(moved, 300 * MS);
+        awaitSize(1);
+        assertFalse(cancelled.isArmed());
+        assertTrue(moved.isArmed());
+
+        awaitWheel(301);
+        assertEquals(0, cancelledRuns.get());
+        assertEquals(1, movedRuns.get());
+        assertFalse(moved.isArmed());
+        awaitWheel(5_001);
+        assertEquals(1, movedRuns.get());
+        assertEquals(0, wheel.size());
+    }
+
+    // Moves the clock forward and waits until the wheel has expired every tick before the new
+    // time. A sentinel due at that time is placed first: ticks expire in order, so once it has
+    // run, every earlier deadline has too. Placed after the clock moved, it could land a tick late.
+    private void awaitWheel(long millis) throws InterruptedException {
+        CountDownLatch reached = new CountDownLatch(1);
+        int armed = wheel.size();
+        wheel.schedule(new TimingWheel.Timeout(reached::countDown), millis * MS);
+        awaitSize(armed + 1);
+        now.set(millis * MS);
+        assertTrue(reached.await(10, TimeUnit.SECONDS), "wheel did not reach " + millis + " ms");
+    }
+
+    // Waits until the wheel thread has taken in every schedule() and cancel() so far
+    private void awaitSize(int armed) throws InterruptedException {
+        long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (wheel.size() != armed) {
+            assertTrue(System.nanoTime() < giveUp, "wheel holds " + wheel.size() + " timeouts, expected " + armed);
+            Thread.sleep(1);
+        }
+    }
+}
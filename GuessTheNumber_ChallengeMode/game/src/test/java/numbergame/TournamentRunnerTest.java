@@ -0,0 +1,32 @@
+package numbergame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentRunnerTest {
+    @Test
+    void resultsDoNotDependOnTheThreadCount() {
+        TournamentRunner runner = new TournamentRunner(6, 20, false, 42);
+        TournamentRunner.LevelStats one = run(runner, 1);
+        TournamentRunner.LevelStats four = run(runner, 4);
+        assertEquals(200 * 6 * 20, one.totalGames());
+        assertArrayEquals(one.games, four.games);
+        assertArrayEquals(one.wins, four.wins);
+        assertArrayEquals(one.guesses, four.guesses);
+        assertArrayEquals(one.timeUps, four.timeUps);
+        assertArrayEquals(one.powerUps, four.powerUps);
+        assertArrayEquals(one.maxRange, four.maxRange);
+    }
+
+    private static TournamentRunner.LevelStats run(TournamentRunner runner, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return runner.run(pool, 200);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -2,16 +2,27 @@
 echo Starting Guess The Number Challenge Mode...
 echo.
 
-REM Compile the Java files
-javac -source 1.8 -target 1.8 GuessTheNumberChallenge.java
-if errorlevel 1 (
-    echo Compilation failed!
-    pause
-    exit /b 1
+REM Build the game jar once; delete the out folder to rebuild after changing the sources.
+REM Rebuilding changes the jar, which makes the JVM record a fresh sharing archive.
+if not exist out\GuessTheNumberGame.jar (
+    javac -d out\classes game\src\main\java\numbergame\*.java
+    if errorlevel 1 (
+        echo Compilation failed!
+        pause
+        exit /b 1
+    )
+    copy /Y game\src\main\resources\achievements.txt out\classes\ > nul
+    jar --create --file out\GuessTheNumberGame.jar --main-class numbergame.GuessTheNumberChallenge -C out\classes .
+    if errorlevel 1 (
+        echo Packaging failed!
+        pause
+        exit /b 1
+    )
 )
 
-REM Run the game
-java GuessTheNumberChallenge
+REM Run the game; the first run records a class-data-sharing archive that later runs start from.
+REM The archive only covers classes loaded from jars, so the game runs from its jar.
+java -XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=out\GuessTheNumber.jsa -Dnumbergame.startup=lazy -jar out\GuessTheNumberGame.jar
 if errorlevel 1 (
     echo Game execution failed!
     pause